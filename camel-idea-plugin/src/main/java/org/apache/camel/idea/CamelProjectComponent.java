@@ -18,42 +18,55 @@ package org.apache.camel.idea;
 
 import java.util.List;
 import com.intellij.ProjectTopics;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.ProjectComponent;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.module.Module;
-import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.ModuleListener;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ModuleRootEvent;
 import com.intellij.openapi.roots.ModuleRootListener;
 import com.intellij.util.Function;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.apache.camel.idea.service.CamelCatalogService;
 import org.apache.camel.idea.service.CamelService;
+import org.apache.camel.idea.service.ScanScheduler;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * Listen for changes to Modules ad update the library cached and isCamelPresent
  * <p>
- *     If changes are made to the module settings the cache is cleared and scanning
- *     for all camel dependencies is re-run and the {@link CamelService#isCamelPresent()}
- *     is updated
+ *     If changes are made to the module settings, or modules are added or removed, then
+ *     only the modules whose libraries have changed since the last scan are scanned again,
+ *     and the Camel components of the libraries which have been removed are removed, see
+ *     {@link CamelService#scanForChangedLibraries(Project)}
  * </p>
  * <p>
- *     When the project is open for the first time  it will scan for all camel dependencies
- *     and update the {@link CamelService#isCamelPresent()}.
- *
- *     After it has scan all modules it set the flag runModuleOnStartUp = true
- *     to prevent it triggered both {@link ModuleRootListener#rootsChanged(ModuleRootEvent)}
- *     and {@link ModuleListener#moduleAdded(Project, Module)} on new module added
+ *     The events are coalesced by a {@link ScanScheduler}, so a burst of events such as during
+ *     a maven or gradle sync triggers a single scan, which runs as a background task and is
+ *     cancelled if another event happens while it is running.
+ * </p>
+ * <p>
+ *     When the project is open for the first time it will scan for all camel dependencies
+ *     and update the {@link CamelService#isCamelPresent()}, as all the modules are added
+ *     with libraries not scanned before.
  * </p>
  */
 public class CamelProjectComponent implements ProjectComponent {
 
+    /**
+     * Time to wait for other root or module events before the dependencies are scanned.
+     */
+    static final long SCAN_QUIET_PERIOD_MILLIS = 500;
+
     private final Project project;
-    private volatile boolean runModuleOnStartUp;
+    private final ScanScheduler scanScheduler;
 
     CamelProjectComponent(Project project) {
         this.project = project;
+        this.scanScheduler = new ScanScheduler(SCAN_QUIET_PERIOD_MILLIS, AppExecutorUtil.getAppScheduledExecutorService(), () -> new ScanTask().start());
     }
 
     @NotNull
@@ -79,17 +92,7 @@ public class CamelProjectComponent implements ProjectComponent {
                 // such as adding a dependency to the project maven pom.xml file
                 Project project = (Project) event.getSource();
                 if (project.isOpen()) {
-                    // rebuild list of libraries because the dependencies may have changed
-                    getCamelIdeaService(project).setCamelPresent(false);
-                    getCamelIdeaService(project).clearLibraries();
-
-                    for (Module module : ModuleManager.getInstance(project).getModules()) {
-                        getCamelIdeaService(project).scanForCamelProject(project, module);
-                        // if its a Camel project then scan for additional Camel components
-                        if (getCamelIdeaService(project).isCamelPresent()) {
-                            getCamelIdeaService(project).scanForCamelDependencies(project, module);
-                        }
-                    }
+                    scheduleScan();
                 }
             }
         });
@@ -97,25 +100,8 @@ public class CamelProjectComponent implements ProjectComponent {
         project.getMessageBus().connect(project).subscribe(ProjectTopics.MODULES, new ModuleListener() {
             @Override
             public void moduleAdded(@NotNull Project project, @NotNull Module module) {
-                if (!runModuleOnStartUp) {
-                    runModuleOnStartUp = true;
-                    // We scan all models at once to prevent scanning the same libraries multiple times
-                    for (Module m : ModuleManager.getInstance(project).getModules()) {
-                        getCamelIdeaService(project).scanForCamelProject(project, m);
-
-                        // if its a Camel project then scan for additional Camel components
-                        if (getCamelIdeaService(project).isCamelPresent()) {
-                            getCamelIdeaService(project).scanForCamelDependencies(project, m);
-                        }
-                    }
-                } else {
-                    // a new module is added scan for new Camel components and potential camel-core version changes
-                    getCamelIdeaService(project).scanForCamelProject(project, module);
-                    // if its a Camel project then scan for additional Camel components
-                    if (getCamelIdeaService(project).isCamelPresent()) {
-                        getCamelIdeaService(project).scanForCamelDependencies(project, module);
-                    }
-                }
+                // the modules added when the project is opened are scanned once, as their libraries are then known
+                scheduleScan();
             }
 
             @Override
@@ -125,8 +111,8 @@ public class CamelProjectComponent implements ProjectComponent {
 
             @Override
             public void moduleRemoved(@NotNull Project project, @NotNull Module module) {
-                // TODO: we should likely remove camel dependenices which are tied to the module removed
-                // noop
+                // removes the camel components of the libraries no other module depends on
+                scheduleScan();
             }
 
             @Override
@@ -138,7 +124,25 @@ public class CamelProjectComponent implements ProjectComponent {
 
     @Override
     public void disposeComponent() {
-        runModuleOnStartUp = false;
+        scanScheduler.dispose();
+    }
+
+    /**
+     * Gets the scheduler of the scans of the project dependencies, which can be used for statistics such as
+     * how many events were collapsed.
+     */
+    @NotNull
+    public ScanScheduler getScanScheduler() {
+        return scanScheduler;
+    }
+
+    private void scheduleScan() {
+        if (ApplicationManager.getApplication().isUnitTestMode()) {
+            // the tests expect the dependencies to be scanned when the event has been handled
+            getCamelIdeaService(project).scanForChangedLibraries(project);
+        } else {
+            scanScheduler.request();
+        }
     }
 
     private CamelService getCamelIdeaService(Project project) {
@@ -148,4 +152,54 @@ public class CamelProjectComponent implements ProjectComponent {
     private CamelCatalogService getCamelCatalogService(Project project) {
         return ServiceManager.getService(project, CamelCatalogService.class);
     }
+
+    /**
+     * Background task which scans the libraries changed since the last scan.
+     */
+    private final class ScanTask extends Task.Backgroundable implements ScanScheduler.Scan {
+
+        private volatile ProgressIndicator indicator;
+        private volatile boolean cancelled;
+        private volatile boolean finished;
+
+        private ScanTask() {
+            super(project, "Scanning for Camel dependencies", true);
+        }
+
+        private ScanScheduler.Scan start() {
+            // the task is queued from the event dispatch thread, and can be cancelled before it is started
+            ApplicationManager.getApplication().invokeLater(() -> {
+                if (!cancelled) {
+                    queue();
+                }
+            }, project.getDisposed());
+            return this;
+        }
+
+        @Override
+        public void run(@NotNull ProgressIndicator indicator) {
+            this.indicator = indicator;
+            try {
+                if (!cancelled) {
+                    indicator.setIndeterminate(true);
+                    getCamelIdeaService(project).scanForChangedLibraries(project);
+                }
+            } finally {
+                finished = true;
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            if (finished || cancelled) {
+                return false;
+            }
+            cancelled = true;
+            ProgressIndicator current = indicator;
+            if (current != null) {
+                current.cancel();
+            }
+            return true;
+        }
+    }
 }
@@ -64,7 +64,7 @@ abstract class AbstractCamelAnnotator implements Annotator {
      *
      * @return <ttt>true</ttt> to accept or <tt>false</tt> to drop
      */
-    boolean accept(PsiElement element) {
+    static boolean accept(PsiElement element) {
 
         if (element == null || element.getNode() == null) {
             return false;
@@ -16,154 +16,238 @@
  */
 package org.apache.camel.idea.annotator;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import com.intellij.lang.annotation.AnnotationHolder;
+import com.intellij.lang.annotation.ExternalAnnotator;
+import com.intellij.lang.annotation.HighlightSeverity;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
 import com.intellij.psi.tree.IElementType;
-import com.intellij.psi.xml.XmlToken;
-import org.apache.camel.catalog.CamelCatalog;
 import org.apache.camel.catalog.EndpointValidationResult;
 import org.apache.camel.idea.service.CamelCatalogService;
+import org.apache.camel.idea.service.CamelModuleCatalogService;
 import org.apache.camel.idea.service.CamelPreferenceService;
+import org.apache.camel.idea.service.CamelService;
+import org.apache.camel.idea.service.EndpointValidationCache;
 import org.apache.camel.idea.service.QueryUtils;
+import org.apache.camel.idea.util.CamelEndpointUri;
 import org.apache.camel.idea.util.CamelIdeaUtils;
 import org.apache.camel.idea.util.IdeaUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import static org.apache.camel.idea.util.CamelIdeaUtils.skipEndpointValidation;
 import static org.apache.camel.idea.util.StringUtils.isEmpty;
 
 /**
- * Validate Camel URI endpoint and simple expression and annotated the specific property to highlight the error in the editor
+ * Validate Camel URI endpoint and annotated the specific property to highlight the error in the editor.
+ * <p/>
+ * The endpoints of the whole file are collected from the PSI first, which is cheap, and then validated together with
+ * the catalog outside the highlighting pass, so typing in a file with many endpoints is not slowed down by the validation.
  */
-public class CamelEndpointAnnotator extends AbstractCamelAnnotator {
+public class CamelEndpointAnnotator extends ExternalAnnotator<CamelEndpointAnnotator.EndpointBatch, List<CamelEndpointAnnotator.EndpointProblem>> {
 
     private static final Logger LOG = Logger.getInstance(CamelEndpointAnnotator.class);
 
-    @Override
     boolean isEnabled() {
         return ServiceManager.getService(CamelPreferenceService.class).isRealTimeEndpointValidation();
     }
 
     /**
-     * Validate endpoint options list aka properties. eg "timer:trigger?delay=1000&bridgeErrorHandler=true"
-     * if the URI is not valid a error annotation is created and highlight the invalid value.
+     * Collects the endpoint uris of the file to validate, also when the file has syntax errors such as while typing,
+     * which the default implementation skips.
      */
-    void validateText(@NotNull PsiElement element, @NotNull AnnotationHolder holder, @NotNull String uri) {
-        if (QueryUtils.isQueryContainingCamelComponent(element.getProject(), uri)) {
-            CamelCatalog catalogService = ServiceManager.getService(element.getProject(), CamelCatalogService.class).get();
+    @Nullable
+    @Override
+    public EndpointBatch collectInformation(@NotNull PsiFile file, @NotNull Editor editor, boolean hasErrors) {
+        return collectInformation(file);
+    }
 
-            IElementType type = element.getNode().getElementType();
-            LOG.trace("Element " + element + " of type: " + type + " to validate endpoint uri: " + uri);
+    /**
+     * Collects the endpoint uris of the file to validate, which is called in a read action.
+     */
+    @Nullable
+    @Override
+    public EndpointBatch collectInformation(@NotNull PsiFile file) {
+        if (!ServiceManager.getService(file.getProject(), CamelService.class).isCamelPresent() || !isEnabled()) {
+            return null;
+        }
 
-            // skip special values such as configuring ActiveMQ brokerURL
-            if (skipEndpointValidation(element)) {
-                LOG.debug("Skipping element " + element + " for validation with text: " + uri);
-                return;
+        List<EndpointCandidate> candidates = new ArrayList<>();
+        file.accept(new PsiRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitElement(PsiElement element) {
+                if (AbstractCamelAnnotator.accept(element)) {
+                    EndpointCandidate candidate = collectCandidate(element);
+                    if (candidate != null) {
+                        candidates.add(candidate);
+                    }
+                }
+                super.visitElement(element);
             }
+        });
+        if (candidates.isEmpty()) {
+            return null;
+        }
 
-            // camel catalog expects &amp; as & when it parses so replace all &amp; as &
-            String camelQuery = getIdeaUtils().getInnerText(uri);
-            camelQuery = camelQuery.replaceAll("&amp;", "&");
+        CamelCatalogService catalogService = ServiceManager.getService(file.getProject(), CamelModuleCatalogService.class).getCatalogService(file);
+        return new EndpointBatch(catalogService, candidates, getCamelPreferenceService().isHighlightCustomOptions());
+    }
 
-            // strip up ending incomplete parameter
-            if (camelQuery.endsWith("&") || camelQuery.endsWith("?")) {
-                camelQuery = camelQuery.substring(0, camelQuery.length() - 1);
-            }
+    /**
+     * Collects the endpoint uri of the element, if the element is a Camel endpoint which should be validated.
+     */
+    @Nullable
+    private EndpointCandidate collectCandidate(@NotNull PsiElement element) {
+        String uri = getIdeaUtils().extractTextFromElement(element, true, false, false);
+        if (isEmpty(uri) || !QueryUtils.isQueryContainingCamelComponent(element, uri)) {
+            return null;
+        }
 
-            boolean stringFormat = CamelIdeaUtils.isFromStringFormatEndpoint(element);
-            if (stringFormat) {
-                // if the node is fromF or toF, then replace all %X with {{%X}} as we cannot parse that value
-                camelQuery = camelQuery.replaceAll("%s", "\\{\\{\\%s\\}\\}");
-                camelQuery = camelQuery.replaceAll("%d", "\\{\\{\\%d\\}\\}");
-                camelQuery = camelQuery.replaceAll("%b", "\\{\\{\\%b\\}\\}");
-            }
+        IElementType type = element.getNode().getElementType();
+        LOG.trace("Element " + element + " of type: " + type + " to validate endpoint uri: " + uri);
+
+        // skip special values such as configuring ActiveMQ brokerURL
+        if (skipEndpointValidation(element)) {
+            LOG.debug("Skipping element " + element + " for validation with text: " + uri);
+            return null;
+        }
 
-            boolean consumerOnly = CamelIdeaUtils.isConsumerEndpoint(element);
-            boolean producerOnly = CamelIdeaUtils.isProducerEndpoint(element);
+        boolean stringFormat = CamelIdeaUtils.isFromStringFormatEndpoint(element);
+        // the uri is parsed once, and used both for the validation and the ranges of the invalid options
+        Pair<Integer, CamelEndpointUri> source = parseElement(element);
+        String camelQuery = EndpointValidationCache.normalize(source.getSecond().getText(), stringFormat);
 
+        boolean consumerOnly = CamelIdeaUtils.isConsumerEndpoint(element);
+        boolean producerOnly = CamelIdeaUtils.isProducerEndpoint(element);
+        return new EndpointCandidate(source.getSecond(), source.getFirst(), camelQuery, consumerOnly, producerOnly);
+    }
+
+    /**
+     * Validate endpoint options list aka properties. eg "timer:trigger?delay=1000&bridgeErrorHandler=true"
+     * if the URI is not valid a problem is created to highlight the invalid value.
+     * <p/>
+     * This is called outside the read action, and only uses the collected endpoints and the catalog.
+     */
+    @Nullable
+    @Override
+    public List<EndpointProblem> doAnnotate(EndpointBatch batch) {
+        List<EndpointProblem> problems = new ArrayList<>();
+        for (EndpointCandidate candidate : batch.candidates) {
+            ProgressManager.checkCanceled();
             try {
-                CamelPreferenceService preference = getCamelPreferenceService();
-
-                EndpointValidationResult result = catalogService.validateEndpointProperties(camelQuery, false, consumerOnly, producerOnly);
-
-                extractMapValue(result, result.getInvalidBoolean(), uri, element, holder, new BooleanErrorMsg());
-                extractMapValue(result, result.getInvalidEnum(), uri, element, holder, new EnumErrorMsg());
-                extractMapValue(result, result.getInvalidInteger(), uri, element, holder, new IntegerErrorMsg());
-                extractMapValue(result, result.getInvalidNumber(), uri, element, holder, new NumberErrorMsg());
-                extractMapValue(result, result.getInvalidReference(), uri, element, holder, new ReferenceErrorMsg());
-                extractSetValue(result, result.getUnknown(), uri, element, holder, new UnknownErrorMsg(), false);
-                extractSetValue(result, result.getLenient(), uri, element, holder, new LenientOptionMsg(preference.isHighlightCustomOptions()), true);
-                extractSetValue(result, result.getNotConsumerOnly(), uri, element, holder, new NotConsumerOnlyErrorMsg(), false);
-                extractSetValue(result, result.getNotProducerOnly(), uri, element, holder, new NotProducerOnlyErrorMsg(), false);
+                EndpointValidationResult result = batch.catalogService.validateEndpointProperties(candidate.camelQuery, candidate.consumerOnly, candidate.producerOnly);
+
+                CamelEndpointUri parsed = candidate.parsed;
+                int offset = candidate.offset;
+                extractMapValue(result, result.getInvalidBoolean(), parsed, offset, problems, new BooleanErrorMsg());
+                extractMapValue(result, result.getInvalidEnum(), parsed, offset, problems, new EnumErrorMsg());
+                extractMapValue(result, result.getInvalidInteger(), parsed, offset, problems, new IntegerErrorMsg());
+                extractMapValue(result, result.getInvalidNumber(), parsed, offset, problems, new NumberErrorMsg());
+                extractMapValue(result, result.getInvalidReference(), parsed, offset, problems, new ReferenceErrorMsg());
+                extractSetValue(result, result.getUnknown(), parsed, offset, problems, new UnknownErrorMsg(), false);
+                extractSetValue(result, result.getLenient(), parsed, offset, problems, new LenientOptionMsg(batch.highlightCustomOptions), true);
+                extractSetValue(result, result.getNotConsumerOnly(), parsed, offset, problems, new NotConsumerOnlyErrorMsg(), false);
+                extractSetValue(result, result.getNotProducerOnly(), parsed, offset, problems, new NotProducerOnlyErrorMsg(), false);
             } catch (Throwable e) {
-                LOG.warn("Error validating Camel endpoint: " + uri, e);
+                LOG.warn("Error validating Camel endpoint: " + candidate.camelQuery, e);
+            }
+        }
+        return problems;
+    }
+
+    @Override
+    public void apply(@NotNull PsiFile file, List<EndpointProblem> problems, @NotNull AnnotationHolder holder) {
+        if (problems != null) {
+            for (EndpointProblem problem : problems) {
+                holder.createAnnotation(problem.severity, problem.range, problem.message);
             }
         }
     }
 
-    private void extractSetValue(EndpointValidationResult result, Set<String> validationSet, String fromElement, PsiElement element,
-                                 AnnotationHolder holder, CamelAnnotatorEndpointMessage msg, boolean lenient) {
+    private void extractSetValue(EndpointValidationResult result, Set<String> validationSet, CamelEndpointUri parsed, int offset,
+                                 List<EndpointProblem> problems, CamelAnnotatorEndpointMessage msg, boolean lenient) {
         if (validationSet != null && (lenient || !result.isSuccess())) {
 
+            HighlightSeverity severity = msg.isInfoLevel() ? HighlightSeverity.INFORMATION : msg.isWarnLevel() ? HighlightSeverity.WARNING : HighlightSeverity.ERROR;
             for (String entry : validationSet) {
-                String propertyValue = entry;
-
-                int startIdxQueryParameters = fromElement.indexOf("?" + propertyValue);
-                startIdxQueryParameters = (startIdxQueryParameters == -1) ? fromElement.indexOf("&" + propertyValue) : fromElement.indexOf("?");
-
-                int propertyIdx = fromElement.indexOf(propertyValue, startIdxQueryParameters);
-                int propertyLength = propertyValue.length();
-
-                propertyIdx = getIdeaUtils().isJavaLanguage(element) || getIdeaUtils().isXmlLanguage(element) || getIdeaUtils().isScalaLanguage(element) ? propertyIdx + 1  : propertyIdx;
-
-                TextRange range = new TextRange(element.getTextRange().getStartOffset() + propertyIdx,
-                    element.getTextRange().getStartOffset() + propertyIdx + propertyLength);
-
-                if (msg.isInfoLevel()) {
-                    holder.createInfoAnnotation(range, summaryMessage(result, propertyValue, msg));
-                } else if (msg.isWarnLevel()) {
-                    holder.createWarningAnnotation(range, summaryMessage(result, propertyValue, msg));
-                } else {
-                    holder.createErrorAnnotation(range, summaryMessage(result, propertyValue, msg));
+                // highlight every occurrence of the option, but not the same word elsewhere in the uri
+                for (TextRange range : getOptionRanges(parsed, offset, entry, null)) {
+                    problems.add(new EndpointProblem(range, severity, summaryMessage(result, entry, msg)));
                 }
             }
         }
     }
 
     private void extractMapValue(EndpointValidationResult result, Map<String, String> validationMap,
-                                 String fromElement, @NotNull PsiElement element, @NotNull AnnotationHolder holder, CamelAnnotatorEndpointMessage msg) {
+                                 CamelEndpointUri parsed, int offset, List<EndpointProblem> problems, CamelAnnotatorEndpointMessage msg) {
         if ((!result.isSuccess()) && validationMap != null) {
 
             for (Map.Entry<String, String> entry : validationMap.entrySet()) {
-                String propertyValue = entry.getValue();
-                String propertyKey = entry.getKey();
-                int startIdxQueryParameters = fromElement.indexOf("?");
-
-                int propertyIdx = fromElement.indexOf(propertyKey, startIdxQueryParameters);
-                int startIdx = propertyIdx;
-
-                int equalsSign = fromElement.indexOf("=", propertyIdx);
-
-                if (equalsSign > 0) {
-                    startIdx = equalsSign + 1;
+                for (TextRange range : getOptionRanges(parsed, offset, entry.getKey(), entry.getValue())) {
+                    problems.add(new EndpointProblem(range, HighlightSeverity.ERROR, summaryMessage(result, entry, msg)));
                 }
+            }
+        }
+    }
 
-                int propertyLength = propertyValue.isEmpty() ? propertyKey.length() : propertyValue.length();
-                propertyLength = element instanceof XmlToken ? propertyLength - 1 : propertyLength;
-
-                startIdx = propertyValue.isEmpty() ? propertyIdx + 1 : fromElement.indexOf(propertyValue, startIdx) + 1;
-                startIdx = getIdeaUtils().isJavaLanguage(element) || getIdeaUtils().isXmlLanguage(element) || getIdeaUtils().isScalaLanguage(element) ? startIdx  : startIdx - 1;
+    /**
+     * Gets the ranges to highlight for the option, which are the option names, or the values if the value of the option is invalid.
+     * <p/>
+     * If the option is not a query parameter, such as an option in the context path, then the path segment with the value is used,
+     * or else the whole path.
+     *
+     * @param parsed the uri parsed from the source text of the element
+     * @param offset the offset of the source text in the file
+     * @param name   the option name
+     * @param value  the invalid value, or <tt>null</tt> to highlight the option names
+     */
+    private static List<TextRange> getOptionRanges(CamelEndpointUri parsed, int offset, String name, @Nullable String value) {
+        List<TextRange> answer = new ArrayList<>(1);
+        for (CamelEndpointUri.Parameter parameter : parsed.getParameters(name)) {
+            CamelEndpointUri.Part part = value != null && parameter.getValue() != null && !parameter.getValue().getText().isEmpty()
+                ? parameter.getValue() : parameter.getName();
+            answer.add(new TextRange(offset + part.getStart(), offset + part.getEnd()));
+        }
+        if (answer.isEmpty()) {
+            CamelEndpointUri.Part part = parsed.getPath();
+            if (value != null) {
+                part = parsed.getPathSegments().stream().filter(segment -> value.equals(segment.getText())).findFirst().orElse(part);
+            }
+            if (part != null) {
+                answer.add(new TextRange(offset + part.getStart(), offset + part.getEnd()));
+            }
+        }
+        return answer;
+    }
 
-                TextRange range = new TextRange(element.getTextRange().getStartOffset() + startIdx,
-                    element.getTextRange().getStartOffset() + startIdx + propertyLength);
-                holder.createErrorAnnotation(range, summaryMessage(result, entry, msg));
+    /**
+     * Parses the source text of the element, so the offsets of the options are exact even if the uri is xml escaped or split over several lines.
+     *
+     * @return the offset of the parsed text in the file, and the parsed uri
+     */
+    private static Pair<Integer, CamelEndpointUri> parseElement(@NotNull PsiElement element) {
+        String text = element.getText();
+        int start = 0;
+        int end = text.length();
+        if (end > 1 && (text.charAt(0) == '"' || text.charAt(0) == '\'')) {
+            // the quotes of a java string literal or xml attribute value are not part of the uri
+            start = 1;
+            if (text.charAt(end - 1) == text.charAt(0)) {
+                end--;
             }
         }
+        return Pair.create(element.getTextRange().getStartOffset() + start, CamelEndpointUri.parse(text.substring(start, end)));
     }
 
     private static class BooleanErrorMsg implements CamelAnnotatorEndpointMessage<Map.Entry<String, String>> {
@@ -321,4 +405,56 @@ public class CamelEndpointAnnotator extends AbstractCamelAnnotator {
         return ServiceManager.getService(IdeaUtils.class);
     }
 
+    /**
+     * The endpoints collected from a file, which are validated with the catalog of the module of the file.
+     */
+    static final class EndpointBatch {
+
+        private final CamelCatalogService catalogService;
+        private final List<EndpointCandidate> candidates;
+        private final boolean highlightCustomOptions;
+
+        EndpointBatch(CamelCatalogService catalogService, List<EndpointCandidate> candidates, boolean highlightCustomOptions) {
+            this.catalogService = catalogService;
+            this.candidates = candidates;
+            this.highlightCustomOptions = highlightCustomOptions;
+        }
+    }
+
+    /**
+     * An endpoint uri collected from the PSI, which holds no reference to the PSI so it can be validated outside a read action.
+     */
+    private static final class EndpointCandidate {
+
+        private final CamelEndpointUri parsed;
+        private final int offset;
+        private final String camelQuery;
+        private final boolean consumerOnly;
+        private final boolean producerOnly;
+
+        EndpointCandidate(CamelEndpointUri parsed, int offset, String camelQuery, boolean consumerOnly, boolean producerOnly) {
+            this.parsed = parsed;
+            this.offset = offset;
+            this.camelQuery = camelQuery;
+            this.consumerOnly = consumerOnly;
+            this.producerOnly = producerOnly;
+        }
+    }
+
+    /**
+     * A validation problem to highlight in the file.
+     */
+    static final class EndpointProblem {
+
+        private final TextRange range;
+        private final HighlightSeverity severity;
+        private final String message;
+
+        EndpointProblem(TextRange range, HighlightSeverity severity, String message) {
+            this.range = range;
+            this.severity = severity;
+            this.message = message;
+        }
+    }
+
 }
@@ -24,7 +24,7 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.xml.XmlAttributeValue;
 import org.apache.camel.catalog.CamelCatalog;
 import org.apache.camel.catalog.SimpleValidationResult;
-import org.apache.camel.idea.service.CamelCatalogService;
+import org.apache.camel.idea.service.CamelModuleCatalogService;
 import org.apache.camel.idea.service.CamelPreferenceService;
 import org.apache.camel.idea.service.CamelService;
 import org.apache.camel.idea.util.CamelIdeaUtils;
@@ -53,32 +53,22 @@ public class CamelSimpleAnnotator extends AbstractCamelAnnotator {
         // we only want to evaluate if there is a simple function as plain text without functions dont make sense to validate
         boolean hasSimple = text.contains("${") || text.contains("$simple{");
         if (hasSimple && CamelIdeaUtils.isCamelSimpleExpression(element)) {
-            CamelCatalog catalogService = ServiceManager.getService(element.getProject(), CamelCatalogService.class).get();
+            CamelCatalog catalogService = ServiceManager.getService(element.getProject(), CamelModuleCatalogService.class).getCatalogService(element).get();
             CamelService camelService = ServiceManager.getService(element.getProject(), CamelService.class);
 
             boolean predicate = false;
             try {
-                // need to use the classloader that can load classes from the camel-core
-                ClassLoader loader = camelService.getCamelCoreClassloader();
-                if (loader != null) {
-                    SimpleValidationResult result;
-                    predicate = isCameSimpleExpressionUsedAsPredicate(element);
-                    if (predicate) {
-                        LOG.debug("Validate simple predicate: " + text);
-                        result = catalogService.validateSimplePredicate(loader, text);
-                    } else {
-                        LOG.debug("Validate simple expression: " + text);
-                        result = catalogService.validateSimpleExpression(loader, text);
-                    }
-                    if (!result.isSuccess()) {
-                        String error = result.getShortError();
-                        TextRange range = element.getTextRange();
-                        if (result.getIndex() > 0) {
-                            range = getAdjustedTextRange(element, range, text, result);
+                predicate = isCameSimpleExpressionUsedAsPredicate(element);
+                LOG.debug("Validate simple " + (predicate ? "predicate" : "expression") + ": " + text);
+                SimpleValidationResult result = camelService.validateSimple(catalogService, text, predicate);
+                if (result != null && !result.isSuccess()) {
+                    String error = result.getShortError();
+                    TextRange range = element.getTextRange();
+                    if (result.getIndex() > 0) {
+                        range = getAdjustedTextRange(element, range, text, result);
 
-                        }
-                        holder.createErrorAnnotation(range, error);
                     }
+                    holder.createErrorAnnotation(range, error);
                 }
             } catch (Throwable e) {
                 LOG.warn("Error validating Camel simple " + (predicate ? "predicate" : "expression") + ": " + text, e);
@@ -19,6 +19,7 @@ package org.apache.camel.idea.completion.contributor;
 import com.intellij.codeInsight.completion.CompletionType;
 import com.intellij.psi.PsiFile;
 import org.apache.camel.idea.completion.extension.CamelEndpointSmartCompletionExtension;
+import org.apache.camel.idea.completion.extension.CamelSchemeSmartCompletionExtension;
 import static com.intellij.patterns.PlatformPatterns.psiElement;
 
 /**
@@ -29,6 +30,7 @@ public class CamelScalaReferenceContributor extends CamelContributor {
 
     public CamelScalaReferenceContributor() {
         addCompletionExtension(new CamelEndpointSmartCompletionExtension(false));
+        addCompletionExtension(new CamelSchemeSmartCompletionExtension());
         extend(CompletionType.BASIC,
                 psiElement().and(psiElement().inside(PsiFile.class).inFile(matchFileType("scala"))),
                 new EndpointCompletion(getCamelCompletionExtensions())
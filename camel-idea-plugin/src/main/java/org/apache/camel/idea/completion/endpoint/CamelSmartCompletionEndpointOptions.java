@@ -64,77 +64,73 @@ public final class CamelSmartCompletionEndpointOptions {
             queryAtPosition = queryAtPosition.replace("&amp;", "&");
         }
 
-        List<EndpointOptionModel> options = component.getEndpointOptions();
-        // sort the options A..Z which is easier to users to understand
-        options.sort((o1, o2) -> o1.getName().compareToIgnoreCase(o2.getName()));
+        // the options are sorted A..Z which is easier to users to understand
+        List<EndpointOptionModel> options = component.getEndpointParameterOptions();
         queryAtPosition = removeUnknownOption(queryAtPosition, existing, element);
 
         for (EndpointOptionModel option : options) {
+            String name = option.getName();
 
-            if ("parameter".equals(option.getKind())) {
-                String name = option.getName();
-
-                // if we are consumer only, then any option that has producer in the label should be skipped (as its only for producer)
-                if (consumerOnly && option.getLabel().contains("producer")) {
-                    continue;
-                }
-                // if we are producer only, then any option that has consume in the label should be skipped (as its only for consumer)
-                if (producerOnly && option.getLabel().contains("consumer")) {
-                    continue;
-                }
-
-                // only add if not already used (or if the option is multi valued then it can have many)
-                String old = existing != null ? existing.get(name) : "";
-                if ("true".equals(option.getMultiValue()) || existing == null || old == null || old.isEmpty()) {
-
-                    // no tail for prefix, otherwise use = to setup for value
-                    String key = option.getPrefix().isEmpty() ? name : option.getPrefix();
+            // if we are consumer only, then any option that has producer in the label should be skipped (as its only for producer)
+            if (consumerOnly && !option.isForConsumer()) {
+                continue;
+            }
+            // if we are producer only, then any option that has consume in the label should be skipped (as its only for consumer)
+            if (producerOnly && !option.isForProducer()) {
+                continue;
+            }
 
-                    // the lookup should prepare for the new option
-                    String lookup;
-                    if (!concatQuery.contains("?")) {
-                        // none existing options so we need to start with a ? mark
-                        lookup = queryAtPosition + "?" + key;
+            // only add if not already used (or if the option is multi valued then it can have many)
+            String old = existing != null ? existing.get(name) : "";
+            if (option.isMultiValue() || existing == null || old == null || old.isEmpty()) {
+
+                // no tail for prefix, otherwise use = to setup for value
+                String key = option.getPrefix().isEmpty() ? name : option.getPrefix();
+
+                // the lookup should prepare for the new option
+                String lookup;
+                if (!concatQuery.contains("?")) {
+                    // none existing options so we need to start with a ? mark
+                    lookup = queryAtPosition + "?" + key;
+                } else {
+                    if (!queryAtPosition.endsWith("&") && !queryAtPosition.endsWith("?")) {
+                        lookup = queryAtPosition + "&" + key;
                     } else {
-                        if (!queryAtPosition.endsWith("&") && !queryAtPosition.endsWith("?")) {
-                            lookup = queryAtPosition + "&" + key;
-                        } else {
-                            // there is already either an ending ? or &
-                            lookup = queryAtPosition + key;
-                        }
-                    }
-                    if (xmlMode) {
-                        lookup = lookup.replace("&", "&amp;");
-                    }
-                    LookupElementBuilder builder = LookupElementBuilder.create(lookup);
-                    builder = addInsertHandler(editor, builder, suffix);
-                    // only show the option in the UI
-                    builder = builder.withPresentableText(name);
-                    // we don't want to highlight the advanced options which should be more seldom in use
-                    boolean advanced = option.getGroup().contains("advanced");
-                    builder = builder.withBoldness(!advanced);
-                    if (!option.getJavaType().isEmpty()) {
-                        builder = builder.withTypeText(option.getJavaType(), true);
-                    }
-                    if ("true".equals(option.getDeprecated())) {
-                        // mark as deprecated
-                        builder = builder.withStrikeoutness(true);
+                        // there is already either an ending ? or &
+                        lookup = queryAtPosition + key;
                     }
-                    // add icons for various options
-                    if ("true".equals(option.getRequired())) {
-                        builder = builder.withIcon(AllIcons.Toolwindows.ToolWindowFavorites);
-                    } else if ("true".equals(option.getSecret())) {
-                        builder = builder.withIcon(AllIcons.Nodes.SecurityRole);
-                    } else if ("true".equals(option.getMultiValue())) {
-                        builder = builder.withIcon(AllIcons.Nodes.ExpandNode);
-                    } else if (!option.getEnums().isEmpty()) {
-                        builder = builder.withIcon(AllIcons.Nodes.Enum);
-                    } else if ("object".equals(option.getType())) {
-                        builder = builder.withIcon(AllIcons.Nodes.Class);
-                    }
-
-                    answer.add(builder.withAutoCompletionPolicy(AutoCompletionPolicy.GIVE_CHANCE_TO_OVERWRITE));
                 }
+                if (xmlMode) {
+                    lookup = lookup.replace("&", "&amp;");
+                }
+                LookupElementBuilder builder = LookupElementBuilder.create(lookup);
+                builder = addInsertHandler(editor, builder, suffix);
+                // only show the option in the UI
+                builder = builder.withPresentableText(name);
+                // we don't want to highlight the advanced options which should be more seldom in use
+                boolean advanced = option.getGroup().contains("advanced");
+                builder = builder.withBoldness(!advanced);
+                if (!option.getJavaType().isEmpty()) {
+                    builder = builder.withTypeText(option.getJavaType(), true);
+                }
+                if (option.isDeprecated()) {
+                    // mark as deprecated
+                    builder = builder.withStrikeoutness(true);
+                }
+                // add icons for various options
+                if (option.isRequired()) {
+                    builder = builder.withIcon(AllIcons.Toolwindows.ToolWindowFavorites);
+                } else if (option.isSecret()) {
+                    builder = builder.withIcon(AllIcons.Nodes.SecurityRole);
+                } else if (option.isMultiValue()) {
+                    builder = builder.withIcon(AllIcons.Nodes.ExpandNode);
+                } else if (!option.getEnums().isEmpty()) {
+                    builder = builder.withIcon(AllIcons.Nodes.Enum);
+                } else if ("object".equals(option.getType())) {
+                    builder = builder.withIcon(AllIcons.Nodes.Class);
+                }
+
+                answer.add(builder.withAutoCompletionPolicy(AutoCompletionPolicy.GIVE_CHANCE_TO_OVERWRITE));
             }
         }
 
@@ -173,46 +169,41 @@ public final class CamelSmartCompletionEndpointOptions {
         // lets help the suggestion list if we are editing the context-path and only have 1 enum type option
         // and the option has not been in use yet, then we can populate the list with the enum values.
 
-        long enums = component.getEndpointOptions().stream().filter(o -> "path".equals(o.getKind()) && !o.getEnums().isEmpty()).count();
-        if (enums == 1) {
-            for (EndpointOptionModel option : component.getEndpointOptions()) {
+        List<EndpointOptionModel> enums = component.getEndpointPathEnumOptions();
+        if (enums.size() == 1) {
+            EndpointOptionModel option = enums.get(0);
+            String name = option.getName();
+            // only add if not already used
+            String old = existing != null ? existing.get(name) : "";
+            if (existing == null || old == null || old.isEmpty()) {
 
-                // only add support for enum in the context-path smart completion
-                if ("path".equals(option.getKind()) && !option.getEnums().isEmpty()) {
-                    String name = option.getName();
-                    // only add if not already used
-                    String old = existing != null ? existing.get(name) : "";
-                    if (existing == null || old == null || old.isEmpty()) {
+                // add all enum as choices
+                for (String choice : option.getEnums().split(",")) {
 
-                        // add all enum as choices
-                        for (String choice : option.getEnums().split(",")) {
+                    String key = choice;
+                    String lookup = val + key;
 
-                            String key = choice;
-                            String lookup = val + key;
-
-                            LookupElementBuilder builder = LookupElementBuilder.create(lookup);
-                            // only show the option in the UI
-                            builder = builder.withPresentableText(choice);
-                            // lets use the option name as the type so its visible
-                            builder = builder.withTypeText(name, true);
-                            builder = builder.withIcon(AllIcons.Nodes.Enum);
+                    LookupElementBuilder builder = LookupElementBuilder.create(lookup);
+                    // only show the option in the UI
+                    builder = builder.withPresentableText(choice);
+                    // lets use the option name as the type so its visible
+                    builder = builder.withTypeText(name, true);
+                    builder = builder.withIcon(AllIcons.Nodes.Enum);
 
-                            if ("true".equals(option.getDeprecated())) {
-                                // mark as deprecated
-                                builder = builder.withStrikeoutness(true);
-                            }
+                    if (option.isDeprecated()) {
+                        // mark as deprecated
+                        builder = builder.withStrikeoutness(true);
+                    }
 
-                            // its an enum so always auto complete the choices
-                            LookupElement element = builder.withAutoCompletionPolicy(AutoCompletionPolicy.ALWAYS_AUTOCOMPLETE);
+                    // its an enum so always auto complete the choices
+                    LookupElement element = builder.withAutoCompletionPolicy(AutoCompletionPolicy.ALWAYS_AUTOCOMPLETE);
 
-                            // they should be in the exact order
-                            element = PrioritizedLookupElement.withPriority(element, priority);
+                    // they should be in the exact order
+                    element = PrioritizedLookupElement.withPriority(element, priority);
 
-                            priority -= 1.0d;
+                    priority -= 1.0d;
 
-                            answer.add(element);
-                        }
-                    }
+                    answer.add(element);
                 }
             }
         }
@@ -45,7 +45,7 @@ public final class CamelSmartCompletionEndpointValue {
         List<LookupElement> answer = new ArrayList<>();
 
         String javaType = option.getJavaType();
-        String deprecated = option.getDeprecated();
+        boolean deprecated = option.isDeprecated();
         String enums = option.getEnums();
         String defaultValue = option.getDefaultValue();
         String[] stringToRemove = getIdeaUtils().getQueryParameterAtCursorPosition(element);
@@ -66,7 +66,7 @@ public final class CamelSmartCompletionEndpointValue {
     }
 
     private static void addEnumSuggestions(Editor editor, String val, String suffix, List<LookupElement> answer,
-                                           String deprecated, String enums, String defaultValue, boolean xmlMode) {
+                                           boolean deprecated, String enums, String defaultValue, boolean xmlMode) {
         String[] parts = enums.split(",");
         for (String part : parts) {
             String lookup = val + part;
@@ -76,7 +76,7 @@ public final class CamelSmartCompletionEndpointValue {
             // only show the option in the UI
             builder = builder.withPresentableText(part);
             builder = builder.withBoldness(true);
-            if ("true".equals(deprecated)) {
+            if (deprecated) {
                 // mark as deprecated
                 builder = builder.withStrikeoutness(true);
             }
@@ -92,14 +92,14 @@ public final class CamelSmartCompletionEndpointValue {
     }
 
     private static void addBooleanSuggestions(Editor editor, String val, String suffix, List<LookupElement> answer,
-                                              String deprecated, String defaultValue, boolean xmlMode) {
+                                              boolean deprecated, String defaultValue, boolean xmlMode) {
         // for boolean types then give a choice between true|false
         String lookup = val + "true";
         LookupElementBuilder builder = LookupElementBuilder.create(lookup);
         builder = addInsertHandler(editor, suffix, builder, xmlMode);
         // only show the option in the UI
         builder = builder.withPresentableText("true");
-        if ("true".equals(deprecated)) {
+        if (deprecated) {
             // mark as deprecated
             builder = builder.withStrikeoutness(true);
         }
@@ -117,7 +117,7 @@ public final class CamelSmartCompletionEndpointValue {
         builder = addInsertHandler(editor, suffix, builder, xmlMode);
         // only show the option in the UI
         builder = builder.withPresentableText("false");
-        if ("true".equals(deprecated)) {
+        if (deprecated) {
             // mark as deprecated
             builder = builder.withStrikeoutness(true);
         }
@@ -132,13 +132,13 @@ public final class CamelSmartCompletionEndpointValue {
     }
 
     private static void addDefaultValueSuggestions(Editor editor, String val, String suffix, List<LookupElement> answer,
-                                                   String deprecated, String defaultValue, boolean xmlMode) {
+                                                   boolean deprecated, String defaultValue, boolean xmlMode) {
         String lookup = val + defaultValue;
         LookupElementBuilder builder = LookupElementBuilder.create(lookup);
         builder = addInsertHandler(editor, suffix, builder, xmlMode);
         // only show the option in the UI
         builder = builder.withPresentableText(defaultValue);
-        if ("true".equals(deprecated)) {
+        if (deprecated) {
             // mark as deprecated
             builder = builder.withStrikeoutness(true);
         }
@@ -29,8 +29,9 @@ import com.intellij.util.ProcessingContext;
 import org.apache.camel.catalog.CamelCatalog;
 import org.apache.camel.idea.model.ComponentModel;
 import org.apache.camel.idea.model.EndpointOptionModel;
-import org.apache.camel.idea.model.ModelHelper;
 import org.apache.camel.idea.service.CamelCatalogService;
+import org.apache.camel.idea.service.CamelModuleCatalogService;
+import org.apache.camel.idea.service.CatalogState;
 import org.apache.camel.idea.util.IdeaUtils;
 import org.apache.camel.idea.util.StringUtils;
 import org.jetbrains.annotations.NotNull;
@@ -64,15 +65,15 @@ public class CamelEndpointSmartCompletionExtension implements CamelCompletionExt
     @Override
     public void addCompletions(@NotNull CompletionParameters parameters, @NotNull ProcessingContext context, @NotNull CompletionResultSet resultSet, @NotNull String[] query) {
         boolean endsWithAmpQuestionMark = false;
-        // it is a known Camel component
-        String componentName = StringUtils.asComponentName(query[0]);
 
         // it is a known Camel component
         Project project = parameters.getOriginalFile().getManager().getProject();
-        CamelCatalog camelCatalog = ServiceManager.getService(project, CamelCatalogService.class).get();
+        // use the same state of the catalog for all the lookups
+        CatalogState catalogState = ServiceManager.getService(project, CamelModuleCatalogService.class).getCatalogService(parameters.getOriginalFile()).getState();
+        CamelCatalog camelCatalog = catalogState.getCatalog();
+        String componentName = catalogState.getSchemeTrie().matchScheme(query[0]);
 
-        String json = camelCatalog.componentJSonSchema(componentName);
-        ComponentModel componentModel = ModelHelper.generateComponentModel(json, true);
+        ComponentModel componentModel = catalogState.getComponentModel(componentName, true);
         final PsiElement element = parameters.getPosition();
 
         // grab all existing parameters
@@ -156,9 +157,9 @@ public class CamelEndpointSmartCompletionExtension implements CamelCompletionExt
     @Override
     public boolean isValid(@NotNull CompletionParameters parameters, @NotNull ProcessingContext context, String query[]) {
         // is this a possible Camel endpoint uri which we know
-        String componentName = StringUtils.asComponentName(query[0]);
         Project project = parameters.getOriginalFile().getProject();
-        if (!query[0].endsWith("{{") && componentName != null && ServiceManager.getService(project, CamelCatalogService.class).get().findComponentNames().contains(componentName)) {
+        CamelCatalogService camelCatalogService = ServiceManager.getService(project, CamelModuleCatalogService.class).getCatalogService(parameters.getOriginalFile());
+        if (!query[0].endsWith("{{") && camelCatalogService.getSchemeTrie().matchScheme(query[0]) != null) {
             return true;
         }
         return false;
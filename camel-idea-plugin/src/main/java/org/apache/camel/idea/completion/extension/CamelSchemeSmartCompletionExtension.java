@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.completion.extension;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.intellij.codeInsight.completion.CompletionParameters;
+import com.intellij.codeInsight.completion.CompletionResultSet;
+import com.intellij.codeInsight.lookup.AutoCompletionPolicy;
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import com.intellij.util.ProcessingContext;
+import org.apache.camel.idea.model.ComponentModel;
+import org.apache.camel.idea.service.CamelModuleCatalogService;
+import org.apache.camel.idea.service.CamelPreferenceService;
+import org.apache.camel.idea.service.CatalogState;
+import org.apache.camel.idea.util.SchemeTrie;
+import org.jetbrains.annotations.NotNull;
+import static org.apache.camel.idea.util.CamelIdeaUtils.isConsumerEndpoint;
+import static org.apache.camel.idea.util.CamelIdeaUtils.isProducerEndpoint;
+
+/**
+ * Extension for supporting camel smart completion of the component scheme, when editing an endpoint uri
+ * which has no scheme yet, such as <tt>from("ti_CURSOR_HERE_")</tt>.
+ */
+public class CamelSchemeSmartCompletionExtension implements CamelCompletionExtension {
+
+    @Override
+    public void addCompletions(@NotNull CompletionParameters parameters, @NotNull ProcessingContext context, @NotNull CompletionResultSet resultSet, @NotNull String[] query) {
+        String prefix = getSchemePrefix(query);
+        Project project = parameters.getOriginalFile().getProject();
+        CatalogState catalogState = ServiceManager.getService(project, CamelModuleCatalogService.class).getCatalogService(parameters.getOriginalFile()).getState();
+        SchemeTrie schemeTrie = catalogState.getSchemeTrie();
+
+        List<LookupElement> answer = new ArrayList<>();
+        for (String scheme : schemeTrie.findByPrefix(prefix)) {
+            LookupElementBuilder builder = LookupElementBuilder.create(scheme + ":");
+            builder = builder.withPresentableText(scheme);
+            builder = builder.withIcon(getCamelPreferenceService().getCamelIcon());
+
+            String componentName = schemeTrie.getComponentName(scheme);
+            ComponentModel component = componentName != null ? catalogState.getComponentModel(componentName, false) : null;
+            if (component != null) {
+                builder = builder.withTypeText(component.getTitle(), true);
+                if ("true".equals(component.getDeprecated())) {
+                    // mark as deprecated
+                    builder = builder.withStrikeoutness(true);
+                }
+            }
+            answer.add(builder.withAutoCompletionPolicy(AutoCompletionPolicy.GIVE_CHANCE_TO_OVERWRITE));
+        }
+
+        if (!answer.isEmpty()) {
+            resultSet.withPrefixMatcher(prefix).addAllElements(answer);
+            resultSet.stopHere();
+        }
+    }
+
+    @Override
+    public boolean isValid(@NotNull CompletionParameters parameters, @NotNull ProcessingContext context, String[] query) {
+        // only when there is no scheme yet, and the text typed so far can become a known scheme
+        if (query[0].indexOf(':') >= 0) {
+            return false;
+        }
+        Project project = parameters.getOriginalFile().getProject();
+        if (!ServiceManager.getService(project, CamelModuleCatalogService.class).getCatalogService(parameters.getOriginalFile()).getSchemeTrie().isPrefix(getSchemePrefix(query))) {
+            return false;
+        }
+        // and the text is used as an endpoint in a route
+        PsiElement element = parameters.getPosition();
+        return isConsumerEndpoint(element) || isProducerEndpoint(element);
+    }
+
+    /**
+     * Gets the text before the cursor which is the prefix of the scheme being typed
+     */
+    private static String getSchemePrefix(String[] query) {
+        return query.length > 2 ? query[2] : "";
+    }
+
+    private static CamelPreferenceService getCamelPreferenceService() {
+        return ServiceManager.getService(CamelPreferenceService.class);
+    }
+}
@@ -50,9 +50,11 @@ import org.apache.camel.catalog.CamelCatalog;
 import org.apache.camel.catalog.JSonSchemaHelper;
 import org.apache.camel.idea.model.ComponentModel;
 import org.apache.camel.idea.model.EndpointOptionModel;
-import org.apache.camel.idea.model.ModelHelper;
-import org.apache.camel.idea.service.CamelCatalogService;
+import org.apache.camel.idea.service.CamelModuleCatalogService;
 import org.apache.camel.idea.service.CamelService;
+import org.apache.camel.idea.service.CatalogState;
+import org.apache.camel.idea.service.EndpointValidationCache;
+import org.apache.camel.idea.util.CamelEndpointUri;
 import org.apache.camel.idea.util.CamelIdeaUtils;
 import org.apache.camel.idea.util.IdeaUtils;
 import org.apache.camel.idea.util.StringUtils;
@@ -101,7 +103,7 @@ public class CamelDocumentationProvider extends DocumentationProviderEx implemen
                                 String componentName = StringUtils.asComponentName(val);
                                 if (componentName != null) {
                                     // the quick info cannot be so wide so wrap at 120 chars
-                                    return generateCamelComponentDocumentation(componentName, val, 120, element.getProject());
+                                    return generateCamelComponentDocumentation(componentName, val, 120, element);
                                 }
                             }
                         }
@@ -124,7 +126,7 @@ public class CamelDocumentationProvider extends DocumentationProviderEx implemen
     public String generateDoc(PsiElement element, @Nullable PsiElement originalElement) {
         if (element instanceof DocumentationElement) {
             DocumentationElement documentationElement = (DocumentationElement) element;
-            return generateCamelEndpointOptionDocumentation(documentationElement.getComponentName(), documentationElement.getEndpointOption(), element.getProject());
+            return generateCamelEndpointOptionDocumentation(documentationElement.getComponentName(), documentationElement.getEndpointOption(), documentationElement.getElement());
         }
 
         String val = null;
@@ -137,7 +139,7 @@ public class CamelDocumentationProvider extends DocumentationProviderEx implemen
 
         String componentName = StringUtils.asComponentName(val);
         if (componentName != null) {
-            return generateCamelComponentDocumentation(componentName, val, -1, element.getProject());
+            return generateCamelComponentDocumentation(componentName, val, -1, element);
         } else {
             // its maybe a method call for a Camel language
             PsiMethodCallExpression call = PsiTreeUtil.getParentOfType(element, PsiMethodCallExpression.class);
@@ -146,11 +148,11 @@ public class CamelDocumentationProvider extends DocumentationProviderEx implemen
                 if (method != null) {
                     // try to see if we have a Camel language with the method name
                     String name = asLanguageName(method.getName());
-                    if (ServiceManager.getService(element.getProject(), CamelCatalogService.class).get().findLanguageNames().contains(name)) {
+                    if (ServiceManager.getService(element.getProject(), CamelModuleCatalogService.class).getCatalogService(element).get().findLanguageNames().contains(name)) {
                         // okay its a potential Camel language so see if the psi method call is using
                         // camel-core types so we know for a fact its really a Camel language
                         if (isPsiMethodCamelLanguage(method)) {
-                            String html = ServiceManager.getService(element.getProject(), CamelCatalogService.class).get().languageHtmlDoc(name);
+                            String html = ServiceManager.getService(element.getProject(), CamelModuleCatalogService.class).getCatalogService(element).get().languageHtmlDoc(name);
                             if (html != null) {
                                 return html;
                             }
@@ -178,36 +180,23 @@ public class CamelDocumentationProvider extends DocumentationProviderEx implemen
             return null;
         }
 
-        // unescape xml &
-        lookup = lookup.replaceAll("&amp;", "&");
-
         // get last option from lookup line
-        int pos = Math.max(lookup.lastIndexOf("&"), lookup.lastIndexOf("?"));
-        if (pos > 0) {
-            String option = lookup.substring(pos + 1);
-            // if the option has a value then drop that
-            pos = option.indexOf("=");
-            if (pos != -1) {
-                option = option.substring(0, pos);
-            }
+        CamelEndpointUri uri = CamelEndpointUri.parse(lookup);
+        if (uri.hasQuery()) {
+            List<CamelEndpointUri.Parameter> parameters = uri.getParameters();
+            String option = uri.hasTrailingSeparator() || parameters.isEmpty() ? "" : parameters.get(parameters.size() - 1).getName().getText();
             LOG.debug("getDocumentationElementForLookupItem: " + option);
 
             // if the option ends with a dot then its a prefixed/multi value option which we need special logic
             // find its real option name and documentation which we want to show in the quick doc window
             if (option.endsWith(".")) {
-                CamelCatalog camelCatalog = ServiceManager.getService(psiManager.getProject(), CamelCatalogService.class).get();
-                String json = camelCatalog.componentJSonSchema(componentName);
-                if (json == null) {
+                ComponentModel component = ServiceManager.getService(psiManager.getProject(), CamelModuleCatalogService.class).getCatalogService(element).getComponentModel(componentName, true);
+                if (component == null) {
                     return null;
                 }
-                ComponentModel component = ModelHelper.generateComponentModel(json, true);
-
-                final String prefixOption = option;
 
                 // find the line with this prefix as prefix and multivalue
-                EndpointOptionModel endpointOption = component.getEndpointOptions().stream().filter(
-                    o -> "true".equals(o.getMultiValue()) && prefixOption.equals(o.getPrefix()))
-                    .findFirst().orElse(null);
+                EndpointOptionModel endpointOption = component.getMultiValueEndpointOption(option);
 
                 // use the real option name instead of the prefix
                 if (endpointOption != null) {
@@ -284,12 +273,10 @@ public class CamelDocumentationProvider extends DocumentationProviderEx implemen
         }
 
         String name = StringUtils.asComponentName(val);
-        Project project = element.getProject();
-        CamelCatalog camelCatalog = ServiceManager.getService(project, CamelCatalogService.class).get();
-        if (name != null && camelCatalog.findComponentNames().contains(name)) {
+        CatalogState catalogState = ServiceManager.getService(element.getProject(), CamelModuleCatalogService.class).getCatalogService(element).getState();
+        if (catalogState.isKnownComponent(name)) {
 
-            String json = camelCatalog.componentJSonSchema(name);
-            ComponentModel component = ModelHelper.generateComponentModel(json, false);
+            ComponentModel component = catalogState.getComponentModel(name, false);
 
             // to build external links which points to github
             String artifactId = component.getArtifactId();
@@ -331,8 +318,7 @@ public class CamelDocumentationProvider extends DocumentationProviderEx implemen
             if (text != null) {
                 // check if its a known Camel component
                 String name = asComponentName(text);
-                Project project = element.getProject();
-                return ServiceManager.getService(project, CamelCatalogService.class).get().findComponentNames().contains(name);
+                return ServiceManager.getService(element.getProject(), CamelModuleCatalogService.class).getCatalogService(element).isKnownComponent(name);
             }
         }
         return false;
@@ -349,23 +335,19 @@ public class CamelDocumentationProvider extends DocumentationProviderEx implemen
      * Generates documentation for the endpoint option.
      * @param componentName the name of the Camel component
      * @param option the name of the Camel component option to generate documentation for
-     * @param project the current project
+     * @param element the element to generate documentation for
      * @return a String representing the HTML documentation
      */
-    private String generateCamelEndpointOptionDocumentation(String componentName, String option, Project project) {
-        CamelCatalog camelCatalog = ServiceManager.getService(project, CamelCatalogService.class).get();
-        String json = camelCatalog.componentJSonSchema(componentName);
-        if (json == null) {
+    private String generateCamelEndpointOptionDocumentation(String componentName, String option, PsiElement element) {
+        ComponentModel component = ServiceManager.getService(element.getProject(), CamelModuleCatalogService.class).getCatalogService(element).getComponentModel(componentName, true);
+        if (component == null) {
             return null;
         }
-        ComponentModel component = ModelHelper.generateComponentModel(json, true);
 
         EndpointOptionModel endpointOption;
         if (option.endsWith(".")) {
             // find the line with this prefix as prefix and multivalue
-            endpointOption = component.getEndpointOptions().stream().filter(
-                o -> "true".equals(o.getMultiValue()) && option.equals(o.getPrefix()))
-                .findFirst().orElse(null);
+            endpointOption = component.getMultiValueEndpointOption(option);
         } else {
             endpointOption = component.getEndpointOption(option);
         }
@@ -377,11 +359,7 @@ public class CamelDocumentationProvider extends DocumentationProviderEx implemen
         builder.append("<strong>").append(endpointOption.getName()).append("</strong><br/><br/>");
         builder.append("<strong>Group: </strong>").append(endpointOption.getGroup()).append("<br/>");
         builder.append("<strong>Type: </strong>").append("<tt>").append(endpointOption.getJavaType()).append("</tt>").append("<br/>");
-        boolean required = false;
-        if (!endpointOption.getRequired().equals("")) {
-            required = true;
-        }
-        builder.append("<strong>Required: </strong>").append(required).append("<br/>");
+        builder.append("<strong>Required: </strong>").append(endpointOption.isRequired()).append("<br/>");
         if (!endpointOption.getEnums().equals("")) {
             builder.append("<strong>Possible values: </strong>").append(endpointOption.getEnums().replace(",", ", ")).append("<br/>");
         }
@@ -392,24 +370,19 @@ public class CamelDocumentationProvider extends DocumentationProviderEx implemen
         return builder.toString();
     }
 
-    private String generateCamelComponentDocumentation(String componentName, String val, int wrapLength, Project project) {
+    private String generateCamelComponentDocumentation(String componentName, String val, int wrapLength, PsiElement element) {
         // it is a known Camel component
-        CamelCatalog camelCatalog = ServiceManager.getService(project, CamelCatalogService.class).get();
+        CatalogState catalogState = ServiceManager.getService(element.getProject(), CamelModuleCatalogService.class).getCatalogService(element).getState();
+        CamelCatalog camelCatalog = catalogState.getCatalog();
         String json = camelCatalog.componentJSonSchema(componentName);
         if (json == null) {
             return null;
         }
 
-        ComponentModel component = ModelHelper.generateComponentModel(json, false);
+        ComponentModel component = catalogState.getComponentModel(componentName, false);
 
-        // camel catalog expects &amp; as & when it parses so replace all &amp; as &
-        String camelQuery = val;
-        camelQuery = camelQuery.replaceAll("&amp;", "&");
-
-        // strip up ending incomplete parameter
-        if (camelQuery.endsWith("&") || camelQuery.endsWith("?")) {
-            camelQuery = camelQuery.substring(0, camelQuery.length() - 1);
-        }
+        // camel catalog expects &amp; as & when it parses, and strip up ending incomplete parameter
+        String camelQuery = EndpointValidationCache.normalize(CamelEndpointUri.parse(val).getText(), false);
 
         Map<String, String> existing = null;
         try {
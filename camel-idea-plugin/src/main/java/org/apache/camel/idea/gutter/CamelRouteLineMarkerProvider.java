@@ -50,6 +50,7 @@ import com.intellij.psi.xml.XmlTag;
 import com.intellij.psi.xml.XmlToken;
 import org.apache.camel.idea.service.CamelPreferenceService;
 import org.apache.camel.idea.service.CamelService;
+import org.apache.camel.idea.util.CamelEndpointUri;
 import org.apache.camel.idea.util.CamelIdeaUtils;
 import org.apache.camel.idea.util.CamelRouteSearchScope;
 import org.apache.camel.idea.util.IdeaUtils;
@@ -236,23 +237,25 @@ public class CamelRouteLineMarkerProvider extends RelatedItemLineMarkerProvider
         }
 
         PsiSearchHelper helper = PsiSearchHelper.SERVICE.getInstance(startElement.getProject());
+        // compare the routes as parsed, so an xml escaped route matches the same route in java
+        CamelEndpointUri uri = CamelEndpointUri.parse(route);
         //get the component name and search only using that
-        String componentName = route.split(":")[0];
+        String componentName = uri.getScheme() != null ? uri.getScheme().getText() : uri.getText();
 
         helper.processElementsWithWord((psiElement, offsetInElement) -> {
             LOG.debug("processElementsWithWord: " + psiElement + " with offset: " + offsetInElement);
             if (psiElement instanceof XmlToken) {
-                PsiElement xmlElement = findXMLElement(route, (XmlToken) psiElement);
+                PsiElement xmlElement = findXMLElement(uri, (XmlToken) psiElement);
                 if (xmlElement != null) {
                     psiElements.add(xmlElement);
                 }
             } else if (psiElement instanceof PsiLiteralExpression) {
-                PsiElement javaElement = findJavaElement(route, psiElement);
+                PsiElement javaElement = findJavaElement(uri, psiElement);
                 if (javaElement != null) {
                     psiElements.add(javaElement);
                 }
             } else if (psiElement instanceof PsiIdentifier) {
-                PsiElement javaElement = findJavaElement(route, psiElement);
+                PsiElement javaElement = findJavaElement(uri, psiElement);
                 if (javaElement != null) {
                     psiElements.add(javaElement);
                 } else {
@@ -274,14 +277,14 @@ public class CamelRouteLineMarkerProvider extends RelatedItemLineMarkerProvider
      * @param psiElement the {@link PsiElement} that might contain the complete route definition
      * @return the {@link PsiElement} that contains the exact match of the Camel route, null if there is no exact match
      */
-    private PsiElement findJavaElement(String route, PsiElement psiElement) {
+    private PsiElement findJavaElement(CamelEndpointUri route, PsiElement psiElement) {
         Object value;
         if (psiElement instanceof PsiLiteralValue) {
             value = ((PsiLiteralValue) psiElement).getValue();
         } else {
             value = psiElement.getText();
         }
-        if (route.equals(value)) {
+        if (value != null && route.getText().equals(CamelEndpointUri.parse(value.toString()).getText())) {
             //the method 'to' is a PsiIdentifier not a PsiMethodCallExpression because it's part of method invocation chain
             PsiMethodCallExpression methodCall = PsiTreeUtil.getParentOfType(psiElement, PsiMethodCallExpression.class);
             if (methodCall != null) {
@@ -300,10 +303,10 @@ public class CamelRouteLineMarkerProvider extends RelatedItemLineMarkerProvider
      * @param psiElement the {@link PsiElement} that might contain the complete route definition
      * @return the {@link PsiElement} that contains the exact match of the Camel route
      */
-    private PsiElement findXMLElement(String route, XmlToken psiElement) {
+    private PsiElement findXMLElement(CamelEndpointUri route, XmlToken psiElement) {
         if (psiElement.getTokenType() == XmlElementType.XML_ATTRIBUTE_VALUE_TOKEN) {
             if (Arrays.stream(XML_ROUTE_CALL).anyMatch(s -> s.equals(PsiTreeUtil.getParentOfType(psiElement, XmlTag.class).getLocalName()))) {
-                if (psiElement.getText().equals(route)) {
+                if (route.getText().equals(CamelEndpointUri.parse(psiElement.getText()).getText())) {
                     return psiElement;
                 }
             }
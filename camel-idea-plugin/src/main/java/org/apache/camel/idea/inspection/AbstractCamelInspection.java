@@ -16,7 +16,10 @@
  */
 package org.apache.camel.idea.inspection;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import com.intellij.codeInspection.LocalInspectionTool;
@@ -24,15 +27,28 @@ import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiLiteralExpression;
+import com.intellij.psi.PsiMethodCallExpression;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
 import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.xml.XmlAttribute;
+import com.intellij.psi.xml.XmlAttributeValue;
+import com.intellij.psi.xml.XmlFile;
+import com.intellij.psi.xml.XmlTag;
 import org.apache.camel.catalog.CamelCatalog;
 import org.apache.camel.catalog.EndpointValidationResult;
 import org.apache.camel.catalog.SimpleValidationResult;
 import org.apache.camel.idea.annotator.CamelAnnotatorEndpointMessage;
 import org.apache.camel.idea.service.CamelCatalogService;
+import org.apache.camel.idea.service.CamelModuleCatalogService;
 import org.apache.camel.idea.service.CamelService;
+import org.apache.camel.idea.service.EndpointValidationCache;
 import org.apache.camel.idea.service.QueryUtils;
 import org.apache.camel.idea.util.CamelIdeaUtils;
 import org.apache.camel.idea.util.IdeaUtils;
@@ -41,6 +57,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import static org.apache.camel.idea.util.CamelIdeaUtils.acceptForAnnotatorOrInspection;
 import static org.apache.camel.idea.util.CamelIdeaUtils.isCameSimpleExpressionUsedAsPredicate;
+import static org.apache.camel.idea.util.CamelIdeaUtils.isFromAcceptedNamespace;
 import static org.apache.camel.idea.util.CamelIdeaUtils.skipEndpointValidation;
 import static org.apache.camel.idea.util.StringUtils.isEmpty;
 
@@ -89,11 +106,14 @@ public abstract class AbstractCamelInspection extends LocalInspectionTool {
         if (isInspectionEnabled(holder.getProject())) {
             return new PsiElementVisitor() {
                 @Override
-                public void visitElement(PsiElement element) {
-                    if (accept(element)) {
-                        String text = getIdeaUtils().extractTextFromElement(element, false, false, true);
-                        if (!StringUtils.isEmpty(text)) {
-                            validateText(element, holder, text, isOnTheFly);
+                public void visitFile(PsiFile file) {
+                    // the candidates are collected from the whole file at once, so the other elements are not visited
+                    for (PsiElement element : collectCandidates(file)) {
+                        if (accept(element)) {
+                            String text = getIdeaUtils().extractTextFromElement(element, false, false, true);
+                            if (!StringUtils.isEmpty(text)) {
+                                validateText(element, holder, text, isOnTheFly);
+                            }
                         }
                     }
                 }
@@ -103,6 +123,65 @@ public abstract class AbstractCamelInspection extends LocalInspectionTool {
         }
     }
 
+    /**
+     * Collects the elements of the file which can be Camel endpoints or simple expressions in one traversal.
+     * <p/>
+     * These are java string literals used as arguments of method calls or annotations, such as in a Camel route,
+     * and xml attribute and text values of tags from the namespaces where Camel routes can be defined.
+     * The xml tags of other namespaces are skipped with all their children.
+     * <p/>
+     * The files of other languages such as groovy, kotlin, scala, properties and yaml are supported by the extensions
+     * of {@link IdeaUtils}, which know which of their elements have text, so all their elements are candidates.
+     */
+    static List<PsiElement> collectCandidates(@NotNull PsiFile file) {
+        List<PsiElement> answer = new ArrayList<>();
+        if (file instanceof XmlFile) {
+            XmlTag root = ((XmlFile) file).getRootTag();
+            if (root != null) {
+                collectXmlCandidates(root, answer);
+            }
+        } else if (file instanceof PsiJavaFile) {
+            file.accept(new PsiRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitElement(PsiElement element) {
+                    if (element instanceof PsiLiteralExpression) {
+                        if (((PsiLiteralExpression) element).getValue() instanceof String
+                            && PsiTreeUtil.getParentOfType(element, PsiMethodCallExpression.class, PsiAnnotation.class) != null) {
+                            answer.add(element);
+                        }
+                    } else {
+                        super.visitElement(element);
+                    }
+                }
+            });
+        } else {
+            file.accept(new PsiRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitElement(PsiElement element) {
+                    answer.add(element);
+                    super.visitElement(element);
+                }
+            });
+        }
+        return answer;
+    }
+
+    private static void collectXmlCandidates(@NotNull XmlTag tag, List<PsiElement> answer) {
+        if (!isFromAcceptedNamespace(tag)) {
+            return;
+        }
+        for (XmlAttribute attribute : tag.getAttributes()) {
+            XmlAttributeValue value = attribute.getValueElement();
+            if (value != null) {
+                answer.add(value);
+            }
+        }
+        Collections.addAll(answer, tag.getValue().getTextElements());
+        for (XmlTag child : tag.getSubTags()) {
+            collectXmlCandidates(child, answer);
+        }
+    }
+
     /**
      * Validate endpoint options list aka properties. eg "timer:trigger?delay=1000&bridgeErrorHandler=true"
      * if the URI is not valid a error annotation is created and highlight the invalid value.
@@ -116,39 +195,29 @@ public abstract class AbstractCamelInspection extends LocalInspectionTool {
         boolean hasSimple = text.contains("${") || text.contains("$simple{");
         if (hasSimple && CamelIdeaUtils.isCamelSimpleExpression(element)) {
             validateSimple(element, holder, text, isOnTheFly);
-        } else if (QueryUtils.isQueryContainingCamelComponent(element.getProject(), text)) {
+        } else if (QueryUtils.isQueryContainingCamelComponent(element, text)) {
             validateEndpoint(element, holder, text, isOnTheFly);
         }
     }
 
     private void validateSimple(@NotNull PsiElement element, final @NotNull ProblemsHolder holder, @NotNull String text, boolean isOnTheFly) {
-        CamelCatalog catalogService = ServiceManager.getService(element.getProject(), CamelCatalogService.class).get();
+        CamelCatalog catalogService = ServiceManager.getService(element.getProject(), CamelModuleCatalogService.class).getCatalogService(element).get();
         CamelService camelService = ServiceManager.getService(element.getProject(), CamelService.class);
 
         IElementType type = element.getNode().getElementType();
         LOG.trace("Element " + element + " of type: " + type + " to inspect simple: " + text);
 
         try {
-            // need to use the classloader that can load classes from the camel-core
-            ClassLoader loader = camelService.getCamelCoreClassloader();
-            if (loader != null) {
-                SimpleValidationResult result;
-                boolean predicate = isCameSimpleExpressionUsedAsPredicate(element);
-                if (predicate) {
-                    LOG.debug("Inspecting simple predicate: " + text);
-                    result = catalogService.validateSimplePredicate(loader, text);
-                } else {
-                    LOG.debug("Inspecting simple expression: " + text);
-                    result = catalogService.validateSimpleExpression(loader, text);
-                }
-                if (!result.isSuccess()) {
-                    // favor the short error message
-                    String msg = result.getShortError();
-                    if (msg == null) {
-                        msg = result.getError();
-                    }
-                    holder.registerProblem(element, msg);
+            boolean predicate = isCameSimpleExpressionUsedAsPredicate(element);
+            LOG.debug("Inspecting simple " + (predicate ? "predicate" : "expression") + ": " + text);
+            SimpleValidationResult result = camelService.validateSimple(catalogService, text, predicate);
+            if (result != null && !result.isSuccess()) {
+                // favor the short error message
+                String msg = result.getShortError();
+                if (msg == null) {
+                    msg = result.getError();
                 }
+                holder.registerProblem(element, msg);
             }
         } catch (Throwable e) {
             LOG.warn("Error inspection Camel simple: " + text, e);
@@ -156,7 +225,7 @@ public abstract class AbstractCamelInspection extends LocalInspectionTool {
     }
 
     private void validateEndpoint(@NotNull PsiElement element, final @NotNull ProblemsHolder holder, @NotNull String text, boolean isOnTheFly) {
-        CamelCatalog catalogService = ServiceManager.getService(element.getProject(), CamelCatalogService.class).get();
+        CamelCatalogService catalogService = ServiceManager.getService(element.getProject(), CamelModuleCatalogService.class).getCatalogService(element);
 
         IElementType type = element.getNode().getElementType();
         LOG.trace("Element " + element + " of type: " + type + " to inspect endpoint uri: " + text);
@@ -167,28 +236,14 @@ public abstract class AbstractCamelInspection extends LocalInspectionTool {
             return;
         }
 
-        // camel catalog expects &amp; as & when it parses so replace all &amp; as &
-        String camelQuery = text;
-        camelQuery = camelQuery.replaceAll("&amp;", "&");
-
-        // strip up ending incomplete parameter
-        if (camelQuery.endsWith("&") || camelQuery.endsWith("?")) {
-            camelQuery = camelQuery.substring(0, camelQuery.length() - 1);
-        }
-
         boolean stringFormat = CamelIdeaUtils.isFromStringFormatEndpoint(element);
-        if (stringFormat) {
-            // if the node is fromF or toF, then replace all %X with {{%X}} as we cannot parse that value
-            camelQuery = camelQuery.replaceAll("%s", "\\{\\{\\%s\\}\\}");
-            camelQuery = camelQuery.replaceAll("%d", "\\{\\{\\%d\\}\\}");
-            camelQuery = camelQuery.replaceAll("%b", "\\{\\{\\%b\\}\\}");
-        }
+        String camelQuery = EndpointValidationCache.normalize(text, stringFormat);
 
         boolean consumerOnly = CamelIdeaUtils.isConsumerEndpoint(element);
         boolean producerOnly = CamelIdeaUtils.isProducerEndpoint(element);
 
         try {
-            EndpointValidationResult result = catalogService.validateEndpointProperties(camelQuery, false, consumerOnly, producerOnly);
+            EndpointValidationResult result = catalogService.validateEndpointProperties(camelQuery, consumerOnly, producerOnly);
 
             extractMapValue(result, result.getInvalidBoolean(), text, element, holder, isOnTheFly, new AbstractCamelInspection.BooleanErrorMsg());
             extractMapValue(result, result.getInvalidEnum(), text, element, holder, isOnTheFly, new AbstractCamelInspection.EnumErrorMsg());
@@ -39,9 +39,7 @@ import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.psi.xml.XmlTag;
 import com.intellij.ui.components.JBList;
 import com.intellij.util.IncorrectOperationException;
-import org.apache.camel.catalog.CamelCatalog;
 import org.apache.camel.idea.model.ComponentModel;
-import org.apache.camel.idea.model.ModelHelper;
 import org.apache.camel.idea.service.CamelCatalogService;
 import org.apache.camel.idea.service.CamelPreferenceService;
 import org.apache.camel.idea.service.CamelService;
@@ -150,11 +148,10 @@ public class CamelAddEndpointIntention extends PsiElementBaseIntentionAction imp
     private static List<String> findCamelComponentNamesInArtifact(Set<String> artifactIds, boolean consumerOnly, Project project) {
         List<String> names = new ArrayList<>();
 
-        CamelCatalog camelCatalog = ServiceManager.getService(project, CamelCatalogService.class).get();
-        for (String name : camelCatalog.findComponentNames()) {
-            String json = camelCatalog.componentJSonSchema(name);
-            ComponentModel model = ModelHelper.generateComponentModel(json, false);
-            if (artifactIds.contains(model.getArtifactId())) {
+        CamelCatalogService camelCatalogService = ServiceManager.getService(project, CamelCatalogService.class);
+        for (String name : camelCatalogService.get().findComponentNames()) {
+            ComponentModel model = camelCatalogService.getComponentModel(name, false);
+            if (model != null && artifactIds.contains(model.getArtifactId())) {
                 boolean onlyConsume = "true".equals(model.getConsumerOnly());
                 boolean onlyProduce = "true".equals(model.getProducerOnly());
                 boolean both = !onlyConsume && !onlyProduce;
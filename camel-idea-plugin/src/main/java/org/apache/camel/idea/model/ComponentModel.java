@@ -17,7 +17,10 @@
 package org.apache.camel.idea.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ComponentModel {
 
@@ -39,6 +42,14 @@ public class ComponentModel {
     private final List<ComponentOptionModel> componentOptions = new ArrayList<>();
     private final List<EndpointOptionModel> endpointOptions = new ArrayList<>();
 
+    // indexes and views of the options which are maintained as the options are added
+    private final Map<String, ComponentOptionModel> componentOptionsByName = new HashMap<>();
+    private final Map<String, EndpointOptionModel> endpointOptionsByName = new HashMap<>();
+    private final Map<String, EndpointOptionModel> multiValueEndpointOptionsByPrefix = new HashMap<>();
+    private final List<EndpointOptionModel> endpointPathOptions = new ArrayList<>();
+    private final List<EndpointOptionModel> endpointParameterOptions = new ArrayList<>();
+    private final List<EndpointOptionModel> endpointPathEnumOptions = new ArrayList<>();
+
     public String getKind() {
         return kind;
     }
@@ -160,27 +171,74 @@ public class ComponentModel {
     }
 
     public List<ComponentOptionModel> getComponentOptions() {
-        return componentOptions;
+        return Collections.unmodifiableList(componentOptions);
     }
 
     public void addComponentOption(ComponentOptionModel option) {
         componentOptions.add(option);
+        componentOptionsByName.putIfAbsent(option.getName(), option);
     }
 
     public List<EndpointOptionModel> getEndpointOptions() {
-        return endpointOptions;
+        return Collections.unmodifiableList(endpointOptions);
     }
 
     public void addEndpointOption(EndpointOptionModel option) {
         endpointOptions.add(option);
+        endpointOptionsByName.putIfAbsent(option.getName(), option);
+
+        if (option.isMultiValue() && option.getPrefix() != null && !option.getPrefix().isEmpty()) {
+            multiValueEndpointOptionsByPrefix.putIfAbsent(option.getPrefix(), option);
+        }
+        if (option.getKind() == OptionKind.PATH) {
+            endpointPathOptions.add(option);
+            if (option.getEnums() != null && !option.getEnums().isEmpty()) {
+                endpointPathEnumOptions.add(option);
+            }
+        } else if (option.getKind() == OptionKind.PARAMETER) {
+            // keep the parameters sorted A..Z so completion can use them as-is
+            int index = endpointParameterOptions.size();
+            while (index > 0 && endpointParameterOptions.get(index - 1).getName().compareToIgnoreCase(option.getName()) > 0) {
+                index--;
+            }
+            endpointParameterOptions.add(index, option);
+        }
     }
 
     public ComponentOptionModel getComponentOption(String name) {
-        return componentOptions.stream().filter(o -> o.getName().equals(name)).findFirst().orElse(null);
+        return componentOptionsByName.get(name);
     }
 
     public EndpointOptionModel getEndpointOption(String name) {
-        return endpointOptions.stream().filter(o -> o.getName().equals(name)).findFirst().orElse(null);
+        return endpointOptionsByName.get(name);
+    }
+
+    /**
+     * Gets the multi valued endpoint option which uses the given prefix, such as <tt>scheduler.</tt>
+     */
+    public EndpointOptionModel getMultiValueEndpointOption(String prefix) {
+        return multiValueEndpointOptionsByPrefix.get(prefix);
+    }
+
+    /**
+     * @return the endpoint options of kind <tt>path</tt> (the context-path)
+     */
+    public List<EndpointOptionModel> getEndpointPathOptions() {
+        return Collections.unmodifiableList(endpointPathOptions);
+    }
+
+    /**
+     * @return the endpoint options of kind <tt>parameter</tt> (the query parameters) sorted A..Z by their name
+     */
+    public List<EndpointOptionModel> getEndpointParameterOptions() {
+        return Collections.unmodifiableList(endpointParameterOptions);
+    }
+
+    /**
+     * @return the endpoint options of kind <tt>path</tt> which have enum values
+     */
+    public List<EndpointOptionModel> getEndpointPathEnumOptions() {
+        return Collections.unmodifiableList(endpointPathEnumOptions);
     }
 
 }
@@ -18,14 +18,16 @@ package org.apache.camel.idea.model;
 
 public class ComponentOptionModel {
 
+    private static final int REQUIRED = 1;
+    private static final int DEPRECATED = 1 << 1;
+    private static final int SECRET = 1 << 2;
+
     private String name;
-    private String kind;
+    private OptionKind kind;
     private String group;
-    private String required;
+    private int flags;
     private String type;
     private String javaType;
-    private String deprecated;
-    private String secret;
     private String description;
     private String defaultValue;
     private String enums;
@@ -38,11 +40,11 @@ public class ComponentOptionModel {
         this.name = name;
     }
 
-    public String getKind() {
+    public OptionKind getKind() {
         return kind;
     }
 
-    public void setKind(String kind) {
+    public void setKind(OptionKind kind) {
         this.kind = kind;
     }
 
@@ -54,12 +56,12 @@ public class ComponentOptionModel {
         this.group = group;
     }
 
-    public String getRequired() {
-        return required;
+    public boolean isRequired() {
+        return (flags & REQUIRED) != 0;
     }
 
-    public void setRequired(String required) {
-        this.required = required;
+    public void setRequired(boolean required) {
+        setFlag(REQUIRED, required);
     }
 
     public String getType() {
@@ -78,20 +80,20 @@ public class ComponentOptionModel {
         this.javaType = javaType;
     }
 
-    public String getDeprecated() {
-        return deprecated;
+    public boolean isDeprecated() {
+        return (flags & DEPRECATED) != 0;
     }
 
-    public void setDeprecated(String deprecated) {
-        this.deprecated = deprecated;
+    public void setDeprecated(boolean deprecated) {
+        setFlag(DEPRECATED, deprecated);
     }
 
-    public String getSecret() {
-        return secret;
+    public boolean isSecret() {
+        return (flags & SECRET) != 0;
     }
 
-    public void setSecret(String secret) {
-        this.secret = secret;
+    public void setSecret(boolean secret) {
+        setFlag(SECRET, secret);
     }
 
     public String getDescription() {
@@ -118,4 +120,12 @@ public class ComponentOptionModel {
         this.enums = enums;
     }
 
+    private void setFlag(int flag, boolean value) {
+        if (value) {
+            flags |= flag;
+        } else {
+            flags &= ~flag;
+        }
+    }
+
 }
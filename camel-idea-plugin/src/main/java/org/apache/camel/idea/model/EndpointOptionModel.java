@@ -18,18 +18,23 @@ package org.apache.camel.idea.model;
 
 public class EndpointOptionModel {
 
+    private static final int REQUIRED = 1;
+    private static final int DEPRECATED = 1 << 1;
+    private static final int SECRET = 1 << 2;
+    private static final int MULTI_VALUE = 1 << 3;
+    // computed from the label whether the option can be used by consumers and producers
+    private static final int NOT_FOR_CONSUMER = 1 << 4;
+    private static final int NOT_FOR_PRODUCER = 1 << 5;
+
     private String name;
-    private String kind;
+    private OptionKind kind;
     private String group;
     private String label;
-    private String required;
+    private int flags;
     private String type;
     private String javaType;
     private String enums;
     private String prefix;
-    private String multiValue;
-    private String deprecated;
-    private String secret;
     private String defaultValue;
     private String description;
     private String enumValues;
@@ -42,11 +47,11 @@ public class EndpointOptionModel {
         this.name = name;
     }
 
-    public String getKind() {
+    public OptionKind getKind() {
         return kind;
     }
 
-    public void setKind(String kind) {
+    public void setKind(OptionKind kind) {
         this.kind = kind;
     }
 
@@ -64,14 +69,17 @@ public class EndpointOptionModel {
 
     public void setLabel(String label) {
         this.label = label;
+        // an option labelled for producer is not for consumers, and vice versa
+        setFlag(NOT_FOR_CONSUMER, label != null && label.contains("producer"));
+        setFlag(NOT_FOR_PRODUCER, label != null && label.contains("consumer"));
     }
 
-    public String getRequired() {
-        return required;
+    public boolean isRequired() {
+        return (flags & REQUIRED) != 0;
     }
 
-    public void setRequired(String required) {
-        this.required = required;
+    public void setRequired(boolean required) {
+        setFlag(REQUIRED, required);
     }
 
     public String getType() {
@@ -106,28 +114,42 @@ public class EndpointOptionModel {
         this.prefix = prefix;
     }
 
-    public String getMultiValue() {
-        return multiValue;
+    public boolean isMultiValue() {
+        return (flags & MULTI_VALUE) != 0;
+    }
+
+    public void setMultiValue(boolean multiValue) {
+        setFlag(MULTI_VALUE, multiValue);
     }
 
-    public void setMultiValue(String multiValue) {
-        this.multiValue = multiValue;
+    public boolean isDeprecated() {
+        return (flags & DEPRECATED) != 0;
     }
 
-    public String getDeprecated() {
-        return deprecated;
+    public void setDeprecated(boolean deprecated) {
+        setFlag(DEPRECATED, deprecated);
     }
 
-    public void setDeprecated(String deprecated) {
-        this.deprecated = deprecated;
+    public boolean isSecret() {
+        return (flags & SECRET) != 0;
     }
 
-    public String getSecret() {
-        return secret;
+    public void setSecret(boolean secret) {
+        setFlag(SECRET, secret);
     }
 
-    public void setSecret(String secret) {
-        this.secret = secret;
+    /**
+     * Whether the option can be used by a consumer endpoint, eg the option is not labelled as a producer option
+     */
+    public boolean isForConsumer() {
+        return (flags & NOT_FOR_CONSUMER) == 0;
+    }
+
+    /**
+     * Whether the option can be used by a producer endpoint, eg the option is not labelled as a consumer option
+     */
+    public boolean isForProducer() {
+        return (flags & NOT_FOR_PRODUCER) == 0;
     }
 
     public String getDefaultValue() {
@@ -154,4 +176,12 @@ public class EndpointOptionModel {
         this.enumValues = enumValues;
     }
 
+    private void setFlag(int flag, boolean value) {
+        if (value) {
+            flags |= flag;
+        } else {
+            flags &= ~flag;
+        }
+    }
+
 }
@@ -16,11 +16,12 @@
  */
 package org.apache.camel.idea.model;
 
-import java.util.List;
-import java.util.Map;
-import org.apache.camel.catalog.JSonSchemaHelper;
-import static org.apache.camel.idea.util.StringUtils.getSafeValue;
-
+/**
+ * Creates the models from the component JSon schemas.
+ * <p/>
+ * The JSon schema is parsed in a single pass which populates the models directly, instead of extracting each section
+ * into lists of maps first.
+ */
 public final class ModelHelper {
 
     private ModelHelper() {
@@ -28,63 +29,403 @@ public final class ModelHelper {
     }
 
     public static ComponentModel generateComponentModel(String json, boolean includeOptions) {
-        List<Map<String, String>> rows = JSonSchemaHelper.parseJsonSchema("component", json, false);
-
         ComponentModel component = new ComponentModel();
-        component.setScheme(getSafeValue("scheme", rows));
-        component.setSyntax(getSafeValue("syntax", rows));
-        component.setAlternativeSyntax(getSafeValue("alternativeSyntax", rows));
-        component.setAlternativeSchemes(getSafeValue("alternativeSchemes", rows));
-        component.setTitle(getSafeValue("title", rows));
-        component.setDescription(getSafeValue("description", rows));
-        component.setLabel(getSafeValue("label", rows));
-        component.setDeprecated(getSafeValue("deprecated", rows));
-        component.setConsumerOnly(getSafeValue("consumerOnly", rows));
-        component.setProducerOnly(getSafeValue("producerOnly", rows));
-        component.setJavaType(getSafeValue("javaType", rows));
-        component.setGroupId(getSafeValue("groupId", rows));
-        component.setArtifactId(getSafeValue("artifactId", rows));
-        component.setVersion(getSafeValue("version", rows));
-
-        if (includeOptions) {
-            rows = JSonSchemaHelper.parseJsonSchema("componentProperties", json, true);
-            for (Map<String, String> row : rows) {
-                ComponentOptionModel option = new ComponentOptionModel();
-                option.setName(getSafeValue("name", row));
-                option.setKind(getSafeValue("kind", row));
-                option.setGroup(getSafeValue("group", row));
-                option.setRequired(getSafeValue("required", row));
-                option.setType(getSafeValue("type", row));
-                option.setJavaType(getSafeValue("javaType", row));
-                option.setEnums(getSafeValue("enum", row));
-                option.setDeprecated(getSafeValue("deprecated", row));
-                option.setSecret(getSafeValue("secret", row));
-                option.setDefaultValue(getSafeValue("defaultValue", row));
-                option.setDescription(getSafeValue("description", row));
-                component.addComponentOption(option);
-            }
-
-            rows = JSonSchemaHelper.parseJsonSchema("properties", json, true);
-            for (Map<String, String> row : rows) {
-                EndpointOptionModel option = new EndpointOptionModel();
-                option.setName(getSafeValue("name", row));
-                option.setKind(getSafeValue("kind", row));
-                option.setGroup(getSafeValue("group", row));
-                option.setLabel(getSafeValue("label", row));
-                option.setRequired(getSafeValue("required", row));
-                option.setType(getSafeValue("type", row));
-                option.setJavaType(getSafeValue("javaType", row));
-                option.setEnums(getSafeValue("enum", row));
-                option.setPrefix(getSafeValue("prefix", row));
-                option.setMultiValue(getSafeValue("multiValue", row));
-                option.setDeprecated(getSafeValue("deprecated", row));
-                option.setSecret(getSafeValue("secret", row));
-                option.setDefaultValue(getSafeValue("defaultValue", row));
-                option.setDescription(getSafeValue("description", row));
-                component.addEndpointOption(option);
+        component.setScheme("");
+        component.setSyntax("");
+        component.setAlternativeSyntax("");
+        component.setAlternativeSchemes("");
+        component.setTitle("");
+        component.setDescription("");
+        component.setLabel("");
+        component.setDeprecated("");
+        component.setConsumerOnly("");
+        component.setProducerOnly("");
+        component.setJavaType("");
+        component.setGroupId("");
+        component.setArtifactId("");
+        component.setVersion("");
+
+        JsonReader reader = new JsonReader(json);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String section = reader.nextName();
+            if ("component".equals(section)) {
+                parseComponent(reader, component);
+                if (!includeOptions) {
+                    // no need to read the rest of the schema
+                    break;
+                }
+            } else if (includeOptions && "componentProperties".equals(section)) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    component.addComponentOption(parseComponentOption(reader, reader.nextName()));
+                }
+            } else if (includeOptions && "properties".equals(section)) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    component.addEndpointOption(parseEndpointOption(reader, reader.nextName()));
+                }
+            } else {
+                reader.skipValue();
             }
         }
 
         return component;
     }
+
+    private static void parseComponent(JsonReader reader, ComponentModel component) {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            String value = reader.nextValue();
+            switch (key) {
+            case "scheme":
+                component.setScheme(value);
+                break;
+            case "syntax":
+                component.setSyntax(value);
+                break;
+            case "alternativeSyntax":
+                component.setAlternativeSyntax(value);
+                break;
+            case "alternativeSchemes":
+                component.setAlternativeSchemes(value);
+                break;
+            case "title":
+                component.setTitle(value);
+                break;
+            case "description":
+                component.setDescription(value);
+                break;
+            case "label":
+                component.setLabel(value);
+                break;
+            case "deprecated":
+                component.setDeprecated(value);
+                break;
+            case "consumerOnly":
+                component.setConsumerOnly(value);
+                break;
+            case "producerOnly":
+                component.setProducerOnly(value);
+                break;
+            case "javaType":
+                component.setJavaType(value);
+                break;
+            case "groupId":
+                component.setGroupId(value);
+                break;
+            case "artifactId":
+                component.setArtifactId(value);
+                break;
+            case "version":
+                component.setVersion(value);
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    private static ComponentOptionModel parseComponentOption(JsonReader reader, String name) {
+        ComponentOptionModel option = new ComponentOptionModel();
+        option.setName(name);
+        option.setGroup("");
+        option.setType("");
+        option.setJavaType("");
+        option.setEnums("");
+        option.setDefaultValue("");
+        option.setDescription("");
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            String value = reader.nextValue();
+            switch (key) {
+            case "kind":
+                option.setKind(OptionKind.fromValue(value));
+                break;
+            case "group":
+                option.setGroup(value);
+                break;
+            case "required":
+                option.setRequired("true".equals(value));
+                break;
+            case "type":
+                option.setType(value);
+                break;
+            case "javaType":
+                option.setJavaType(value);
+                break;
+            case "enum":
+                option.setEnums(value);
+                break;
+            case "deprecated":
+                option.setDeprecated("true".equals(value));
+                break;
+            case "secret":
+                option.setSecret("true".equals(value));
+                break;
+            case "defaultValue":
+                option.setDefaultValue(value);
+                break;
+            case "description":
+                option.setDescription(value);
+                break;
+            default:
+                break;
+            }
+        }
+        return option;
+    }
+
+    private static EndpointOptionModel parseEndpointOption(JsonReader reader, String name) {
+        EndpointOptionModel option = new EndpointOptionModel();
+        option.setName(name);
+        option.setGroup("");
+        option.setLabel("");
+        option.setType("");
+        option.setJavaType("");
+        option.setEnums("");
+        option.setPrefix("");
+        option.setDefaultValue("");
+        option.setDescription("");
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            String value = reader.nextValue();
+            switch (key) {
+            case "kind":
+                option.setKind(OptionKind.fromValue(value));
+                break;
+            case "group":
+                option.setGroup(value);
+                break;
+            case "label":
+                option.setLabel(value);
+                break;
+            case "required":
+                option.setRequired("true".equals(value));
+                break;
+            case "type":
+                option.setType(value);
+                break;
+            case "javaType":
+                option.setJavaType(value);
+                break;
+            case "enum":
+                option.setEnums(value);
+                break;
+            case "prefix":
+                option.setPrefix(value);
+                break;
+            case "multiValue":
+                option.setMultiValue("true".equals(value));
+                break;
+            case "deprecated":
+                option.setDeprecated("true".equals(value));
+                break;
+            case "secret":
+                option.setSecret("true".equals(value));
+                break;
+            case "defaultValue":
+                option.setDefaultValue(value);
+                break;
+            case "description":
+                option.setDescription(value);
+                break;
+            default:
+                break;
+            }
+        }
+        return option;
+    }
+
+    /**
+     * Minimal forward only JSon reader over the schema text, which returns all the values as strings
+     * the same way as the Camel catalog does, eg booleans and numbers as their text and arrays joined by comma.
+     */
+    private static final class JsonReader {
+
+        private final String json;
+        private int pos;
+        private boolean first;
+
+        JsonReader(String json) {
+            this.json = json;
+        }
+
+        void beginObject() {
+            expect('{');
+            first = true;
+        }
+
+        /**
+         * Whether the current object has another member, consuming the closing brace if not.
+         */
+        boolean hasNext() {
+            char c = peek();
+            if (c == '}') {
+                pos++;
+                first = false;
+                return false;
+            }
+            if (!first) {
+                expect(',');
+            }
+            first = false;
+            return true;
+        }
+
+        String nextName() {
+            String name = readString();
+            expect(':');
+            return name;
+        }
+
+        String nextValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            } else if (c == '[') {
+                return readArray();
+            } else if (c == '{') {
+                skipValue();
+                return "";
+            }
+            return readLiteral();
+        }
+
+        void skipValue() {
+            char c = peek();
+            if (c == '"') {
+                readString();
+            } else if (c == '[') {
+                readArray();
+            } else if (c == '{') {
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+            } else {
+                readLiteral();
+            }
+        }
+
+        private String readArray() {
+            expect('[');
+            StringBuilder sb = new StringBuilder();
+            if (peek() == ']') {
+                pos++;
+                return "";
+            }
+            while (true) {
+                if (sb.length() > 0) {
+                    sb.append(',');
+                }
+                sb.append(nextValue());
+                char c = peek();
+                pos++;
+                if (c == ']') {
+                    return sb.toString();
+                } else if (c != ',') {
+                    throw error("Expected , or ]");
+                }
+            }
+        }
+
+        private String readLiteral() {
+            int start = pos;
+            while (pos < json.length()) {
+                char c = json.charAt(pos);
+                if (c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                    break;
+                }
+                pos++;
+            }
+            if (start == pos) {
+                throw error("Expected value");
+            }
+            String literal = json.substring(start, pos);
+            return "null".equals(literal) ? "" : literal;
+        }
+
+        private String readString() {
+            expect('"');
+            int start = pos;
+            // fast path for strings without escapes
+            while (pos < json.length()) {
+                char c = json.charAt(pos);
+                if (c == '"') {
+                    return json.substring(start, pos++);
+                } else if (c == '\\') {
+                    break;
+                }
+                pos++;
+            }
+
+            StringBuilder sb = new StringBuilder(json.substring(start, pos));
+            while (pos < json.length()) {
+                char c = json.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                } else if (c != '\\') {
+                    sb.append(c);
+                } else if (pos < json.length()) {
+                    char e = json.charAt(pos++);
+                    switch (e) {
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > json.length()) {
+                            throw error("Invalid unicode escape");
+                        }
+                        sb.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        sb.append(e);
+                        break;
+                    }
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw error("Expected " + expected);
+            }
+            pos++;
+        }
+
+        private char peek() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+            if (pos >= json.length()) {
+                throw error("Unexpected end of JSon schema");
+            }
+            return json.charAt(pos);
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos + " in JSon schema");
+        }
+    }
 }
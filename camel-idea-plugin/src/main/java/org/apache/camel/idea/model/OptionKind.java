@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.model;
+
+/**
+ * The kind of a component or endpoint option as declared in the component JSon schema.
+ */
+public enum OptionKind {
+
+    /**
+     * A component option
+     */
+    PROPERTY,
+
+    /**
+     * An endpoint option in the context-path of the uri
+     */
+    PATH,
+
+    /**
+     * An endpoint option as query parameter of the uri
+     */
+    PARAMETER;
+
+    /**
+     * Gets the kind from the value in the JSon schema, such as <tt>parameter</tt>
+     *
+     * @return the kind, or <tt>null</tt> if the value is not a known kind
+     */
+    public static OptionKind fromValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value) {
+        case "property":
+            return PROPERTY;
+        case "path":
+            return PATH;
+        case "parameter":
+            return PARAMETER;
+        default:
+            return null;
+        }
+    }
+}
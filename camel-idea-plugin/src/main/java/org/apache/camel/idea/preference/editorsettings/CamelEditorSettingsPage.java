@@ -40,6 +40,7 @@ public class CamelEditorSettingsPage extends BaseConfigurable implements Searcha
     private JBCheckBox realTimeSimpleValidationCatalogCheckBox;
     private JBCheckBox highlightCustomOptionsCheckBox;
     private JBCheckBox downloadCatalogCheckBox;
+    private JBCheckBox offlineCatalogCheckBox;
     private JBCheckBox scanThirdPartyComponentsCatalogCheckBox;
     private JBCheckBox scanThirdPartyLegacyComponentsCatalogCheckBox;
     private JBCheckBox camelIconInGutterCheckBox;
@@ -53,6 +54,7 @@ public class CamelEditorSettingsPage extends BaseConfigurable implements Searcha
         realTimeSimpleValidationCatalogCheckBox = new JBCheckBox("Real time validation of Camel simple language in editor");
         highlightCustomOptionsCheckBox = new JBCheckBox("Highlight custom endpoint options as warnings in editor");
         downloadCatalogCheckBox = new JBCheckBox("Allow downloading camel-catalog over the internet");
+        offlineCatalogCheckBox = new JBCheckBox("Only load camel-catalog from the local Maven repository and caches (offline mode)");
         scanThirdPartyComponentsCatalogCheckBox = new JBCheckBox("Scan classpath for third party Camel components using modern component packaging");
         scanThirdPartyLegacyComponentsCatalogCheckBox = new JBCheckBox("Scan classpath for third party Camel components using legacy component packaging");
         camelIconInGutterCheckBox = new JBCheckBox("Show Camel icon in gutter");
@@ -74,6 +76,7 @@ public class CamelEditorSettingsPage extends BaseConfigurable implements Searcha
         panel.add(realTimeSimpleValidationCatalogCheckBox, "span 2");
         panel.add(highlightCustomOptionsCheckBox, "span 2");
         panel.add(downloadCatalogCheckBox, "span 2");
+        panel.add(offlineCatalogCheckBox, "span 2");
         panel.add(scanThirdPartyComponentsCatalogCheckBox, "span 2");
         panel.add(scanThirdPartyLegacyComponentsCatalogCheckBox, "span 2");
         panel.add(camelIconInGutterCheckBox, "span 2");
@@ -96,6 +99,7 @@ public class CamelEditorSettingsPage extends BaseConfigurable implements Searcha
         getCamelPreferenceService().setRealTimeSimpleValidation(realTimeSimpleValidationCatalogCheckBox.isSelected());
         getCamelPreferenceService().setHighlightCustomOptions(highlightCustomOptionsCheckBox.isSelected());
         getCamelPreferenceService().setDownloadCatalog(downloadCatalogCheckBox.isSelected());
+        getCamelPreferenceService().setOfflineCatalog(offlineCatalogCheckBox.isSelected());
         getCamelPreferenceService().setScanThirdPartyComponents(scanThirdPartyComponentsCatalogCheckBox.isSelected());
         getCamelPreferenceService().setScanThirdPartyLegacyComponents(scanThirdPartyLegacyComponentsCatalogCheckBox.isSelected());
         getCamelPreferenceService().setShowCamelIconInGutter(camelIconInGutterCheckBox.isSelected());
@@ -109,15 +113,18 @@ public class CamelEditorSettingsPage extends BaseConfigurable implements Searcha
         boolean b1 = getCamelPreferenceService().isRealTimeEndpointValidation() != realTimeEndpointValidationCatalogCheckBox.isSelected()
                 || getCamelPreferenceService().isRealTimeSimpleValidation() != realTimeSimpleValidationCatalogCheckBox.isSelected()
                 || getCamelPreferenceService().isHighlightCustomOptions() != highlightCustomOptionsCheckBox.isSelected()
-                || getCamelPreferenceService().isDownloadCatalog() != downloadCatalogCheckBox.isSelected()
-                || getCamelPreferenceService().isScanThirdPartyComponents() != scanThirdPartyComponentsCatalogCheckBox.isSelected()
-                || getCamelPreferenceService().isScanThirdPartyLegacyComponents() != scanThirdPartyLegacyComponentsCatalogCheckBox.isSelected()
                 || getCamelPreferenceService().isShowCamelIconInGutter() != camelIconInGutterCheckBox.isSelected();
 
+        // catalog check boxes
+        boolean b2 = getCamelPreferenceService().isDownloadCatalog() != downloadCatalogCheckBox.isSelected()
+                || getCamelPreferenceService().isOfflineCatalog() != offlineCatalogCheckBox.isSelected()
+                || getCamelPreferenceService().isScanThirdPartyComponents() != scanThirdPartyComponentsCatalogCheckBox.isSelected()
+                || getCamelPreferenceService().isScanThirdPartyLegacyComponents() != scanThirdPartyLegacyComponentsCatalogCheckBox.isSelected();
+
         // other fields
-        boolean b2 = !Objects.equals(getCamelPreferenceService().getChosenCamelIcon(), camelIconsComboBox.getSelectedItem())
+        boolean b3 = !Objects.equals(getCamelPreferenceService().getChosenCamelIcon(), camelIconsComboBox.getSelectedItem())
                 || !Objects.equals(getCamelPreferenceService().getCustomIconFilePath(), customIconButton.getText());
-        return b1 || b2;
+        return b1 || b2 || b3;
     }
 
     @Override
@@ -126,6 +133,7 @@ public class CamelEditorSettingsPage extends BaseConfigurable implements Searcha
         realTimeSimpleValidationCatalogCheckBox.setSelected(getCamelPreferenceService().isRealTimeSimpleValidation());
         highlightCustomOptionsCheckBox.setSelected(getCamelPreferenceService().isHighlightCustomOptions());
         downloadCatalogCheckBox.setSelected(getCamelPreferenceService().isDownloadCatalog());
+        offlineCatalogCheckBox.setSelected(getCamelPreferenceService().isOfflineCatalog());
         scanThirdPartyComponentsCatalogCheckBox.setSelected(getCamelPreferenceService().isScanThirdPartyComponents());
         scanThirdPartyLegacyComponentsCatalogCheckBox.setSelected(getCamelPreferenceService().isScanThirdPartyLegacyComponents());
         camelIconInGutterCheckBox.setSelected(getCamelPreferenceService().isShowCamelIconInGutter());
@@ -166,6 +174,10 @@ public class CamelEditorSettingsPage extends BaseConfigurable implements Searcha
         return downloadCatalogCheckBox;
     }
 
+    JBCheckBox getOfflineCatalogCheckBox() {
+        return offlineCatalogCheckBox;
+    }
+
     JBCheckBox getScanThirdPartyComponentsCatalogCheckBox() {
         return scanThirdPartyComponentsCatalogCheckBox;
     }
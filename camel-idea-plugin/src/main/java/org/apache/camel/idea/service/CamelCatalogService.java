@@ -16,32 +16,231 @@
  */
 package org.apache.camel.idea.service;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.apache.camel.catalog.CamelCatalog;
-import org.apache.camel.catalog.DefaultCamelCatalog;
-import org.apache.camel.catalog.DefaultVersionManager;
+import org.apache.camel.catalog.EndpointValidationResult;
+import org.apache.camel.catalog.VersionManager;
+import org.apache.camel.idea.model.ComponentModel;
+import org.apache.camel.idea.service.CatalogState.ThirdPartyComponent;
+import org.apache.camel.idea.util.SchemeTrie;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Service which provides the instance to be used when accessing the {@link CamelCatalog}.
+ * <p/>
+ * The catalog is published as an immutable {@link CatalogState} which is replaced atomically when the catalog version
+ * is switched or a third party component is added, so readers never see a half switched catalog and never lock.
+ * The catalog data of the Camel version in use is shared with the other open projects using the same version
+ * via the {@link CamelCatalogStore}, and each state has an overlay with the third party components of the project.
  */
 public class CamelCatalogService implements Disposable {
 
-    private CamelCatalog instance;
+    private final AtomicReference<CatalogState> state = new AtomicReference<>();
+    private final EndpointValidationCache endpointValidationCache = new EndpointValidationCache(state::get);
 
     /**
-     * Gets the {@link CamelCatalog} instance to use.
+     * Gets the current state of the catalog in use.
+     * <p/>
+     * A reader which does several lookups, such as during a highlighting pass, should get the state once and use it
+     * for all the lookups, as the state returned by the next call may be of another catalog.
+     */
+    @NotNull
+    public CatalogState getState() {
+        CatalogState answer = state.get();
+        if (answer == null) {
+            synchronized (this) {
+                answer = state.get();
+                if (answer == null) {
+                    answer = newState(null, Collections.emptyMap());
+                    state.set(answer);
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the {@link CamelCatalog} instance to use, which must not be changed such as by adding components.
      */
     public CamelCatalog get() {
-        if (instance == null) {
-            instance = new DefaultCamelCatalog(true);
+        return getState().getCatalog();
+    }
+
+    private static CatalogState newState(@Nullable VersionManager versionManager, Map<String, ThirdPartyComponent> thirdPartyComponents) {
+        return CatalogState.create(versionManager, getCamelCatalogStore()::acquire, thirdPartyComponents, getSnapshotDirectory(),
+            AppExecutorUtil.getAppExecutorService());
+    }
+
+    /**
+     * Publishes the new state, and releases the version manager and the shared catalog data of the replaced state.
+     * <p/>
+     * Readers may still be using the replaced state, which remains usable, but no longer finds the resources of its
+     * version if no other state uses the same version manager.
+     */
+    private synchronized void publish(@Nullable CatalogState newState) {
+        CatalogState old = state.getAndSet(newState);
+        // the results of the replaced state are no longer used
+        endpointValidationCache.clear();
+        if (old != null) {
+            old.release();
+            getCamelCatalogStore().release(old.getShared());
         }
-        return instance;
+    }
+
+    /**
+     * Gets the names of the known components in the catalog in use.
+     *
+     * @see CatalogState#getComponentNames()
+     */
+    @NotNull
+    public Set<String> getComponentNames() {
+        return getState().getComponentNames();
+    }
+
+    /**
+     * Whether the catalog in use has a component with the given name
+     */
+    public boolean isKnownComponent(@Nullable String name) {
+        return getState().isKnownComponent(name);
+    }
+
+    /**
+     * Gets the trie of the known component schemes, including their alternative schemes, in the catalog in use.
+     *
+     * @see CatalogState#getSchemeTrie()
+     */
+    @NotNull
+    public SchemeTrie getSchemeTrie() {
+        return getState().getSchemeTrie();
+    }
+
+    /**
+     * Gets the {@link ComponentModel} of the given component from the catalog in use.
+     *
+     * @see CatalogState#getComponentModel(String, boolean)
+     */
+    @Nullable
+    public ComponentModel getComponentModel(@NotNull String scheme, boolean includeOptions) {
+        return getState().getComponentModel(scheme, includeOptions);
+    }
+
+    /**
+     * Gets the cache of the component models of the catalog, which can be used for statistics such as the number of cached models.
+     */
+    public ComponentModelCache getComponentModelCache() {
+        return getState().getComponentModelCache();
+    }
+
+    /**
+     * Validates the endpoint uri with the catalog in use, using the cached result if the uri has already been validated.
+     *
+     * @param uri          the endpoint uri, normalized with {@link EndpointValidationCache#normalize(String, boolean)}
+     * @param consumerOnly whether the endpoint is only used as consumer
+     * @param producerOnly whether the endpoint is only used as producer
+     * @return the validation result, which must not be changed
+     */
+    @NotNull
+    public EndpointValidationResult validateEndpointProperties(@NotNull String uri, boolean consumerOnly, boolean producerOnly) {
+        return endpointValidationCache.validate(getState(), uri, consumerOnly, producerOnly);
+    }
+
+    /**
+     * Gets the cache of the endpoint validation results, which can be used for statistics such as the hit rate.
+     */
+    @NotNull
+    public EndpointValidationCache getEndpointValidationCache() {
+        return endpointValidationCache;
+    }
+
+    /**
+     * Adds a third party component to the catalog in use.
+     *
+     * @param scheme   the component scheme
+     * @param javaType the component class name
+     * @param json     the component JSon schema
+     */
+    public void addComponent(@NotNull String scheme, @NotNull String javaType, @NotNull String json) {
+        addComponents(Collections.singletonMap(scheme, new ThirdPartyComponent(javaType, json)));
+    }
+
+    /**
+     * Adds the third party components of this catalog to the other catalog, such as a catalog of another version
+     * loaded for a module.
+     */
+    void copyComponentsTo(@NotNull CamelCatalogService other) {
+        other.addComponents(getState().getThirdPartyComponents());
+    }
+
+    /**
+     * Adds third party components to the catalog in use, which is only replaced once for all the components.
+     */
+    synchronized void addComponents(@NotNull Map<String, ThirdPartyComponent> components) {
+        if (components.isEmpty()) {
+            return;
+        }
+        // the catalog of the current state is not changed, as readers may be using it, but a new catalog is created instead
+        CatalogState current = getState();
+        Map<String, ThirdPartyComponent> thirdPartyComponents = new LinkedHashMap<>(current.getThirdPartyComponents());
+        thirdPartyComponents.putAll(components);
+        publish(newState(getVersionManager(current.getCatalog()), thirdPartyComponents));
+    }
+
+    /**
+     * Removes third party components from the catalog in use, such as when the library with the components is no longer
+     * a dependency of the project.
+     *
+     * @param schemes the component schemes
+     */
+    public synchronized void removeComponents(@NotNull Collection<String> schemes) {
+        CatalogState current = getState();
+        Map<String, ThirdPartyComponent> thirdPartyComponents = new LinkedHashMap<>(current.getThirdPartyComponents());
+        if (thirdPartyComponents.keySet().removeAll(schemes)) {
+            publish(newState(getVersionManager(current.getCatalog()), thirdPartyComponents));
+        }
+    }
+
+    /**
+     * Saves a snapshot of the third party components in use, if not already saved,
+     * so they do not have to be parsed the next time the project is opened.
+     */
+    public void saveSnapshot() {
+        CatalogState current = state.get();
+        if (current != null) {
+            current.saveSnapshot();
+        }
+    }
+
+    private static Path getSnapshotDirectory() {
+        return Paths.get(PathManager.getSystemPath(), "camel-idea-plugin", "catalog");
+    }
+
+    private static Path getArtifactCacheDirectory() {
+        return Paths.get(PathManager.getSystemPath(), "camel-idea-plugin", "maven");
+    }
+
+    /**
+     * Gets the version manager which has loaded a specific Camel version into the catalog, which can be used by
+     * another catalog of the same version.
+     */
+    @Nullable
+    private static VersionManager getVersionManager(CamelCatalog catalog) {
+        return catalog.getVersionManager() instanceof CamelMavenVersionManager ? catalog.getVersionManager() : null;
     }
 
     boolean isInstantiated() {
-        return instance != null;
+        return state.get() != null;
     }
 
     /**
@@ -49,23 +248,54 @@ public class CamelCatalogService implements Disposable {
      *
      * @param version the version to load
      * @param repos   any third party maven repositories
+     * @return <tt>true</tt> if the version was loaded, or <tt>false</tt> if the catalog in use was kept
      */
     boolean loadVersion(@NotNull String version, @NotNull Map<String, String> repos) {
-        // we should load a new version of the catalog, and therefor must discard the old version
-        dispose();
-        // use maven to be able to load the version dynamic
-        CamelMavenVersionManager maven = new CamelMavenVersionManager();
+        CamelMavenVersionManager versionManager = downloadVersion(version, repos);
+        if (versionManager == null) {
+            return false;
+        }
+        switchCatalog(versionManager);
+        return true;
+    }
+
+    /**
+     * Downloads a specific Camel version, while the catalog in use keeps being used.
+     * <p/>
+     * This may take a long time as the version is downloaded with maven, and should not be called from the event dispatch thread.
+     * In offline mode the version is only resolved from the local repositories, and the method fails fast if not found.
+     *
+     * @param version the version to load
+     * @param repos   any third party maven repositories
+     * @return the version manager with the version loaded, which must be switched to or closed, or <tt>null</tt> if the version could not be loaded
+     */
+    @Nullable
+    CamelMavenVersionManager downloadVersion(@NotNull String version, @NotNull Map<String, String> repos) {
+        // use maven to be able to load the version dynamic, but prefer the artifacts already on the local disk
+        CamelMavenVersionManager maven = new CamelMavenVersionManager(LocalArtifactResolver.withDefaultRepositories(), new CatalogArtifactCache(getArtifactCacheDirectory()));
+        maven.setOffline(ServiceManager.getService(CamelPreferenceService.class).isOfflineCatalog());
 
         // add support for the maven repos
         repos.forEach(maven::addMavenRepository);
 
-        get().setVersionManager(maven);
-        boolean loaded = get().getVersionManager().loadVersion(version);
-        if (!loaded) {
-            // we could not load it, then fallback to default
-            get().setVersionManager(new DefaultVersionManager(get()));
+        if (maven.loadVersion(version)) {
+            return maven;
         }
-        return loaded;
+        maven.close();
+        return null;
+    }
+
+    /**
+     * Switches the catalog in use to the Camel version loaded into the given version manager, such as returned by
+     * {@link #downloadVersion(String, Map)}.
+     * <p/>
+     * The third party components of the project are added to the new catalog before it is published, and the
+     * version manager of the replaced catalog is closed when no longer used.
+     */
+    synchronized void switchCatalog(@NotNull CamelMavenVersionManager versionManager) {
+        CatalogState current = state.get();
+        Map<String, ThirdPartyComponent> thirdPartyComponents = current != null ? current.getThirdPartyComponents() : Collections.emptyMap();
+        publish(newState(versionManager, thirdPartyComponents));
     }
 
     public void clearLoadedVersion() {
@@ -74,7 +304,12 @@ public class CamelCatalogService implements Disposable {
     }
 
     @Override
-    public void dispose() {
-        instance = null;
+    public synchronized void dispose() {
+        // the jars of the catalog are closed when the state is released
+        publish(null);
+    }
+
+    private static CamelCatalogStore getCamelCatalogStore() {
+        return ServiceManager.getService(CamelCatalogStore.class);
     }
 }
@@ -0,0 +1,58 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Application service which holds the {@link SharedCatalogData} of each Camel version in use by the open projects.
+ * <p/>
+ * The data is reference counted, so the memory used grows with the number of Camel versions rather than with the
+ * number of open projects, and the data of a version is discarded when the last project using it releases it.
+ */
+public class CamelCatalogStore {
+
+    private final Map<String, SharedCatalogData> catalogs = new HashMap<>();
+
+    /**
+     * Acquires the shared data for the given version, which must be released when no longer in use.
+     */
+    @NotNull
+    public synchronized SharedCatalogData acquire(@NotNull String version) {
+        SharedCatalogData data = catalogs.computeIfAbsent(version, SharedCatalogData::new);
+        data.references++;
+        return data;
+    }
+
+    /**
+     * Releases the shared data, which is discarded when no longer in use by any project.
+     */
+    public synchronized void release(@NotNull SharedCatalogData data) {
+        if (data.references > 0 && --data.references == 0) {
+            catalogs.remove(data.getVersion(), data);
+        }
+    }
+
+    /**
+     * @return number of Camel versions in use
+     */
+    public synchronized int size() {
+        return catalogs.size();
+    }
+}
@@ -18,13 +18,19 @@ package org.apache.camel.idea.service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import groovy.grape.Grape;
 import groovy.lang.GroovyClassLoader;
 import org.apache.camel.catalog.VersionManager;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A copy of {@link org.apache.camel.catalog.maven.MavenVersionManager} as IDEA cannot use this class at runtime,
@@ -32,10 +38,43 @@ import org.apache.camel.catalog.VersionManager;
  */
 class CamelMavenVersionManager implements VersionManager {
 
-    private final ClassLoader classLoader = new GroovyClassLoader();
-    private String version;
-    private String runtimeProviderVersion;
-    private String cacheDirectory;
+    private final GroovyClassLoader classLoader = new GroovyClassLoader();
+    private final LocalArtifactResolver localResolver;
+    private final CatalogArtifactCache cache;
+    private final Map<String, String> repositories = new LinkedHashMap<>();
+    private boolean offline;
+    private volatile String version;
+    private volatile String runtimeProviderVersion;
+    // the resources of the loaded versions, which are read directly from their jars
+    private volatile JarResourceIndex versionIndex;
+    private volatile JarResourceIndex runtimeProviderIndex;
+    private volatile boolean closed;
+    // the number of catalog states using this version manager, guarded by this
+    private int references;
+
+    CamelMavenVersionManager() {
+        this(LocalArtifactResolver.withDefaultRepositories(), null);
+    }
+
+    /**
+     * @param localResolver to resolve the catalog from the local repositories before using maven
+     * @param cache         the cache of the plugin to load the catalog from before anything else, and to add the
+     *                      catalogs downloaded with maven to, or <tt>null</tt> to not use a cache
+     */
+    CamelMavenVersionManager(LocalArtifactResolver localResolver, @Nullable CatalogArtifactCache cache) {
+        this.localResolver = localResolver;
+        this.cache = cache;
+    }
+
+    /**
+     * Whether to only resolve from the local repositories, and never access the network.
+     * <p/>
+     * When offline a version which is not in the local repositories fails to load immediately,
+     * instead of waiting for the maven repositories to time out.
+     */
+    void setOffline(boolean offline) {
+        this.offline = offline;
+    }
 
     /**
      * To add a 3rd party Maven repository.
@@ -44,10 +83,17 @@ class CamelMavenVersionManager implements VersionManager {
      * @param url  the repository url
      */
     void addMavenRepository(String name, String url) {
-        Map<String, Object> repo = new HashMap<>();
-        repo.put("name", name);
-        repo.put("root", url);
-        Grape.addResolver(repo);
+        // the repositories are added to Grape when a version must be downloaded
+        repositories.put(name, url);
+    }
+
+    private void addGrapeResolvers() {
+        repositories.forEach((name, url) -> {
+            Map<String, Object> repo = new HashMap<>();
+            repo.put("name", name);
+            repo.put("root", url);
+            Grape.addResolver(repo);
+        });
     }
 
     @Override
@@ -57,11 +103,17 @@ class CamelMavenVersionManager implements VersionManager {
 
     @Override
     public boolean loadVersion(String version) {
-        try {
-            if (cacheDirectory != null) {
-                System.setProperty("grape.root", cacheDirectory);
-            }
+        JarResourceIndex index = loadLocalArtifact("org.apache.camel", "camel-catalog", version);
+        if (index != null) {
+            this.version = version;
+            this.versionIndex = index;
+            return true;
+        } else if (offline) {
+            return false;
+        }
 
+        try {
+            addGrapeResolvers();
             Grape.setEnableAutoDownload(true);
 
             Map<String, Object> param = new HashMap<>();
@@ -73,6 +125,7 @@ class CamelMavenVersionManager implements VersionManager {
             Grape.grab(param);
 
             this.version = version;
+            this.versionIndex = indexGrabbedArtifact("org.apache.camel", "camel-catalog", version);
             return true;
         } catch (Exception e) {
             // ignore
@@ -87,7 +140,17 @@ class CamelMavenVersionManager implements VersionManager {
 
     @Override
     public boolean loadRuntimeProviderVersion(String groupId, String artifactId, String version) {
+        JarResourceIndex index = loadLocalArtifact(groupId, artifactId, version);
+        if (index != null) {
+            this.runtimeProviderVersion = version;
+            this.runtimeProviderIndex = index;
+            return true;
+        } else if (offline) {
+            return false;
+        }
+
         try {
+            addGrapeResolvers();
             Grape.setEnableAutoDownload(true);
 
             Map<String, Object> param = new HashMap<>();
@@ -99,6 +162,7 @@ class CamelMavenVersionManager implements VersionManager {
             Grape.grab(param);
 
             this.runtimeProviderVersion = version;
+            this.runtimeProviderIndex = indexGrabbedArtifact(groupId, artifactId, version);
             return true;
         } catch (Exception e) {
             // ignore
@@ -106,15 +170,133 @@ class CamelMavenVersionManager implements VersionManager {
         }
     }
 
+    /**
+     * Loads the artifact from the cache of the plugin, or else from the local repositories, without using maven.
+     */
+    private JarResourceIndex loadLocalArtifact(String groupId, String artifactId, String version) {
+        Path jar = cache != null ? cache.get(groupId, artifactId, version) : null;
+        if (jar == null) {
+            jar = localResolver.resolve(groupId, artifactId, version);
+        }
+        return jar != null ? openIndex(jar) : null;
+    }
+
+    /**
+     * Adds the jar of the artifact which Grape has added to the classloader to the cache of the plugin, and indexes it.
+     *
+     * @return the index, or <tt>null</tt> if the jar was not found, in which case the resources are looked up through the classloader
+     */
+    private JarResourceIndex indexGrabbedArtifact(String groupId, String artifactId, String version) {
+        String fileName = "/" + artifactId + "-" + version + ".jar";
+        for (URL url : classLoader.getURLs()) {
+            if ("file".equals(url.getProtocol()) && url.getPath().endsWith(fileName)) {
+                try {
+                    Path jar = Paths.get(url.toURI());
+                    if (cache != null) {
+                        try {
+                            Path grabbed = jar;
+                            jar = cache.put(groupId, artifactId, version, grabbed);
+                            deleteGrabbedArtifact(grabbed, artifactId, version);
+                        } catch (IOException e) {
+                            // use the jar downloaded by Grape instead
+                        }
+                    }
+                    return openIndex(jar);
+                } catch (URISyntaxException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the jar which Grape downloaded to the grape cache, and its ivy files, once it is in the cache of the plugin
+     * so the catalog is not stored twice. The grape cache is one of the local repositories, so a jar which was already
+     * there is loaded from it instead of being grabbed.
+     *
+     * @param jar the grabbed jar, which is only deleted if it is in the grape layout <tt>group/artifact/jars/artifact-version.jar</tt>
+     */
+    static void deleteGrabbedArtifact(Path jar, String artifactId, String version) {
+        Path jars = jar.getParent();
+        Path module = jars != null ? jars.getParent() : null;
+        if (module == null || !"jars".equals(jars.getFileName().toString()) || !artifactId.equals(module.getFileName().toString())) {
+            return;
+        }
+        for (Path file : new Path[]{jar, module.resolve("ivy-" + version + ".xml"), module.resolve("ivy-" + version + ".xml.original"),
+            module.resolve("ivydata-" + version + ".properties")}) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static JarResourceIndex openIndex(Path jar) {
+        try {
+            return JarResourceIndex.open(jar);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Marks the version manager as used by another catalog state, which must {@link #release()} it when replaced.
+     */
+    synchronized void retain() {
+        references++;
+    }
+
+    /**
+     * Releases the version manager from a catalog state, and closes the jar files when no longer used by any state.
+     */
+    synchronized void release() {
+        if (references > 0 && --references == 0) {
+            close();
+        }
+    }
+
+    /**
+     * Closes the jar files of the loaded versions, after which no resources are found.
+     */
+    void close() {
+        closed = true;
+        JarResourceIndex index = versionIndex;
+        JarResourceIndex runtimeIndex = runtimeProviderIndex;
+        versionIndex = null;
+        runtimeProviderIndex = null;
+        closeQuietly(index);
+        closeQuietly(runtimeIndex);
+    }
+
+    private static void closeQuietly(JarResourceIndex index) {
+        if (index != null) {
+            try {
+                index.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
     @Override
     public InputStream getResourceAsStream(String name) {
+        // the fields are read once as the version manager may be closed by another thread
+        if (closed) {
+            return null;
+        }
         InputStream is = null;
 
-        if (runtimeProviderVersion != null) {
-            is = doGetResourceAsStream(name, runtimeProviderVersion);
+        String runtimeVersion = runtimeProviderVersion;
+        if (runtimeVersion != null) {
+            JarResourceIndex index = runtimeProviderIndex;
+            is = index != null ? index.getResourceAsStream(name) : doGetResourceAsStream(name, runtimeVersion);
         }
-        if (is == null && version != null) {
-            is = doGetResourceAsStream(name, version);
+        String catalogVersion = version;
+        if (is == null && catalogVersion != null) {
+            JarResourceIndex index = versionIndex;
+            is = index != null ? index.getResourceAsStream(name) : doGetResourceAsStream(name, catalogVersion);
         }
 
         return is;
@@ -0,0 +1,315 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import org.apache.camel.idea.service.CatalogState.ThirdPartyComponent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Service which provides the {@link CamelCatalogService} to use for a given module.
+ * <p/>
+ * The modules use the catalog of the project, unless they depend on another version of camel-core, in which case
+ * they use a catalog of that version. Only a few of these versions are kept loaded at the same time, and the least
+ * recently used version is discarded when another version is loaded. The catalogs are loaded as background tasks,
+ * and the modules use the catalog of the project until their catalog has been loaded.
+ */
+public class CamelModuleCatalogService implements Disposable {
+
+    /**
+     * Maximum number of catalog versions, besides the catalog of the project, which are kept loaded at the same time.
+     */
+    static final int MAX_LOADED_VERSIONS = 3;
+
+    private static final Logger LOG = Logger.getInstance(CamelModuleCatalogService.class);
+
+    private final Project project;
+    // the camel-core version and the third party maven repositories of each module by the module name
+    private final Map<String, String> moduleVersions = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> moduleRepositories = new ConcurrentHashMap<>();
+    // the versions which could not be loaded, so the modules use the catalog of the project instead
+    private final Set<String> failedVersions = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    // the versions being loaded in the background
+    private final Set<String> loadingVersions = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    // the loaded catalogs in access order, guarded by this
+    private final Map<String, CamelCatalogService> catalogs = new LinkedHashMap<String, CamelCatalogService>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CamelCatalogService> eldest) {
+            if (size() > MAX_LOADED_VERSIONS) {
+                LOG.info("Discarding camel-catalog version " + eldest.getKey() + " which is the least recently used version");
+                discard(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public CamelModuleCatalogService(Project project) {
+        this.project = project;
+    }
+
+    /**
+     * Sets the version of camel-core the module depends on.
+     *
+     * @param module  the module
+     * @param version the camel-core version
+     * @param repos   any third party maven repositories to use if the catalog of the version must be downloaded
+     */
+    public void setModuleVersion(@NotNull Module module, @NotNull String version, @NotNull Map<String, String> repos) {
+        moduleVersions.put(module.getName(), version);
+        moduleRepositories.put(module.getName(), repos);
+    }
+
+    /**
+     * Gets the version of camel-core the module depends on.
+     *
+     * @return the version, or <tt>null</tt> if the module does not depend on a known version of camel-core
+     */
+    @Nullable
+    public String getModuleVersion(@NotNull Module module) {
+        return moduleVersions.get(module.getName());
+    }
+
+    /**
+     * Forgets the versions of the modules, such as when the dependencies of the project are scanned again.
+     * <p/>
+     * The loaded catalogs are kept, so the modules do not load their catalog again if their version is unchanged.
+     */
+    public void clearModuleVersions() {
+        moduleVersions.clear();
+        moduleRepositories.clear();
+        failedVersions.clear();
+    }
+
+    /**
+     * Gets the catalog service to use for the module of the given element.
+     *
+     * @param element the element, or <tt>null</tt> to use the catalog of the project
+     */
+    @NotNull
+    public CamelCatalogService getCatalogService(@Nullable PsiElement element) {
+        Module module = element != null ? ModuleUtilCore.findModuleForPsiElement(element) : null;
+        return getCatalogService(module);
+    }
+
+    /**
+     * Gets the catalog service to use for the given module.
+     * <p/>
+     * The catalog of the project is used until the catalog of the version of camel-core the module depends on
+     * has been loaded in the background, or if the catalog of the project is being switched to that version.
+     *
+     * @param module the module, or <tt>null</tt> to use the catalog of the project
+     */
+    @NotNull
+    public CamelCatalogService getCatalogService(@Nullable Module module) {
+        CamelCatalogService projectCatalogService = getCamelCatalogService();
+        String version = module != null ? moduleVersions.get(module.getName()) : null;
+        if (version == null || isProjectVersion(version) || failedVersions.contains(version)) {
+            return projectCatalogService;
+        }
+
+        CamelCatalogService answer;
+        synchronized (this) {
+            answer = catalogs.get(version);
+        }
+        if (answer == null) {
+            // such as when the version was discarded as the least recently used version
+            loadCatalog(module);
+            answer = projectCatalogService;
+        }
+        return answer;
+    }
+
+    /**
+     * Whether the version is the version of the catalog of the project, or the version being downloaded for the project,
+     * in which case the modules of the version use the catalog of the project instead of loading a catalog of their own.
+     */
+    private boolean isProjectVersion(@NotNull String version) {
+        return version.equalsIgnoreCase(getCamelCatalogService().getState().getVersion())
+            || version.equalsIgnoreCase(ServiceManager.getService(project, CamelService.class).getDownloadingCamelCatalogVersion());
+    }
+
+    /**
+     * Discards a catalog which is no longer loaded.
+     * <p/>
+     * The readers such as the annotators may still be using the catalog in read actions, so the catalog is disposed
+     * in a write action, which runs when these read actions have finished. Disposing the catalog releases its state,
+     * which closes the jars of the version when no longer used by any state.
+     */
+    private void discard(CamelCatalogService catalogService) {
+        Application application = ApplicationManager.getApplication();
+        application.invokeLater(() -> application.runWriteAction(catalogService::dispose));
+    }
+
+    /**
+     * Loads the catalog of the version of camel-core the module depends on as a background task, if not already loaded.
+     * <p/>
+     * This can be called from any thread, such as from a reader which needs the catalog, as the task is queued
+     * from the event dispatch thread.
+     */
+    public void loadCatalog(@NotNull Module module) {
+        String version = moduleVersions.get(module.getName());
+        if (version == null || failedVersions.contains(version) || isProjectVersion(version) || !loadingVersions.add(version)) {
+            return;
+        }
+        Map<String, String> repos = moduleRepositories.getOrDefault(module.getName(), Collections.emptyMap());
+
+        Task.Backgroundable task = new Task.Backgroundable(project, "Downloading camel-catalog version " + version, true) {
+            private boolean loaded;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                loaded = loadVersion(version, repos, indicator);
+            }
+
+            @Override
+            public void onSuccess() {
+                if (loaded) {
+                    // validate the Camel files of the module with the new catalog
+                    ServiceManager.getService(project, CamelService.class).restartCamelHighlighting(project);
+                }
+            }
+
+            @Override
+            public void onFinished() {
+                loadingVersions.remove(version);
+            }
+        };
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if (project.isDisposed()) {
+                loadingVersions.remove(version);
+            } else {
+                task.queue();
+            }
+        });
+    }
+
+    private boolean loadVersion(String version, Map<String, String> repos, ProgressIndicator indicator) {
+        synchronized (this) {
+            if (catalogs.containsKey(version)) {
+                return false;
+            }
+        }
+        CamelCatalogService projectCatalogService = getCamelCatalogService();
+        if (!getCamelPreferenceService().isDownloadCatalog()) {
+            failedVersions.add(version);
+            return false;
+        }
+
+        CamelCatalogService answer = new CamelCatalogService();
+        if (!answer.loadVersion(version, repos)) {
+            LOG.warn("Cannot download camel-catalog with version " + version + ". Will fallback and use version " + projectCatalogService.getState().getVersion());
+            answer.dispose();
+            failedVersions.add(version);
+            return false;
+        }
+        if (indicator.isCanceled()) {
+            answer.dispose();
+            return false;
+        }
+
+        LOG.info("Loaded camel-catalog version " + version + " for the modules depending on camel-core " + version);
+        synchronized (this) {
+            // the components are added to the project and the loaded catalogs under the same lock, so a component
+            // added while the version was loading, such as by a third party scan, is either copied or added to the catalog
+            projectCatalogService.copyComponentsTo(answer);
+            catalogs.put(version, answer);
+        }
+        return true;
+    }
+
+    /**
+     * Adds a third party component to the catalog of the project and to the loaded catalogs of the modules.
+     *
+     * @param scheme   the component scheme
+     * @param javaType the component class name
+     * @param json     the component JSon schema
+     */
+    public void addComponent(@NotNull String scheme, @NotNull String javaType, @NotNull String json) {
+        synchronized (this) {
+            getCamelCatalogService().addComponent(scheme, javaType, json);
+            catalogs.values().forEach(catalogService -> catalogService.addComponent(scheme, javaType, json));
+        }
+    }
+
+    /**
+     * Adds third party components to the catalog of the project and to the loaded catalogs of the modules,
+     * which is faster than adding the components one at a time as each catalog is only updated once.
+     *
+     * @param components the components by their scheme
+     */
+    void addComponents(@NotNull Map<String, ThirdPartyComponent> components) {
+        synchronized (this) {
+            getCamelCatalogService().addComponents(components);
+            catalogs.values().forEach(catalogService -> catalogService.addComponents(components));
+        }
+    }
+
+    /**
+     * Removes third party components from the catalog of the project and from the loaded catalogs of the modules.
+     *
+     * @param schemes the component schemes
+     */
+    public void removeComponents(@NotNull Collection<String> schemes) {
+        synchronized (this) {
+            getCamelCatalogService().removeComponents(schemes);
+            catalogs.values().forEach(catalogService -> catalogService.removeComponents(schemes));
+        }
+    }
+
+    /**
+     * @return the versions of the loaded catalogs of the modules, in order from the least to the most recently used
+     */
+    @NotNull
+    public synchronized Set<String> getLoadedVersions() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(catalogs.keySet()));
+    }
+
+    @Override
+    public synchronized void dispose() {
+        catalogs.values().forEach(CamelCatalogService::dispose);
+        catalogs.clear();
+        clearModuleVersions();
+    }
+
+    private CamelCatalogService getCamelCatalogService() {
+        return ServiceManager.getService(project, CamelCatalogService.class);
+    }
+
+    private static CamelPreferenceService getCamelPreferenceService() {
+        return ServiceManager.getService(CamelPreferenceService.class);
+    }
+}
@@ -67,6 +67,7 @@ public final class CamelPreferenceService implements PersistentStateComponent<Ca
     private boolean realTimeSimpleValidation = true;
     private boolean highlightCustomOptions = true;
     private boolean downloadCatalog = true;
+    private boolean offlineCatalog;
     private boolean scanThirdPartyComponents = true;
     private boolean scanThirdPartyLegacyComponents = true;
     private boolean showCamelIconInGutter = true;
@@ -110,6 +111,14 @@ public final class CamelPreferenceService implements PersistentStateComponent<Ca
         this.downloadCatalog = downloadCatalog;
     }
 
+    public boolean isOfflineCatalog() {
+        return offlineCatalog;
+    }
+
+    public void setOfflineCatalog(boolean offlineCatalog) {
+        this.offlineCatalog = offlineCatalog;
+    }
+
     public boolean isScanThirdPartyComponents() {
         return scanThirdPartyComponents;
     }
@@ -243,6 +252,7 @@ public final class CamelPreferenceService implements PersistentStateComponent<Ca
         return realTimeEndpointValidation == that.realTimeEndpointValidation
             && realTimeSimpleValidation == that.realTimeSimpleValidation
             && downloadCatalog == that.downloadCatalog
+            && offlineCatalog == that.offlineCatalog
             && scanThirdPartyComponents == that.scanThirdPartyComponents
             && scanThirdPartyLegacyComponents == that.scanThirdPartyLegacyComponents
             && showCamelIconInGutter == that.showCamelIconInGutter
@@ -258,7 +268,7 @@ public final class CamelPreferenceService implements PersistentStateComponent<Ca
     public int hashCode() {
         return Objects.hash(currentCustomIcon, currentCustomIconPath,
             realTimeEndpointValidation, realTimeSimpleValidation,
-            downloadCatalog, scanThirdPartyComponents,
+            downloadCatalog, offlineCatalog, scanThirdPartyComponents,
             scanThirdPartyLegacyComponents, showCamelIconInGutter,
             chosenCamelIcon, customIconFilePath, ignorePropertyList, excludePropertyFiles);
     }
@@ -16,47 +16,60 @@
  */
 package org.apache.camel.idea.service;
 
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.io.InputStream;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.net.URLClassLoader;
-import java.net.URLDecoder;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 import java.util.Set;
-import java.util.jar.JarEntry;
-import java.util.jar.JarInputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import javax.swing.Icon;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
 import com.intellij.notification.Notification;
 import com.intellij.notification.NotificationGroup;
 import com.intellij.notification.NotificationType;
 import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.Application;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.LibraryOrderEntry;
 import com.intellij.openapi.roots.ModuleRootManager;
 import com.intellij.openapi.roots.OrderEntry;
 import com.intellij.openapi.roots.libraries.Library;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.EmptyRunnable;
+import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.SimpleValidationResult;
+import org.apache.camel.idea.service.CatalogState.ThirdPartyComponent;
 import org.apache.camel.idea.util.IdeaUtils;
 import org.jetbrains.annotations.NotNull;
-import static org.apache.camel.catalog.CatalogHelper.loadText;
+import org.jetbrains.annotations.Nullable;
 import static org.apache.camel.idea.service.XmlUtils.getChildNodeByTagName;
 import static org.apache.camel.idea.service.XmlUtils.loadDocument;
 
@@ -74,12 +87,25 @@ public class CamelService implements Disposable {
     private static final int MIN_MAJOR_VERSION = 2;
     private static final int MIN_MINOR_VERSION = 16;
 
-    private Library camelCoreLibrary;
-    private Library slf4japiLibrary;
-    private ClassLoader camelCoreClassloader;
-    private Set<String> processedLibraries = new HashSet<>();
+    // the pool which scans the third party jars, which is shared by the scans of all the projects
+    private static final ExecutorService SCANNER_EXECUTOR = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+        "Camel third party component scanner", Runtime.getRuntime().availableProcessors());
+
+    private volatile Library camelCoreLibrary;
+    private volatile Library slf4japiLibrary;
+    private volatile ClassLoader camelCoreClassloader;
+    private final SimpleValidationCache simpleValidationCache = new SimpleValidationCache(() -> camelCoreClassloader);
+    private final Set<String> processedLibraries = ConcurrentHashMap.newKeySet();
+    // only one scan runs at a time, so a cancelled scan cannot clear the snapshot of the scan that replaced it
+    private final Object scanLock = new Object();
+    // the libraries of each module from the last scan, and the third party components found in each library
+    private final LibrarySnapshot librarySnapshot = new LibrarySnapshot();
+    private final Map<String, Set<String>> libraryComponents = new ConcurrentHashMap<>();
+    // the third party jars scanned by this or a previous session of the project
+    private volatile ThirdPartyScanCache scanCache;
     private volatile boolean camelPresent;
     private Notification camelVersionNotification;
+    private volatile String downloadingCamelCatalogVersion;
     private Notification camelMissingJSonSchemaNotification;
 
     public IdeaUtils getIdeaUtils() {
@@ -89,6 +115,12 @@ public class CamelService implements Disposable {
     @Override
     public void dispose() {
         processedLibraries.clear();
+        librarySnapshot.clear();
+        libraryComponents.clear();
+        if (scanCache != null) {
+            scanCache.save();
+            scanCache = null;
+        }
 
         if (camelVersionNotification != null) {
             camelVersionNotification.expire();
@@ -102,6 +134,7 @@ public class CamelService implements Disposable {
         camelCoreClassloader = null;
         camelCoreLibrary = null;
         slf4japiLibrary = null;
+        simpleValidationCache.clear();
     }
 
     /**
@@ -137,6 +170,7 @@ public class CamelService implements Disposable {
      */
     public void clearLibraries() {
         processedLibraries.clear();
+        librarySnapshot.clear();
     }
 
     /**
@@ -153,6 +187,8 @@ public class CamelService implements Disposable {
         if (camelCoreClassloader == null) {
             try {
                 camelCoreClassloader = getIdeaUtils().newURLClassLoaderForLibrary(camelCoreLibrary, slf4japiLibrary);
+                // the results of the previous classloader are no longer used
+                simpleValidationCache.clear();
             } catch (Throwable e) {
                 LOG.warn("Error creating URLClassLoader for loading classes from camel-core", e);
             }
@@ -161,24 +197,226 @@ public class CamelService implements Disposable {
     }
 
     /**
-     * Scan for Camel project present and setup {@link CamelCatalog} to use same version of Camel as the project does.
-     * These two version needs to be aligned to offer the best tooling support on the given project.
+     * Validates the simple expression or predicate with the camel-core on the project classpath, using the cached result
+     * if the text has already been validated.
+     *
+     * @param catalog   the catalog to validate with
+     * @param text      the simple expression or predicate
+     * @param predicate whether the text is used as a predicate
+     * @return the validation result which must not be changed, or <tt>null</tt> if camel-core cannot be loaded
      */
-    public void scanForCamelProject(@NotNull Project project, @NotNull Module module) {
-        for (OrderEntry entry : ModuleRootManager.getInstance(module).getOrderEntries()) {
-            if (!(entry instanceof LibraryOrderEntry)) {
-                continue;
+    @Nullable
+    public SimpleValidationResult validateSimple(@NotNull CamelCatalog catalog, @NotNull String text, boolean predicate) {
+        // need to use the classloader that can load classes from the camel-core
+        ClassLoader loader = getCamelCoreClassloader();
+        return loader != null ? simpleValidationCache.validate(catalog, loader, text, predicate) : null;
+    }
+
+    /**
+     * Gets the cache of the simple validation results, which can be used for statistics such as the hit rate.
+     */
+    @NotNull
+    public SimpleValidationCache getSimpleValidationCache() {
+        return simpleValidationCache;
+    }
+
+    /**
+     * Scans the modules of the project whose libraries have changed since the last scan, such as when a dependency is added
+     * to the maven pom.xml file, and removes the third party components of the libraries the project no longer depends on.
+     * <p/>
+     * The libraries of each module are compared with a snapshot of the libraries from the last scan, so nothing is scanned
+     * if the libraries are unchanged, and only the new libraries of the changed modules are scanned for Camel components.
+     * <p/>
+     * This can be called from a background task, as only the libraries of the modules are read in read actions, which give way
+     * to write actions such as typing. The jars are scanned and the components are added to the catalogs after the read actions,
+     * so the editor is not blocked by the scan. The scan can be cancelled with the progress indicator of the task, in which case
+     * the next scan scans all the modules again. Scans are run one at a time, so a new scan waits for a cancelled scan to finish.
+     */
+    public void scanForChangedLibraries(@NotNull Project project) {
+        synchronized (scanLock) {
+            doScanForChangedLibraries(project);
+        }
+    }
+
+    private void doScanForChangedLibraries(@NotNull Project project) {
+        Map<Module, List<ModuleLibrary>> libraries = readModuleLibraries(project);
+        if (libraries == null) {
+            return;
+        }
+        Map<String, Set<String>> names = new LinkedHashMap<>();
+        libraries.forEach((module, moduleLibraries) -> names.put(module.getName(), getLibraryNames(moduleLibraries)));
+        LibrarySnapshot.Diff diff = librarySnapshot.update(names);
+        if (diff.isEmpty()) {
+            return;
+        }
+
+        boolean camelCoreChanged = diff.getAddedLibraries().stream().anyMatch(CamelService::isCamelCoreLibrary)
+            || diff.getRemovedLibraries().stream().anyMatch(CamelService::isCamelCoreLibrary);
+
+        // forget the removed libraries so they are scanned again if added back, and remove their components
+        Set<String> removedComponents = new LinkedHashSet<>();
+        for (String name : diff.getRemovedLibraries()) {
+            String[] ids = getGroupAndArtifactId(name);
+            if (ids != null) {
+                processedLibraries.remove(ids[1]);
             }
-            LibraryOrderEntry libraryOrderEntry = (LibraryOrderEntry) entry;
+            Set<String> schemes = libraryComponents.remove(name);
+            if (schemes != null) {
+                removedComponents.addAll(schemes);
+            }
+        }
+        if (!removedComponents.isEmpty()) {
+            LOG.info("Removing third party Camel components " + removedComponents + " as their libraries were removed");
+            getCamelModuleCatalogService(project).removeComponents(removedComponents);
+        }
 
-            String name = libraryOrderEntry.getPresentableName().toLowerCase();
-            if (!libraryOrderEntry.getScope().isForProductionCompile() && !libraryOrderEntry.getScope().isForProductionRuntime()) {
-                continue;
+        boolean componentsChanged = !removedComponents.isEmpty();
+        try {
+            boolean camelPresentBefore = isCamelPresent();
+            if (camelCoreChanged) {
+                // the camel-core version may have changed, so find the versions of all the modules again, which does not scan any jars
+                setCamelPresent(false);
+                camelCoreLibrary = null;
+                camelCoreClassloader = null;
+                simpleValidationCache.clear();
+                getCamelModuleCatalogService(project).clearModuleVersions();
             }
-            final Library library = libraryOrderEntry.getLibrary();
-            if (library == null) {
-                continue;
+            for (Map.Entry<Module, List<ModuleLibrary>> entry : getModules(libraries, camelCoreChanged ? null : diff.getChangedModules())) {
+                scanForCamelProject(project, entry.getKey(), entry.getValue());
             }
+
+            // if its a Camel project then scan for additional Camel components, which is all the modules if Camel was just found,
+            // and the libraries of the modules are scanned together so all their jars are scanned in parallel
+            if (isCamelPresent()) {
+                List<ModuleLibrary> moduleLibraries = getModules(libraries, camelPresentBefore ? diff.getChangedModules() : null).stream()
+                    .flatMap(entry -> entry.getValue().stream())
+                    .collect(Collectors.toList());
+                componentsChanged |= scanForCamelDependencies(project, moduleLibraries);
+            }
+        } catch (ProcessCanceledException e) {
+            // the changed modules were not all scanned, so they must be compared with an empty snapshot on the next scan
+            librarySnapshot.clear();
+            throw e;
+        }
+
+        if (componentsChanged) {
+            // save the parsed catalog with the third party components so they are faster to load on next project open
+            getCamelCatalogService(project).saveSnapshot();
+        }
+        if (scanCache != null) {
+            // and the scanned jars so they are not scanned again, which is only saved if any jars were scanned
+            scanCache.save();
+        }
+    }
+
+    /**
+     * Reads the production libraries of the modules of the project, and the paths of their jars, each module in its own read action.
+     * <p/>
+     * Nothing else is done in the read actions, so the libraries can be scanned without holding the read lock.
+     *
+     * @return the libraries of each module, or <tt>null</tt> if the project is disposed
+     */
+    @Nullable
+    private Map<Module, List<ModuleLibrary>> readModuleLibraries(@NotNull Project project) {
+        Module[] modules = runReadActionWithWriteActionPriority(() -> project.isDisposed() ? null : ModuleManager.getInstance(project).getModules());
+        if (modules == null) {
+            return null;
+        }
+        Map<Module, List<ModuleLibrary>> answer = new LinkedHashMap<>();
+        for (Module module : modules) {
+            ProgressManager.checkCanceled();
+            List<ModuleLibrary> libraries = runReadActionWithWriteActionPriority(() -> module.isDisposed() ? null : getModuleLibraries(module));
+            if (libraries != null) {
+                answer.put(module, libraries);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Runs the computation in a read action which is cancelled by write actions, and run again when the write action has finished,
+     * so reading the modules does not delay typing or a refresh of the file system.
+     */
+    private static <T> T runReadActionWithWriteActionPriority(@NotNull Computable<T> computable) {
+        Application application = ApplicationManager.getApplication();
+        if (application.isDispatchThread() || application.isReadAccessAllowed()) {
+            // such as in the tests, where write actions cannot happen while reading
+            return application.runReadAction(computable);
+        }
+        Ref<T> answer = Ref.create();
+        while (!ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(() -> answer.set(computable.compute()))) {
+            ProgressManager.checkCanceled();
+            // wait for the write action which cancelled the read action to finish
+            application.runReadAction(EmptyRunnable.getInstance());
+        }
+        return answer.get();
+    }
+
+    private List<ModuleLibrary> getModuleLibraries(@NotNull Module module) {
+        List<ModuleLibrary> answer = new ArrayList<>();
+        for (OrderEntry entry : ModuleRootManager.getInstance(module).getOrderEntries()) {
+            ProgressManager.checkCanceled();
+            if (entry instanceof LibraryOrderEntry) {
+                LibraryOrderEntry libraryOrderEntry = (LibraryOrderEntry) entry;
+                Library library = libraryOrderEntry.getLibrary();
+                if ((libraryOrderEntry.getScope().isForProductionCompile() || libraryOrderEntry.getScope().isForProductionRuntime()) && library != null) {
+                    String jar = getIdeaUtils().getJarPathForLibrary(library);
+                    answer.add(new ModuleLibrary(libraryOrderEntry.getPresentableName().toLowerCase(), library, jar != null ? Paths.get(jar) : null));
+                }
+            }
+        }
+        return answer;
+    }
+
+    private static Set<String> getLibraryNames(@NotNull List<ModuleLibrary> libraries) {
+        return libraries.stream().map(ModuleLibrary::getName).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    /**
+     * Gets the given modules which are not disposed.
+     *
+     * @param names the names of the modules, or <tt>null</tt> to get all the modules
+     */
+    private static List<Map.Entry<Module, List<ModuleLibrary>>> getModules(@NotNull Map<Module, List<ModuleLibrary>> libraries, @Nullable Set<String> names) {
+        ProgressManager.checkCanceled();
+        return libraries.entrySet().stream()
+            .filter(entry -> !entry.getKey().isDisposed() && (names == null || names.contains(entry.getKey().getName())))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the group and artifact id from the library name, such as <tt>maven: org.apache.camel:camel-core:2.20.1</tt>.
+     *
+     * @return the group and artifact id, or <tt>null</tt> if the name has no maven coordinates
+     */
+    @Nullable
+    private static String[] getGroupAndArtifactId(@NotNull String name) {
+        String[] split = name.split(":");
+        if (split.length < 3) {
+            return null;
+        }
+        int startIdx = 0;
+        if (split[0].equalsIgnoreCase("maven")
+                || split[0].equalsIgnoreCase("gradle")
+                || split[0].equalsIgnoreCase("sbt")) {
+            startIdx = 1;
+        }
+        return new String[]{split[startIdx].trim(), split[startIdx + 1].trim()};
+    }
+
+    private static boolean isCamelCoreLibrary(@NotNull String name) {
+        String[] ids = getGroupAndArtifactId(name);
+        return ids != null && isCamelMavenDependency(ids[0], ids[1]);
+    }
+
+    /**
+     * Scan for Camel project present and setup {@link CamelCatalog} to use same version of Camel as the project does.
+     * These two version needs to be aligned to offer the best tooling support on the given project.
+     */
+    private void scanForCamelProject(@NotNull Project project, @NotNull Module module, @NotNull List<ModuleLibrary> libraries) {
+        for (ModuleLibrary moduleLibrary : libraries) {
+            String name = moduleLibrary.getName();
+            final Library library = moduleLibrary.getLibrary();
             String[] split = name.split(":");
             if (split.length < 3) {
                 continue;
@@ -203,36 +441,44 @@ public class CamelService implements Disposable {
             if (isSlf4jMavenDependency(groupId, artifactId)) {
                 slf4japiLibrary = library;
             } else if (isCamelMavenDependency(groupId, artifactId)) {
-                camelCoreLibrary = library;
+                if (camelCoreLibrary != library) {
+                    // the classloader is rebuilt for the new camel-core when needed
+                    camelCoreLibrary = library;
+                    camelCoreClassloader = null;
+                    simpleValidationCache.clear();
+                }
+
+                // the first module with camel-core decides the version of the catalog of the project
+                boolean firstCamelModule = !isCamelPresent();
 
                 // okay its a camel project
                 setCamelPresent(true);
 
-                String currentVersion = getCamelCatalogService(project).get().getLoadedVersion();
-                if (currentVersion == null) {
-                    // okay no special version was loaded so its the catalog version we are using
-                    currentVersion = getCamelCatalogService(project).get().getCatalogVersion();
+                // the loaded version, or else the catalog version we are using
+                String currentVersion = getCamelCatalogService(project).getState().getVersion();
+                // the version being downloaded for the project, which the project catalog switches to when downloaded
+                String projectVersion = getDownloadingCamelCatalogVersion() != null ? getDownloadingCamelCatalogVersion() : currentVersion;
+
+                if (version != null && acceptedVersion(version)) {
+                    // remember the version so the module can use a catalog of the same version
+                    getCamelModuleCatalogService(project).setModuleVersion(module, version, scanThirdPartyMavenRepositories(module));
+                    if (!firstCamelModule && isThereDifferentVersionToBeLoaded(version, projectVersion)) {
+                        // load the catalog for the module, instead of switching the catalog of the project
+                        getCamelModuleCatalogService(project).loadCatalog(module);
+                        continue;
+                    }
                 }
-                if (isThereDifferentVersionToBeLoaded(version, currentVersion)) {
-                    boolean notifyNewCamelCatalogVersionLoaded = false;
 
+                if (isThereDifferentVersionToBeLoaded(version, projectVersion)) {
                     boolean downloadAllowed = getCamelPreferenceService().isDownloadCatalog();
                     if (downloadAllowed) {
-                        notifyNewCamelCatalogVersionLoaded = downloadNewCamelCatalogVersion(project, module, version, notifyNewCamelCatalogVersionLoaded);
-                    }
-
-                    if (notifyNewCamelCatalogVersionLoaded(notifyNewCamelCatalogVersionLoaded)) {
-                        expireOldCamelCatalogVersion();
+                        // the current catalog is used until the new version has been downloaded
+                        downloadNewCamelCatalogVersion(project, module, version);
                     }
                 }
 
-                // only notify this once on startup (or if a new version was successfully loaded)
+                // only notify this once on startup (or when a new version has been downloaded)
                 if (camelVersionNotification == null) {
-                    currentVersion = getCamelCatalogService(project).get().getLoadedVersion();
-                    if (currentVersion == null) {
-                        // okay no special version was loaded so its the catalog version we are using
-                        currentVersion = getCamelCatalogService(project).get().getCatalogVersion();
-                    }
                     showCamelCatalogVersionAtPluginStart(project, currentVersion);
                 }
             }
@@ -249,38 +495,108 @@ public class CamelService implements Disposable {
         return "org.slf4j".equals(groupId) && "slf4j-api".equals(artifactId);
     }
 
-    private boolean isCamelMavenDependency(String groupId, String artifactId) {
+    private static boolean isCamelMavenDependency(String groupId, String artifactId) {
         return "org.apache.camel".equals(groupId) && "camel-core".equals(artifactId);
     }
 
     private void expireOldCamelCatalogVersion() {
-        camelVersionNotification.expire();
-        camelVersionNotification = null;
+        if (camelVersionNotification != null) {
+            camelVersionNotification.expire();
+            camelVersionNotification = null;
+        }
     }
 
-    private boolean notifyNewCamelCatalogVersionLoaded(boolean notifyLoaded) {
-        return notifyLoaded && camelVersionNotification != null;
+    /**
+     * Gets the camel-catalog version being downloaded for the project, which the catalog of the project switches to
+     * when downloaded, so the modules of that version do not load a catalog of their own.
+     *
+     * @return the version, or <tt>null</tt> if no version is being downloaded
+     */
+    @Nullable
+    public String getDownloadingCamelCatalogVersion() {
+        return downloadingCamelCatalogVersion;
     }
 
     /**
      * attempt to load new version of camel-catalog to match the version from the project
-     * use catalog service to load version (which takes care of switching catalog as well)
+     * <p/>
+     * The version is downloaded as a background task, while the current catalog keeps being used, and the catalog service
+     * switches to the new catalog when it has been downloaded.
      */
-    private boolean downloadNewCamelCatalogVersion(@NotNull Project project, @NotNull Module module, String version, boolean notifyLoaded) {
+    private void downloadNewCamelCatalogVersion(@NotNull Project project, @NotNull Module module, String version) {
+        if (version.equals(downloadingCamelCatalogVersion)) {
+            // already being downloaded
+            return;
+        }
+        downloadingCamelCatalogVersion = version;
+
         // find out the third party maven repositories
         Map<String, String> repos = scanThirdPartyMavenRepositories(module);
 
-        boolean loaded = getCamelCatalogService(project).loadVersion(version, repos);
-        if (!loaded) {
-            // always notify if download was not possible
-            camelVersionNotification = CAMEL_NOTIFICATION_GROUP.createNotification("Camel IDEA plugin cannot download camel-catalog with version " + version
-                    + ". Will fallback and use version " + getCamelCatalogService(project).get().getCatalogVersion(), NotificationType.WARNING);
-            camelVersionNotification.notify(project);
-        } else {
-            // new version loaded so notify
-            notifyLoaded = true;
+        new Task.Backgroundable(project, "Downloading camel-catalog version " + version, true) {
+            private boolean loaded;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                CamelMavenVersionManager versionManager = getCamelCatalogService(project).downloadVersion(version, repos);
+                // do not switch to the new catalog if the download was cancelled
+                if (indicator.isCanceled()) {
+                    if (versionManager != null) {
+                        versionManager.close();
+                    }
+                    return;
+                }
+                if (versionManager != null) {
+                    getCamelCatalogService(project).switchCatalog(versionManager);
+                    loaded = true;
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                expireOldCamelCatalogVersion();
+                if (!loaded) {
+                    // always notify if download was not possible
+                    camelVersionNotification = CAMEL_NOTIFICATION_GROUP.createNotification("Camel IDEA plugin cannot download camel-catalog with version " + version
+                            + ". Will fallback and use version " + getCamelCatalogService(project).get().getCatalogVersion(), NotificationType.WARNING);
+                    camelVersionNotification.notify(project);
+                } else {
+                    // new version loaded so notify and validate the Camel files with the new catalog
+                    showCamelCatalogVersionAtPluginStart(project, version);
+                    restartCamelHighlighting(project);
+                }
+            }
+
+            @Override
+            public void onFinished() {
+                downloadingCamelCatalogVersion = null;
+            }
+        }.queue();
+    }
+
+    /**
+     * Restarts the highlighting of the open files which use Camel, such as when another catalog is in use,
+     * so the endpoints are validated again without re-highlighting the other files.
+     */
+    public void restartCamelHighlighting(@NotNull Project project) {
+        if (project.isDisposed()) {
+            return;
+        }
+        PsiManager psiManager = PsiManager.getInstance(project);
+        DaemonCodeAnalyzer daemonCodeAnalyzer = DaemonCodeAnalyzer.getInstance(project);
+        for (VirtualFile file : FileEditorManager.getInstance(project).getOpenFiles()) {
+            PsiFile psiFile = file.isValid() ? psiManager.findFile(file) : null;
+            if (psiFile != null && isCamelFile(psiFile)) {
+                daemonCodeAnalyzer.restart(psiFile);
+            }
         }
-        return notifyLoaded;
+    }
+
+    private static boolean isCamelFile(PsiFile psiFile) {
+        // java and other route builders import from org.apache.camel, and xml routes use the camel.apache.org namespaces
+        String text = psiFile.getText();
+        return text.contains("org.apache.camel") || text.contains("camel.apache.org");
     }
 
     private boolean isThereDifferentVersionToBeLoaded(String version, String currentVersion) {
@@ -289,51 +605,54 @@ public class CamelService implements Disposable {
 
     /**
      * Scan for Camel component (both from Apache Camel and 3rd party components)
+     * <p/>
+     * The jars of the third party libraries of the modules are scanned in parallel, and the components found are added to the catalog at once.
+     *
+     * @param moduleLibraries the libraries of the modules to scan
+     * @return <tt>true</tt> if any third party components were added to the catalogs
      */
-    public void scanForCamelDependencies(@NotNull Project project, @NotNull Module module) {
+    private boolean scanForCamelDependencies(@NotNull Project project, @NotNull List<ModuleLibrary> moduleLibraries) {
         boolean thirdParty = getCamelPreferenceService().isScanThirdPartyComponents();
 
-        CamelCatalog camelCatalog = getCamelCatalogService(project).get();
+        CamelCatalogService camelCatalogService = getCamelCatalogService(project);
 
         List<String> missingJSonSchemas = new ArrayList<>();
+        // the third party libraries to scan, by their name
+        Map<String, ThirdPartyLibrary> thirdPartyLibraries = new LinkedHashMap<>();
 
-        for (OrderEntry entry : ModuleRootManager.getInstance(module).getOrderEntries()) {
-            if (entry instanceof LibraryOrderEntry) {
-                LibraryOrderEntry libraryOrderEntry = (LibraryOrderEntry) entry;
+        for (ModuleLibrary moduleLibrary : moduleLibraries) {
+            ProgressManager.checkCanceled();
 
-                String name = libraryOrderEntry.getPresentableName().toLowerCase();
-                if (libraryOrderEntry.getScope().isForProductionCompile() || libraryOrderEntry.getScope().isForProductionRuntime()) {
-                    final Library library = libraryOrderEntry.getLibrary();
-                    if (library == null) {
-                        continue;
-                    }
-                    String[] split = name.split(":");
-                    if (split.length < 3) {
-                        continue;
-                    }
-                    int startIdx = 0;
-                    if (split[0].equalsIgnoreCase("maven")
-                            || split[0].equalsIgnoreCase("gradle")
-                            || split[0].equalsIgnoreCase("sbt")) {
-                        startIdx = 1;
-                    }
-                    String groupId = split[startIdx++].trim();
-                    String artifactId = split[startIdx].trim();
+            String name = moduleLibrary.getName();
+            String[] ids = getGroupAndArtifactId(name);
+            if (ids == null) {
+                continue;
+            }
+            String groupId = ids[0];
+            String artifactId = ids[1];
 
-                    // is it a known library then continue
-                    if (containsLibrary(artifactId)) {
-                        continue;
-                    }
+            // is it a known library then continue
+            if (containsLibrary(artifactId)) {
+                continue;
+            }
 
-                    if ("org.apache.camel".equals(groupId)) {
-                        addLibrary(artifactId);
-                    } else if (thirdParty) {
-                        addCustomCamelComponentsFromDependency(camelCatalog, library, artifactId, missingJSonSchemas);
-                    }
-                }
+            if ("org.apache.camel".equals(groupId)) {
+                addLibrary(artifactId);
+            } else if (thirdParty && !thirdPartyLibraries.containsKey(name) && moduleLibrary.getJar() != null) {
+                thirdPartyLibraries.put(name, new ThirdPartyLibrary(name, artifactId, moduleLibrary.getJar()));
             }
         }
 
+        boolean added = false;
+        if (!thirdPartyLibraries.isEmpty()) {
+            List<ThirdPartyLibrary> libraries = new ArrayList<>(thirdPartyLibraries.values());
+            List<Path> jars = libraries.stream().map(ThirdPartyLibrary::getJar).collect(Collectors.toList());
+            ThirdPartyComponentScanner scanner = new ThirdPartyComponentScanner(getCamelPreferenceService().isScanThirdPartyLegacyComponents(), SCANNER_EXECUTOR,
+                getScanCache(project));
+            List<List<ThirdPartyComponentScanner.Component>> components = scanner.scan(jars, camelCatalogService::isKnownComponent, ProgressManager::checkCanceled);
+            added = addCustomCamelComponents(project, camelCatalogService, libraries, components, missingJSonSchemas);
+        }
+
         if (!missingJSonSchemas.isEmpty()) {
             String components = missingJSonSchemas.stream().collect(Collectors.joining(","));
             String message = "The following Camel components with artifactId [" + components
@@ -344,6 +663,7 @@ public class CamelService implements Disposable {
             camelMissingJSonSchemaNotification = CAMEL_NOTIFICATION_GROUP.createNotification(message, NotificationType.WARNING).setImportant(true).setIcon(icon);
             camelMissingJSonSchemaNotification.notify(project);
         }
+        return added;
     }
 
     /**
@@ -388,53 +708,62 @@ public class CamelService implements Disposable {
         return answer;
     }
 
+    private ThirdPartyScanCache getScanCache(Project project) {
+        ThirdPartyScanCache answer = scanCache;
+        if (answer == null) {
+            synchronized (this) {
+                answer = scanCache;
+                if (answer == null) {
+                    // the cache is per project as the projects may be scanned at the same time
+                    answer = new ThirdPartyScanCache(Paths.get(PathManager.getSystemPath(), "camel-idea-plugin", "scan", project.getLocationHash() + ".bin"));
+                    scanCache = answer;
+                }
+            }
+        }
+        return answer;
+    }
+
     /**
-     * Adds any discovered third party Camel components from the dependency.
+     * Adds the discovered third party Camel components from the dependencies to the catalogs at once.
      *
-     * @param camelCatalog the Camel catalog to add the found custom components
-     * @param library      the dependency
-     * @param artifactId   the artifact id of the dependency
+     * @param project             the project
+     * @param camelCatalogService the Camel catalog service to check whether the found custom components are already known
+     * @param libraries           the dependencies
+     * @param components          the components found in each of the dependencies
+     * @return <tt>true</tt> if any components were added
      */
-    private void addCustomCamelComponentsFromDependency(CamelCatalog camelCatalog, Library library, String artifactId, List<String> missingJSonSchemas) {
-        boolean legacyScan = getCamelPreferenceService().isScanThirdPartyLegacyComponents();
-        boolean added = false;
-
-        try (URLClassLoader classLoader = getIdeaUtils().newURLClassLoaderForLibrary(library)) {
-            if (classLoader != null) {
-                // is there any custom Camel components in this library?
-                Properties properties = loadComponentProperties(classLoader, legacyScan);
-                if (properties != null) {
-                    String components = (String) properties.get("components");
-                    if (components != null) {
-                        String[] part = components.split("\\s");
-                        for (String scheme : part) {
-                            if (!camelCatalog.findComponentNames().contains(scheme)) {
-                                // mark as added to avoid re-scanning the same component again
-                                added = true;
-                                // find the class name
-                                String javaType = extractComponentJavaType(classLoader, scheme);
-                                if (javaType != null) {
-                                    String json = loadComponentJSonSchema(classLoader, scheme);
-                                    if (json != null) {
-                                        // okay a new Camel component was added
-                                        camelCatalog.addComponent(scheme, javaType, json);
-                                    } else {
-                                        // the component has no json schema, and hence its not supported by the plugin
-                                        missingJSonSchemas.add(artifactId);
-                                    }
-                                }
-                            }
-                        }
+    private synchronized boolean addCustomCamelComponents(Project project, CamelCatalogService camelCatalogService, List<ThirdPartyLibrary> libraries,
+                                                       List<List<ThirdPartyComponentScanner.Component>> components, List<String> missingJSonSchemas) {
+        Map<String, ThirdPartyComponent> added = new LinkedHashMap<>();
+        for (int i = 0; i < libraries.size(); i++) {
+            ThirdPartyLibrary library = libraries.get(i);
+            boolean found = false;
+            for (ThirdPartyComponentScanner.Component component : components.get(i)) {
+                String scheme = component.getScheme();
+                // another library may already have added a component with the same name
+                if (camelCatalogService.isKnownComponent(scheme) || added.containsKey(scheme)) {
+                    continue;
+                }
+                // mark as added to avoid re-scanning the same component again
+                found = true;
+                if (component.getJavaType() != null) {
+                    if (component.getJson() != null) {
+                        // okay a new Camel component was added
+                        added.put(scheme, new ThirdPartyComponent(component.getJavaType(), component.getJson()));
+                        // remember the library of the component so it can be removed with the library
+                        libraryComponents.computeIfAbsent(library.getName(), k -> ConcurrentHashMap.newKeySet()).add(scheme);
+                    } else {
+                        // the component has no json schema, and hence its not supported by the plugin
+                        missingJSonSchemas.add(library.getArtifactId());
                     }
                 }
             }
-        } catch (IOException e) {
-            LOG.warn("Error scanning for custom Camel components", e);
-        }
-
-        if (added) {
-            addLibrary(artifactId);
+            if (found) {
+                addLibrary(library.getArtifactId());
+            }
         }
+        getCamelModuleCatalogService(project).addComponents(added);
+        return !added.isEmpty();
     }
 
     /**
@@ -479,139 +808,72 @@ public class CamelService implements Disposable {
         return minor >= MIN_MINOR_VERSION;
     }
 
-    private static Properties loadComponentProperties(URLClassLoader classLoader, boolean legacyScan) {
-        Properties answer = new Properties();
-        try {
-            // load the component files using the recommended way by a component.properties file
-            InputStream is = classLoader.getResourceAsStream("META-INF/services/org/apache/camel/component.properties");
-            if (is != null) {
-                answer.load(is);
-            } else if (legacyScan) {
-                // okay then try to load using a fallback using legacy classpath scanning
-                loadComponentPropertiesClasspathScan(classLoader, answer);
-            }
-        } catch (Throwable e) {
-            LOG.warn("Error loading META-INF/services/org/apache/camel/component.properties file", e);
-        }
-        return answer;
+    private CamelCatalogService getCamelCatalogService(Project project) {
+        return ServiceManager.getService(project, CamelCatalogService.class);
     }
 
-    private static void loadComponentPropertiesClasspathScan(URLClassLoader classLoader, Properties answer) throws IOException {
-        Enumeration<URL> e = classLoader.getResources("META-INF/services/org/apache/camel/component/");
-        if (e != null) {
-            final List<String> names = new ArrayList<>();
-            while (e.hasMoreElements()) {
-                URL url = e.nextElement();
-                String urlPath = url.getFile();
-
-                urlPath = URLDecoder.decode(urlPath, "UTF-8");
-
-                // If it's a file in a directory, trim the stupid file: spec
-                if (urlPath.startsWith("file:")) {
-                    // file path can be temporary folder which uses characters that the URLDecoder decodes wrong
-                    // for example + being decoded to something else (+ can be used in temp folders on Mac OS)
-                    // to remedy this then create new path without using the URLDecoder
-                    try {
-                        urlPath = new URI(url.getFile()).getPath();
-                    } catch (URISyntaxException ignore) {
-                        // fallback to use as it was given from the URLDecoder
-                        // this allows us to work on Windows if users have spaces in paths
-                    }
-                    if (urlPath.startsWith("file:")) {
-                        urlPath = urlPath.substring(5);
-                    }
-                }
-                // Else it's in a JAR, grab the path to the jar
-                if (urlPath.indexOf('!') > 0) {
-                    urlPath = urlPath.substring(0, urlPath.indexOf('!'));
-                }
-
-                FileInputStream stream = new FileInputStream(urlPath);
-                List<String> found = findCamelComponentNamesInJar(stream, "META-INF/services/org/apache/camel/component/");
-                names.addAll(found);
-            }
-            if (!names.isEmpty()) {
-                // join the names using a space
-                String line = names.stream().collect(Collectors.joining(" "));
-                answer.put("components", line);
-            }
-        }
+    private CamelModuleCatalogService getCamelModuleCatalogService(Project project) {
+        return ServiceManager.getService(project, CamelModuleCatalogService.class);
     }
 
-    private static List<String> findCamelComponentNamesInJar(InputStream stream, String urlPath) {
-        List<String> entries = new ArrayList<>();
+    private CamelPreferenceService getCamelPreferenceService() {
+        return ServiceManager.getService(CamelPreferenceService.class);
+    }
 
-        JarInputStream jarStream;
-        try {
-            jarStream = new JarInputStream(stream);
-
-            JarEntry entry;
-            while ((entry = jarStream.getNextJarEntry()) != null) {
-                String name = entry.getName();
-                if (name != null) {
-                    name = name.trim();
-                    if (name.startsWith(urlPath)) {
-                        if (!entry.isDirectory() && !name.endsWith(".class")) {
-                            name = name.substring(urlPath.length());
-                            entries.add(name);
-                        }
-                    }
-                }
-            }
-        } catch (Throwable e) {
-            LOG.warn("Error finding Camel components in JAR", e);
-        }
+    /**
+     * A production library of a module, as read from the order entries of the module.
+     */
+    private static final class ModuleLibrary {
 
-        return entries;
-    }
+        private final String name;
+        private final Library library;
+        private final Path jar;
 
-    private static String loadComponentJSonSchema(URLClassLoader classLoader, String scheme) {
-        String answer = null;
+        private ModuleLibrary(String name, Library library, @Nullable Path jar) {
+            this.name = name;
+            this.library = library;
+            this.jar = jar;
+        }
 
-        String path = null;
-        String javaType = extractComponentJavaType(classLoader, scheme);
-        if (javaType != null) {
-            int pos = javaType.lastIndexOf(".");
-            path = javaType.substring(0, pos);
-            path = path.replace('.', '/');
-            path = path + "/" + scheme + ".json";
+        String getName() {
+            return name;
         }
 
-        if (path != null) {
-            try {
-                InputStream is = classLoader.getResourceAsStream(path);
-                if (is != null) {
-                    answer = loadText(is);
-                }
-            } catch (Throwable e) {
-                LOG.warn("Error loading " + path + " file", e);
-            }
+        Library getLibrary() {
+            return library;
         }
 
-        return answer;
+        @Nullable
+        Path getJar() {
+            return jar;
+        }
     }
 
-    private static String extractComponentJavaType(URLClassLoader classLoader, String scheme) {
-        try {
-            InputStream is = classLoader.getResourceAsStream("META-INF/services/org/apache/camel/component/" + scheme);
-            if (is != null) {
-                Properties props = new Properties();
-                props.load(is);
-                return (String) props.get("class");
-            }
-        } catch (Throwable e) {
-            LOG.warn("Error loading META-INF/services/org/apache/camel/component/" + scheme + " file", e);
+    /**
+     * A third party library to scan for Camel components.
+     */
+    private static final class ThirdPartyLibrary {
+
+        private final String name;
+        private final String artifactId;
+        private final Path jar;
+
+        private ThirdPartyLibrary(String name, String artifactId, Path jar) {
+            this.name = name;
+            this.artifactId = artifactId;
+            this.jar = jar;
         }
 
-        return null;
-    }
+        String getName() {
+            return name;
+        }
 
-    private CamelCatalogService getCamelCatalogService(Project project) {
-        return ServiceManager.getService(project, CamelCatalogService.class);
-    }
+        String getArtifactId() {
+            return artifactId;
+        }
 
-    private CamelPreferenceService getCamelPreferenceService() {
-        return ServiceManager.getService(CamelPreferenceService.class);
+        Path getJar() {
+            return jar;
+        }
     }
-
 }
@@ -0,0 +1,259 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Cache of the downloaded camel-catalog and runtime provider jars, owned by the plugin and stored in the
+ * IDE system directory, so a version which has been downloaded once loads without using maven.
+ * <p/>
+ * Each jar is stored with a <tt>.sha1</tt> checksum file, and a jar which fails the integrity check is deleted
+ * instead of being used. The jars which have not been used for a while are evicted, and the least recently used
+ * jars are evicted when the cache grows too large.
+ */
+final class CatalogArtifactCache {
+
+    /**
+     * The default maximum size of the cache in bytes.
+     */
+    static final long DEFAULT_MAX_SIZE = 100 * 1024 * 1024;
+
+    /**
+     * The default maximum age of a jar since it was last used in millis.
+     */
+    static final long DEFAULT_MAX_AGE = 90L * 24 * 60 * 60 * 1000;
+
+    private static final String CHECKSUM_SUFFIX = ".sha1";
+
+    private final Path root;
+    private final long maxSize;
+    private final long maxAge;
+
+    CatalogArtifactCache(@NotNull Path root) {
+        this(root, DEFAULT_MAX_SIZE, DEFAULT_MAX_AGE);
+    }
+
+    CatalogArtifactCache(@NotNull Path root, long maxSize, long maxAge) {
+        this.root = root;
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Gets the cached jar of the artifact, and marks it as used. The jars which are too old or exceed the size
+     * of the cache are evicted, as the cache is only added to when a version is downloaded.
+     *
+     * @return the jar, or <tt>null</tt> if the artifact is not cached or the cached jar failed the integrity check
+     */
+    @Nullable
+    Path get(@NotNull String groupId, @NotNull String artifactId, @NotNull String version) {
+        Path jar = getJarFile(groupId, artifactId, version);
+        if (!Files.isRegularFile(jar)) {
+            evict();
+            return null;
+        }
+
+        try {
+            if (!isValid(jar)) {
+                delete(jar);
+                return null;
+            }
+            // the modification time of the jar is when it was last used
+            Files.setLastModifiedTime(jar, FileTime.fromMillis(System.currentTimeMillis()));
+            evict(jar);
+            return jar;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Adds the jar of the artifact to the cache, and evicts any jars which are too old or exceed the size of the cache.
+     *
+     * @param source the jar to add, such as a jar downloaded with maven
+     * @return the cached jar
+     * @throws IOException is thrown if the jar could not be added to the cache
+     */
+    @NotNull
+    Path put(@NotNull String groupId, @NotNull String artifactId, @NotNull String version, @NotNull Path source) throws IOException {
+        Path jar = getJarFile(groupId, artifactId, version);
+        Files.createDirectories(jar.getParent());
+
+        // copy to a temporary file first so a partially copied jar is never used
+        Path temp = Files.createTempFile(jar.getParent(), jar.getFileName().toString(), ".tmp");
+        try {
+            String checksum;
+            try (InputStream is = Files.newInputStream(source); OutputStream os = Files.newOutputStream(temp)) {
+                checksum = copy(is, os);
+            }
+            Files.write(getChecksumFile(jar), checksum.getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, jar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        evict(jar);
+        return jar;
+    }
+
+    /**
+     * Evicts the jars which have not been used within the maximum age, and then the least recently used jars
+     * until the cache is within the maximum size.
+     */
+    void evict() {
+        evict(null);
+    }
+
+    private void evict(@Nullable Path exclude) {
+        long now = System.currentTimeMillis();
+        long size = 0;
+        List<Path> keep = new ArrayList<>();
+        for (Path jar : getJars()) {
+            if (jar.equals(exclude)) {
+                // the jar which has just been added is never evicted, but counts towards the size
+                size += size(jar);
+            } else if (now - lastUsed(jar) > maxAge) {
+                delete(jar);
+            } else {
+                keep.add(jar);
+                size += size(jar);
+            }
+        }
+
+        keep.sort(Comparator.comparingLong(CatalogArtifactCache::lastUsed));
+        for (Path jar : keep) {
+            if (size <= maxSize) {
+                break;
+            }
+            size -= size(jar);
+            delete(jar);
+        }
+    }
+
+    /**
+     * @return the jars in the cache
+     */
+    List<Path> getJars() {
+        if (!Files.isDirectory(root)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar") && Files.isRegularFile(file)).collect(Collectors.toList());
+        } catch (IOException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    private Path getJarFile(String groupId, String artifactId, String version) {
+        return root.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version).resolve(artifactId + "-" + version + ".jar");
+    }
+
+    private static Path getChecksumFile(Path jar) {
+        return jar.resolveSibling(jar.getFileName() + CHECKSUM_SUFFIX);
+    }
+
+    private static boolean isValid(Path jar) throws IOException {
+        Path checksumFile = getChecksumFile(jar);
+        if (!Files.isRegularFile(checksumFile)) {
+            return false;
+        }
+        String expected = new String(Files.readAllBytes(checksumFile), StandardCharsets.UTF_8).trim();
+        String actual;
+        try (InputStream is = Files.newInputStream(jar)) {
+            actual = copy(is, null);
+        }
+        if (!expected.equals(actual)) {
+            return false;
+        }
+        // and it must be a readable jar
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            return zip.size() > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Copies the input to the output, if any, and returns the sha1 checksum of the input
+     */
+    private static String copy(InputStream is, @Nullable OutputStream os) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        try (DigestInputStream in = new DigestInputStream(is, digest)) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                if (os != null) {
+                    os.write(buffer, 0, n);
+                }
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static long lastUsed(Path jar) {
+        try {
+            return Files.getLastModifiedTime(jar).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long size(Path jar) {
+        try {
+            return Files.size(jar);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void delete(Path jar) {
+        try {
+            Files.deleteIfExists(jar);
+            Files.deleteIfExists(getChecksumFile(jar));
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+}
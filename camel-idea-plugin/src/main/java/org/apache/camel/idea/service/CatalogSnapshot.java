@@ -0,0 +1,422 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.apache.camel.idea.model.ComponentModel;
+import org.apache.camel.idea.model.ComponentOptionModel;
+import org.apache.camel.idea.model.EndpointOptionModel;
+import org.apache.camel.idea.model.OptionKind;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A compact binary snapshot of the parsed component models of a catalog, which is stored on disk so the
+ * component JSon schemas do not have to be parsed again when a project is opened.
+ * <p/>
+ * The snapshot is read into memory and the models are decoded on demand. All the strings are stored once in a
+ * string table which the models refer to by index, so the decoded models share the same string instances.
+ * The file is not kept open, so it can be replaced or deleted while the snapshot is in use.
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0xCA3E1CA7;
+    private static final int FORMAT_VERSION = 1;
+    private static final int NULL = -1;
+
+    private static final int REQUIRED = 1;
+    private static final int DEPRECATED = 1 << 1;
+    private static final int SECRET = 1 << 2;
+    private static final int MULTI_VALUE = 1 << 3;
+
+    private static final OptionKind[] KINDS = OptionKind.values();
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int[] stringOffsets;
+    // decoded strings, it is okay for threads to race to decode the same string as strings are immutable
+    private final String[] strings;
+    private final Map<String, Integer> componentOffsets;
+
+    private CatalogSnapshot(Path file, ByteBuffer buffer, int[] stringOffsets, Map<String, Integer> componentOffsets) {
+        this.file = file;
+        this.buffer = buffer;
+        this.stringOffsets = stringOffsets;
+        this.strings = new String[stringOffsets.length];
+        this.componentOffsets = componentOffsets;
+    }
+
+    /**
+     * Gets the name of the snapshot file for the given catalog version and third party components.
+     *
+     * @param version    the catalog version
+     * @param thirdParty the third party components added to the catalog as their scheme and a hash of their JSon schema
+     */
+    @NotNull
+    public static String getFileName(@NotNull String version, @NotNull Map<String, String> thirdParty) {
+        if (thirdParty.isEmpty()) {
+            return "catalog-" + version + ".bin";
+        }
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(thirdParty).forEach((scheme, hash) -> sb.append(scheme).append('=').append(hash).append('\n'));
+        return "catalog-" + version + "-" + sha1(sb.toString()).substring(0, 16) + ".bin";
+    }
+
+    /**
+     * @return the SHA-1 of the text as hex
+     */
+    @NotNull
+    public static String sha1(@NotNull String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest(text.getBytes(StandardCharsets.UTF_8))) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes the snapshot of the component models to the file, by writing to a temporary file first which is then moved in place.
+     *
+     * @param file   the snapshot file
+     * @param models the component models by their component name
+     */
+    public static void write(@NotNull Path file, @NotNull Map<String, ComponentModel> models) throws IOException {
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+        List<String> schemes = new ArrayList<>();
+        List<Integer> recordOffsets = new ArrayList<>();
+        for (Map.Entry<String, ComponentModel> entry : models.entrySet()) {
+            schemes.add(entry.getKey());
+            recordOffsets.add(records.size());
+            writeComponent(records, entry.getValue(), stringIndexes, strings);
+        }
+
+        ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+        DataOutputStream stringData = new DataOutputStream(stringBytes);
+        int[] stringOffsets = new int[strings.size()];
+        for (int i = 0; i < strings.size(); i++) {
+            stringOffsets[i] = stringData.size();
+            byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            stringData.writeInt(bytes.length);
+            stringData.write(bytes);
+        }
+
+        // header, string table, component index, strings and finally the component records
+        int stringsStart = 4 * (2 + 1 + strings.size() + 1 + 2 * schemes.size());
+        int recordsStart = stringsStart + stringData.size();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(recordsStart + records.size());
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(strings.size());
+        for (int offset : stringOffsets) {
+            data.writeInt(stringsStart + offset);
+        }
+        data.writeInt(schemes.size());
+        for (int i = 0; i < schemes.size(); i++) {
+            data.writeInt(indexOf(schemes.get(i), stringIndexes, strings));
+            data.writeInt(recordsStart + recordOffsets.get(i));
+        }
+        stringBytes.writeTo(data);
+        recordBytes.writeTo(data);
+        data.flush();
+
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, out.toByteArray());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads the snapshot from the file.
+     *
+     * @throws IOException is thrown if the file could not be read or is not a valid snapshot
+     */
+    @NotNull
+    public static CatalogSnapshot read(@NotNull Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a valid catalog snapshot " + file);
+            }
+            // the counts are checked before allocating, so a corrupt count cannot allocate a huge array
+            int[] stringOffsets = new int[readCount(buffer, 4, file)];
+            for (int i = 0; i < stringOffsets.length; i++) {
+                stringOffsets[i] = buffer.getInt();
+            }
+            CatalogSnapshot snapshot = new CatalogSnapshot(file, buffer, stringOffsets, new HashMap<>());
+            int count = readCount(buffer, 8, file);
+            for (int i = 0; i < count; i++) {
+                snapshot.componentOffsets.put(snapshot.getString(buffer.getInt()), buffer.getInt());
+            }
+            return snapshot;
+        } catch (RuntimeException e) {
+            throw new IOException("Not a valid catalog snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Reads the number of entries which follow, which must fit in the remaining bytes of the buffer.
+     *
+     * @param entrySize the size of each entry in bytes
+     * @throws IOException is thrown if the count is negative or larger than the remaining entries
+     */
+    private static int readCount(ByteBuffer buffer, int entrySize, Path file) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / entrySize) {
+            throw new IOException("Invalid count " + count + " in catalog snapshot " + file);
+        }
+        return count;
+    }
+
+    /**
+     * @return the snapshot file
+     */
+    @NotNull
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return the names of the components in the snapshot
+     */
+    @NotNull
+    public Set<String> getComponentNames() {
+        return Collections.unmodifiableSet(componentOffsets.keySet());
+    }
+
+    /**
+     * Decodes the component model from the snapshot.
+     *
+     * @param scheme         the component scheme
+     * @param includeOptions whether to include the component and endpoint options
+     * @return the component model, or <tt>null</tt> if the component is not in the snapshot
+     * @throws RuntimeException is thrown if the component record is corrupt, such as an index out of bounds
+     */
+    @Nullable
+    public ComponentModel getComponentModel(@NotNull String scheme, boolean includeOptions) {
+        Integer offset = componentOffsets.get(scheme);
+        if (offset == null) {
+            return null;
+        }
+        Reader reader = new Reader(offset);
+
+        ComponentModel component = new ComponentModel();
+        component.setScheme(reader.nextString());
+        component.setSyntax(reader.nextString());
+        component.setAlternativeSyntax(reader.nextString());
+        component.setAlternativeSchemes(reader.nextString());
+        component.setTitle(reader.nextString());
+        component.setDescription(reader.nextString());
+        component.setLabel(reader.nextString());
+        component.setDeprecated(reader.nextString());
+        component.setConsumerOnly(reader.nextString());
+        component.setProducerOnly(reader.nextString());
+        component.setJavaType(reader.nextString());
+        component.setGroupId(reader.nextString());
+        component.setArtifactId(reader.nextString());
+        component.setVersion(reader.nextString());
+        if (!includeOptions) {
+            return component;
+        }
+
+        int count = reader.nextCount();
+        for (int i = 0; i < count; i++) {
+            ComponentOptionModel option = new ComponentOptionModel();
+            option.setName(reader.nextString());
+            option.setKind(reader.nextKind());
+            option.setGroup(reader.nextString());
+            int flags = reader.nextInt();
+            option.setRequired((flags & REQUIRED) != 0);
+            option.setDeprecated((flags & DEPRECATED) != 0);
+            option.setSecret((flags & SECRET) != 0);
+            option.setType(reader.nextString());
+            option.setJavaType(reader.nextString());
+            option.setEnums(reader.nextString());
+            option.setDefaultValue(reader.nextString());
+            option.setDescription(reader.nextString());
+            component.addComponentOption(option);
+        }
+
+        count = reader.nextCount();
+        for (int i = 0; i < count; i++) {
+            EndpointOptionModel option = new EndpointOptionModel();
+            option.setName(reader.nextString());
+            option.setKind(reader.nextKind());
+            option.setGroup(reader.nextString());
+            option.setLabel(reader.nextString());
+            int flags = reader.nextInt();
+            option.setRequired((flags & REQUIRED) != 0);
+            option.setDeprecated((flags & DEPRECATED) != 0);
+            option.setSecret((flags & SECRET) != 0);
+            option.setMultiValue((flags & MULTI_VALUE) != 0);
+            option.setType(reader.nextString());
+            option.setJavaType(reader.nextString());
+            option.setEnums(reader.nextString());
+            option.setPrefix(reader.nextString());
+            option.setDefaultValue(reader.nextString());
+            option.setDescription(reader.nextString());
+            component.addEndpointOption(option);
+        }
+        return component;
+    }
+
+    /**
+     * Gets the alternative schemes of the component, without decoding the rest of the component model.
+     *
+     * @param scheme the component scheme
+     * @return the alternative schemes, or <tt>null</tt> if the component has none or is not in the snapshot
+     * @throws RuntimeException is thrown if the component record is corrupt, such as an index out of bounds
+     */
+    @Nullable
+    public String getAlternativeSchemes(@NotNull String scheme) {
+        Integer offset = componentOffsets.get(scheme);
+        if (offset == null) {
+            return null;
+        }
+        // the alternative schemes are the fourth string of the component record
+        return new Reader(offset + 3 * 4).nextString();
+    }
+
+    private static void writeComponent(DataOutputStream out, ComponentModel model, Map<String, Integer> stringIndexes, List<String> strings) throws IOException {
+        for (String value : new String[]{model.getScheme(), model.getSyntax(), model.getAlternativeSyntax(), model.getAlternativeSchemes(),
+            model.getTitle(), model.getDescription(), model.getLabel(), model.getDeprecated(), model.getConsumerOnly(), model.getProducerOnly(),
+            model.getJavaType(), model.getGroupId(), model.getArtifactId(), model.getVersion()}) {
+            out.writeInt(indexOf(value, stringIndexes, strings));
+        }
+
+        out.writeInt(model.getComponentOptions().size());
+        for (ComponentOptionModel option : model.getComponentOptions()) {
+            out.writeInt(indexOf(option.getName(), stringIndexes, strings));
+            out.writeInt(option.getKind() != null ? option.getKind().ordinal() : NULL);
+            out.writeInt(indexOf(option.getGroup(), stringIndexes, strings));
+            out.writeInt((option.isRequired() ? REQUIRED : 0) | (option.isDeprecated() ? DEPRECATED : 0) | (option.isSecret() ? SECRET : 0));
+            for (String value : new String[]{option.getType(), option.getJavaType(), option.getEnums(), option.getDefaultValue(), option.getDescription()}) {
+                out.writeInt(indexOf(value, stringIndexes, strings));
+            }
+        }
+
+        out.writeInt(model.getEndpointOptions().size());
+        for (EndpointOptionModel option : model.getEndpointOptions()) {
+            out.writeInt(indexOf(option.getName(), stringIndexes, strings));
+            out.writeInt(option.getKind() != null ? option.getKind().ordinal() : NULL);
+            out.writeInt(indexOf(option.getGroup(), stringIndexes, strings));
+            out.writeInt(indexOf(option.getLabel(), stringIndexes, strings));
+            out.writeInt((option.isRequired() ? REQUIRED : 0) | (option.isDeprecated() ? DEPRECATED : 0) | (option.isSecret() ? SECRET : 0)
+                | (option.isMultiValue() ? MULTI_VALUE : 0));
+            for (String value : new String[]{option.getType(), option.getJavaType(), option.getEnums(), option.getPrefix(), option.getDefaultValue(),
+                option.getDescription()}) {
+                out.writeInt(indexOf(value, stringIndexes, strings));
+            }
+        }
+    }
+
+    private static int indexOf(String value, Map<String, Integer> stringIndexes, List<String> strings) {
+        if (value == null) {
+            return NULL;
+        }
+        return stringIndexes.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size() - 1;
+        });
+    }
+
+    private String getString(int index) {
+        if (index == NULL) {
+            return null;
+        }
+        String answer = strings[index];
+        if (answer == null) {
+            int offset = stringOffsets[index];
+            int length = buffer.getInt(offset);
+            if (length < 0 || length > buffer.limit() - offset - 4) {
+                throw new IllegalStateException("Invalid string length " + length + " in catalog snapshot " + file);
+            }
+            byte[] bytes = new byte[length];
+            ByteBuffer duplicate = buffer.duplicate();
+            duplicate.position(offset + 4);
+            duplicate.get(bytes);
+            answer = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = answer;
+        }
+        return answer;
+    }
+
+    /**
+     * Reads the ints of a component record using absolute reads, so the snapshot can be read by many threads.
+     */
+    private final class Reader {
+        private int position;
+
+        Reader(int position) {
+            this.position = position;
+        }
+
+        int nextInt() {
+            int answer = buffer.getInt(position);
+            position += 4;
+            return answer;
+        }
+
+        int nextCount() {
+            int answer = nextInt();
+            // each entry has at least one int
+            if (answer < 0 || answer > (buffer.limit() - position) / 4) {
+                throw new IllegalStateException("Invalid count " + answer + " in catalog snapshot " + file);
+            }
+            return answer;
+        }
+
+        String nextString() {
+            return getString(nextInt());
+        }
+
+        OptionKind nextKind() {
+            int ordinal = nextInt();
+            return ordinal == NULL ? null : KINDS[ordinal];
+        }
+    }
+}
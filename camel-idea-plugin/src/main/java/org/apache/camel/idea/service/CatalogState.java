@@ -0,0 +1,514 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import com.intellij.openapi.diagnostic.Logger;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.DefaultCamelCatalog;
+import org.apache.camel.catalog.JSonSchemaResolver;
+import org.apache.camel.catalog.VersionManager;
+import org.apache.camel.idea.model.ComponentModel;
+import org.apache.camel.idea.model.ModelHelper;
+import org.apache.camel.idea.util.SchemeTrie;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable state of the {@link CamelCatalog} in use by a {@link CamelCatalogService}.
+ * <p/>
+ * A new state is published when the catalog version is switched or a third party component is added, and the
+ * catalog of a state is never changed after it has been published. A reader such as an annotator should get the
+ * state once per highlighting pass and use it for all its lookups, so it sees a consistent catalog without locking.
+ * The derived data such as the component names and the scheme trie is computed lazily once per state.
+ */
+public final class CatalogState {
+
+    private static final Logger LOG = Logger.getInstance(CatalogState.class);
+
+    private static final Pattern ALTERNATIVE_SCHEMES = Pattern.compile("\"alternativeSchemes\"\\s*:\\s*\"([^\"]*)\"");
+
+    private final CamelCatalog catalog;
+    private final SharedCatalogData shared;
+    private final Map<String, ThirdPartyComponent> thirdPartyComponents;
+    // the third party components as their scheme and a hash of their JSon schema
+    private final Map<String, String> thirdPartyHashes;
+    private final Path snapshotDirectory;
+    private final Executor executor;
+    // the models of the third party components
+    private final ComponentModelCache componentModelCache = new ComponentModelCache();
+    private volatile Set<String> componentNames;
+    private volatile SchemeTrie schemeTrie;
+    private volatile CatalogSnapshot thirdPartySnapshot;
+
+    private CatalogState(CamelCatalog catalog, SharedCatalogData shared, Map<String, ThirdPartyComponent> thirdPartyComponents, Path snapshotDirectory,
+                         Executor executor) {
+        this.catalog = catalog;
+        this.shared = shared;
+        this.thirdPartyComponents = thirdPartyComponents;
+        this.thirdPartyHashes = Collections.unmodifiableMap(thirdPartyComponents.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getHash())));
+        this.snapshotDirectory = snapshotDirectory;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a new state with a new catalog.
+     *
+     * @param versionManager       the version manager with the Camel version loaded, or <tt>null</tt> to use the version of the camel-catalog of the plugin,
+     *                             which is shared with the other states of the same version until the state is {@link #release() released}
+     * @param sharedData           to acquire the shared catalog data of the Camel version
+     * @param thirdPartyComponents the third party components to add to the catalog
+     * @param snapshotDirectory    the directory of the catalog snapshots
+     * @param executor             to build the snapshot of the catalog version in the background
+     */
+    @NotNull
+    static CatalogState create(@Nullable VersionManager versionManager, @NotNull Function<String, SharedCatalogData> sharedData,
+                               @NotNull Map<String, ThirdPartyComponent> thirdPartyComponents, @NotNull Path snapshotDirectory,
+                               @NotNull Executor executor) {
+        DefaultCamelCatalog catalog = new DefaultCamelCatalog(true);
+        if (versionManager != null) {
+            catalog.setVersionManager(versionManager);
+            if (versionManager instanceof CamelMavenVersionManager) {
+                // the jars of the version are kept open until the last state using them is released
+                ((CamelMavenVersionManager) versionManager).retain();
+            }
+        }
+        Map<String, ThirdPartyComponent> components = Collections.unmodifiableMap(new LinkedHashMap<>(thirdPartyComponents));
+        SharedCatalogData shared = sharedData.apply(getVersion(catalog));
+
+        // use the JSon schemas shared with the other projects
+        catalog.setJSonSchemaResolver(new SharedJSonSchemaResolver(catalog.getJSonSchemaResolver(), shared, components.keySet()));
+        components.forEach((scheme, component) -> catalog.addComponent(scheme, component.getJavaType(), component.getJSonSchema()));
+        return new CatalogState(catalog, shared, components, snapshotDirectory, executor);
+    }
+
+    /**
+     * Gets the {@link CamelCatalog} of this state, which must not be changed such as by adding components.
+     */
+    @NotNull
+    public CamelCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * @return the Camel version of the catalog
+     */
+    @NotNull
+    public String getVersion() {
+        return shared.getVersion();
+    }
+
+    /**
+     * Gets the names of the known components in the catalog.
+     * <p/>
+     * The set is immutable.
+     */
+    @NotNull
+    public Set<String> getComponentNames() {
+        Set<String> answer = componentNames;
+        if (answer == null) {
+            Set<String> names = getBaseComponentNames();
+            if (thirdPartyComponents.isEmpty()) {
+                answer = names;
+            } else {
+                Set<String> all = new HashSet<>(names);
+                all.addAll(thirdPartyComponents.keySet());
+                answer = Collections.unmodifiableSet(all);
+            }
+            componentNames = answer;
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the names of the components in the catalog version, without the third party components,
+     * which are shared with the other projects.
+     */
+    private Set<String> getBaseComponentNames() {
+        return shared.getComponentNames(() -> catalog.findComponentNames().stream()
+            .filter(name -> !thirdPartyComponents.containsKey(name))
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * Whether the catalog has a component with the given name
+     */
+    public boolean isKnownComponent(@Nullable String name) {
+        return name != null && getComponentNames().contains(name);
+    }
+
+    /**
+     * Gets the trie of the known component schemes, including their alternative schemes, in the catalog.
+     */
+    @NotNull
+    public SchemeTrie getSchemeTrie() {
+        SchemeTrie answer = schemeTrie;
+        if (answer == null) {
+            answer = new SchemeTrie();
+            Set<String> names = getComponentNames();
+            for (String name : names) {
+                answer.add(name, name);
+            }
+            // the alternative schemes are added after the names so they do not hide a component with the same name
+            for (String name : names) {
+                String alternativeSchemes = getAlternativeSchemes(name);
+                if (alternativeSchemes != null && !alternativeSchemes.isEmpty()) {
+                    for (String scheme : alternativeSchemes.split(",")) {
+                        answer.add(scheme.trim(), name);
+                    }
+                }
+            }
+            schemeTrie = answer;
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the alternative schemes of the component from the catalog snapshot, or else from the JSon schema,
+     * without creating the component model which is not needed for the scheme trie.
+     */
+    @Nullable
+    private String getAlternativeSchemes(String name) {
+        CatalogSnapshot snapshot = thirdPartyComponents.containsKey(name) ? getThirdPartySnapshot() : getSnapshot();
+        if (snapshot != null && snapshot.getComponentNames().contains(name)) {
+            try {
+                return snapshot.getAlternativeSchemes(name);
+            } catch (RuntimeException e) {
+                invalidateSnapshot(snapshot, e);
+            }
+        }
+
+        String json = catalog.componentJSonSchema(name);
+        if (json == null) {
+            return null;
+        }
+        // the alternative schemes are in the component section before the options
+        int end = json.indexOf("\"componentProperties\"");
+        Matcher matcher = ALTERNATIVE_SCHEMES.matcher(json).region(0, end > 0 ? end : json.length());
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Gets the {@link ComponentModel} of the given component from the catalog.
+     * <p/>
+     * The models are cached per catalog version, and are loaded from the catalog snapshot when possible
+     * so the component JSon schema is only parsed once.
+     *
+     * @param scheme         the component scheme
+     * @param includeOptions whether to include the component and endpoint options
+     * @return the component model, or <tt>null</tt> if the component is unknown
+     */
+    @Nullable
+    public ComponentModel getComponentModel(@NotNull String scheme, boolean includeOptions) {
+        String version = getVersion();
+        if (thirdPartyComponents.containsKey(scheme)) {
+            return componentModelCache.get(version, scheme, includeOptions,
+                () -> loadComponentModel(getThirdPartySnapshot(), scheme, includeOptions));
+        }
+        return shared.getComponentModelCache().get(version, scheme, includeOptions,
+            () -> loadComponentModel(getSnapshot(), scheme, includeOptions));
+    }
+
+    private ComponentModel loadComponentModel(CatalogSnapshot snapshot, String scheme, boolean includeOptions) {
+        ComponentModel model = null;
+        if (snapshot != null) {
+            try {
+                model = snapshot.getComponentModel(scheme, includeOptions);
+            } catch (RuntimeException e) {
+                invalidateSnapshot(snapshot, e);
+            }
+        }
+        if (model == null) {
+            String json = catalog.componentJSonSchema(scheme);
+            model = json != null ? ModelHelper.generateComponentModel(json, includeOptions) : null;
+        }
+        return model;
+    }
+
+    /**
+     * Gets the cache of the component models of the catalog, which can be used for statistics such as the number of cached models.
+     */
+    @NotNull
+    public ComponentModelCache getComponentModelCache() {
+        return shared.getComponentModelCache();
+    }
+
+    /**
+     * Releases the version manager of the state when the state is replaced, which closes the jars of the version
+     * when no other state uses them. A reader still using the state then no longer finds the resources of the version.
+     */
+    void release() {
+        if (catalog.getVersionManager() instanceof CamelMavenVersionManager) {
+            ((CamelMavenVersionManager) catalog.getVersionManager()).release();
+        }
+    }
+
+    /**
+     * Keeps the jars of the version open while the snapshot is built, which {@link #release() releases} them when done.
+     */
+    private void retainVersionManager() {
+        if (catalog.getVersionManager() instanceof CamelMavenVersionManager) {
+            ((CamelMavenVersionManager) catalog.getVersionManager()).retain();
+        }
+    }
+
+    @NotNull
+    SharedCatalogData getShared() {
+        return shared;
+    }
+
+    /**
+     * @return the third party components added to the catalog
+     */
+    @NotNull
+    Map<String, ThirdPartyComponent> getThirdPartyComponents() {
+        return thirdPartyComponents;
+    }
+
+    /**
+     * Gets the snapshot of the parsed catalog for the catalog version, which is shared with the other projects.
+     * <p/>
+     * The snapshot is stored in the snapshot directory. When there is no snapshot for the catalog version yet, it is
+     * built from the catalog in the background, as that parses all the component JSon schemas.
+     *
+     * @return the snapshot, or <tt>null</tt> if the snapshot is being built or could not be read or written
+     */
+    @Nullable
+    CatalogSnapshot getSnapshot() {
+        CatalogSnapshot answer = shared.getSnapshot();
+        if (answer != null || shared.isSnapshotUnavailable() || shared.isSnapshotBuilding()) {
+            return answer;
+        }
+
+        synchronized (shared) {
+            answer = shared.getSnapshot();
+            if (answer == null && !shared.isSnapshotUnavailable() && !shared.isSnapshotBuilding()) {
+                Path file = snapshotDirectory.resolve(CatalogSnapshot.getFileName(getVersion(), Collections.emptyMap()));
+                if (Files.exists(file)) {
+                    try {
+                        answer = CatalogSnapshot.read(file);
+                        shared.setSnapshot(answer);
+                    } catch (IOException e) {
+                        shared.setSnapshotUnavailable(true);
+                        handleInvalidSnapshot(file, e);
+                    }
+                } else {
+                    shared.setSnapshotBuilding(true);
+                    retainVersionManager();
+                    executor.execute(() -> buildSnapshot(file));
+                }
+            }
+        }
+        return answer;
+    }
+
+    private void buildSnapshot(Path file) {
+        try {
+            Set<String> names = getBaseComponentNames();
+            Map<String, ComponentModel> models = loadComponentModels(names, null);
+            // the state may have been released, and then its version manager no longer finds the JSon schemas
+            if (models.size() == names.size()) {
+                shared.setSnapshot(writeSnapshot(file, models));
+            }
+        } catch (IOException | RuntimeException e) {
+            shared.setSnapshotUnavailable(true);
+            handleInvalidSnapshot(file, e);
+        } finally {
+            shared.setSnapshotBuilding(false);
+            release();
+        }
+    }
+
+    /**
+     * Gets the snapshot of the third party components, if they have been saved with {@link #saveSnapshot()}.
+     *
+     * @return the snapshot, or <tt>null</tt> if there is no snapshot of the third party components
+     */
+    @Nullable
+    private CatalogSnapshot getThirdPartySnapshot() {
+        CatalogSnapshot answer = thirdPartySnapshot;
+        if (answer != null) {
+            return answer;
+        }
+
+        Path file = snapshotDirectory.resolve(CatalogSnapshot.getFileName(getVersion(), thirdPartyHashes));
+        if (Files.exists(file)) {
+            try {
+                answer = CatalogSnapshot.read(file);
+                thirdPartySnapshot = answer;
+                return answer;
+            } catch (IOException e) {
+                handleInvalidSnapshot(file, e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Saves a snapshot of the third party components, if not already saved,
+     * so they do not have to be parsed the next time the project is opened.
+     */
+    void saveSnapshot() {
+        if (thirdPartyComponents.isEmpty()) {
+            return;
+        }
+        Path file = snapshotDirectory.resolve(CatalogSnapshot.getFileName(getVersion(), thirdPartyHashes));
+        try {
+            if (!Files.exists(file)) {
+                thirdPartySnapshot = writeSnapshot(file, loadComponentModels(thirdPartyComponents.keySet(), thirdPartySnapshot));
+            }
+        } catch (IOException e) {
+            LOG.warn("Cannot save catalog snapshot " + file, e);
+        }
+    }
+
+    private Map<String, ComponentModel> loadComponentModels(Set<String> names, CatalogSnapshot current) {
+        Map<String, ComponentModel> models = new LinkedHashMap<>();
+        for (String name : names) {
+            // reuse the models from the current snapshot which is faster than parsing the JSon schema
+            ComponentModel model = loadComponentModel(current, name, true);
+            if (model != null) {
+                models.put(name, model);
+            }
+        }
+        return models;
+    }
+
+    private static CatalogSnapshot writeSnapshot(Path file, Map<String, ComponentModel> models) throws IOException {
+        long start = System.currentTimeMillis();
+        CatalogSnapshot.write(file, models);
+        LOG.info("Saved catalog snapshot " + file + " with " + models.size() + " components in " + (System.currentTimeMillis() - start) + " millis");
+        return CatalogSnapshot.read(file);
+    }
+
+    /**
+     * Stops using a snapshot which turned out to be corrupt when decoding a component model, and deletes its file.
+     */
+    private void invalidateSnapshot(CatalogSnapshot snapshot, RuntimeException cause) {
+        if (snapshot == shared.getSnapshot()) {
+            shared.setSnapshotUnavailable(true);
+            shared.setSnapshot(null);
+        } else if (snapshot == thirdPartySnapshot) {
+            thirdPartySnapshot = null;
+        }
+        handleInvalidSnapshot(snapshot.getFile(), cause);
+    }
+
+    private static void handleInvalidSnapshot(Path file, Exception cause) {
+        LOG.warn("Cannot use catalog snapshot " + file + " so the component JSon schemas are parsed instead", cause);
+        try {
+            // the snapshot may be from an older version of the plugin so delete it to allow creating a new snapshot
+            Files.deleteIfExists(file);
+        } catch (IOException ignore) {
+            // ignore
+        }
+    }
+
+    static String getVersion(CamelCatalog catalog) {
+        String version = catalog.getLoadedVersion();
+        if (version == null) {
+            version = catalog.getCatalogVersion();
+        }
+        return version;
+    }
+
+    /**
+     * A third party component added to the catalog.
+     */
+    static final class ThirdPartyComponent {
+
+        private final String javaType;
+        private final String json;
+        private final String hash;
+
+        ThirdPartyComponent(@NotNull String javaType, @NotNull String json) {
+            this.javaType = javaType;
+            this.json = json;
+            this.hash = CatalogSnapshot.sha1(javaType + json);
+        }
+
+        String getJavaType() {
+            return javaType;
+        }
+
+        String getJSonSchema() {
+            return json;
+        }
+
+        String getHash() {
+            return hash;
+        }
+    }
+
+    /**
+     * Resolves the component JSon schemas from the data shared with the other projects, except for the third party
+     * components of the project.
+     */
+    private static final class SharedJSonSchemaResolver implements JSonSchemaResolver {
+
+        private final JSonSchemaResolver delegate;
+        private final SharedCatalogData shared;
+        private final Set<String> thirdPartyComponents;
+
+        SharedJSonSchemaResolver(JSonSchemaResolver delegate, SharedCatalogData shared, Set<String> thirdPartyComponents) {
+            this.delegate = delegate;
+            this.shared = shared;
+            this.thirdPartyComponents = thirdPartyComponents;
+        }
+
+        @Override
+        public String getComponentJSonSchema(String name) {
+            if (thirdPartyComponents.contains(name)) {
+                return delegate.getComponentJSonSchema(name);
+            }
+            return shared.getComponentJSonSchema(name, delegate::getComponentJSonSchema);
+        }
+
+        @Override
+        public String getDataFormatJSonSchema(String name) {
+            return delegate.getDataFormatJSonSchema(name);
+        }
+
+        @Override
+        public String getLanguageJSonSchema(String name) {
+            return delegate.getLanguageJSonSchema(name);
+        }
+
+        @Override
+        public String getOtherJSonSchema(String name) {
+            return delegate.getOtherJSonSchema(name);
+        }
+
+        @Override
+        public String getModelJSonSchema(String name) {
+            return delegate.getModelJSonSchema(name);
+        }
+    }
+}
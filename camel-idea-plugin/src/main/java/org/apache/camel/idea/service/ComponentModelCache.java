@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.apache.camel.idea.model.ComponentModel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Cache of {@link ComponentModel}s keyed by catalog version, component scheme and whether the options are included,
+ * so the component JSon schema is only parsed once per catalog version instead of on every completion or documentation request.
+ */
+public final class ComponentModelCache {
+
+    private final ConcurrentMap<Key, ComponentModel> models = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the component model from the cache, or loads and caches the model.
+     *
+     * @param version        the catalog version
+     * @param scheme         the component scheme
+     * @param includeOptions whether to include the component and endpoint options
+     * @param modelLoader    to load the component model, which returns <tt>null</tt> if the component is unknown
+     * @return the component model, or <tt>null</tt> if the component is unknown
+     */
+    @Nullable
+    public ComponentModel get(@Nullable String version, @NotNull String scheme, boolean includeOptions, @NotNull Supplier<ComponentModel> modelLoader) {
+        Key key = new Key(version, scheme, includeOptions);
+        ComponentModel model = models.get(key);
+        if (model != null) {
+            return model;
+        }
+
+        model = modelLoader.get();
+        if (model == null) {
+            return null;
+        }
+        ComponentModel existing = models.putIfAbsent(key, model);
+        return existing != null ? existing : model;
+    }
+
+    /**
+     * Removes all the cached models, such as when the catalog is switched to another version.
+     */
+    public void clear() {
+        models.clear();
+    }
+
+    /**
+     * @return number of cached models
+     */
+    public int size() {
+        return models.size();
+    }
+
+    private static final class Key {
+        private final String version;
+        private final String scheme;
+        private final boolean includeOptions;
+
+        Key(String version, String scheme, boolean includeOptions) {
+            this.version = version;
+            this.scheme = scheme;
+            this.includeOptions = includeOptions;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return includeOptions == that.includeOptions
+                && Objects.equals(version, that.version)
+                && scheme.equals(that.scheme);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(version, scheme, includeOptions);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.apache.camel.catalog.EndpointValidationResult;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Cache of the {@link EndpointValidationResult}s of endpoint uris, keyed by the catalog state, the normalized uri and
+ * whether the endpoint is consumer or producer only, which is shared by the annotator and the inspection so an unchanged
+ * uri is not validated again on every highlighting pass.
+ * <p/>
+ * The results are only valid for the catalog state they were validated with, and the cache should be cleared when the
+ * catalog is switched.
+ */
+public final class EndpointValidationCache extends ValidationResultCache<EndpointValidationCache.Key, EndpointValidationResult> {
+
+    /**
+     * @param currentState the catalog state in use, as the results of another state are not cached
+     */
+    public EndpointValidationCache(@NotNull Supplier<CatalogState> currentState) {
+        this(DEFAULT_MAX_SIZE, currentState);
+    }
+
+    public EndpointValidationCache(int maxSize, @NotNull Supplier<CatalogState> currentState) {
+        super(maxSize, key -> key.state == currentState.get());
+    }
+
+    /**
+     * Normalizes the endpoint uri the same way for the annotator and the inspection, as the camel catalog expects
+     * <tt>&amp;amp;</tt> as <tt>&amp;</tt> and cannot parse any incomplete parameter or the placeholders of a string format.
+     *
+     * @param uri          the endpoint uri
+     * @param stringFormat whether the uri is used with <tt>fromF</tt> or <tt>toF</tt>
+     * @return the uri to validate
+     */
+    @NotNull
+    public static String normalize(@NotNull String uri, boolean stringFormat) {
+        String answer = uri.replace("&amp;", "&");
+
+        // strip up ending incomplete parameter
+        if (answer.endsWith("&") || answer.endsWith("?")) {
+            answer = answer.substring(0, answer.length() - 1);
+        }
+
+        if (stringFormat) {
+            // if the node is fromF or toF, then replace all %X with {{%X}} as we cannot parse that value
+            answer = answer.replace("%s", "{{%s}}").replace("%d", "{{%d}}").replace("%b", "{{%b}}");
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the validation result of the endpoint uri from the cache, or validates the uri with the catalog of the state.
+     *
+     * @param state        the catalog state to validate with
+     * @param uri          the normalized endpoint uri
+     * @param consumerOnly whether the endpoint is only used as consumer
+     * @param producerOnly whether the endpoint is only used as producer
+     * @return the validation result, which must not be changed
+     */
+    @NotNull
+    public EndpointValidationResult validate(@NotNull CatalogState state, @NotNull String uri, boolean consumerOnly, boolean producerOnly) {
+        return get(new Key(state, uri, consumerOnly, producerOnly), () -> state.getCatalog().validateEndpointProperties(uri, false, consumerOnly, producerOnly));
+    }
+
+    static final class Key {
+        private final CatalogState state;
+        private final String uri;
+        private final boolean consumerOnly;
+        private final boolean producerOnly;
+
+        Key(CatalogState state, String uri, boolean consumerOnly, boolean producerOnly) {
+            this.state = state;
+            this.uri = uri;
+            this.consumerOnly = consumerOnly;
+            this.producerOnly = producerOnly;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            // the state is compared by identity as a new state is published when the catalog is changed
+            return state == that.state
+                && consumerOnly == that.consumerOnly
+                && producerOnly == that.producerOnly
+                && uri.equals(that.uri);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(state), uri, consumerOnly, producerOnly);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Index of the resources in a jar file by their name, so the resources can be read directly from the jar
+ * instead of being looked up through a classloader.
+ * <p/>
+ * The jar is kept open until the index is closed, after which the resources are no longer found.
+ */
+final class JarResourceIndex implements Closeable {
+
+    private final Path jar;
+    private final ZipFile zipFile;
+    private final Map<String, ZipEntry> entries;
+    private volatile boolean closed;
+
+    private JarResourceIndex(Path jar, ZipFile zipFile, Map<String, ZipEntry> entries) {
+        this.jar = jar;
+        this.zipFile = zipFile;
+        this.entries = entries;
+    }
+
+    /**
+     * Opens and indexes the jar file.
+     *
+     * @throws IOException is thrown if the jar file could not be read
+     */
+    static JarResourceIndex open(@NotNull Path jar) throws IOException {
+        ZipFile zipFile = new ZipFile(jar.toFile());
+        Map<String, ZipEntry> entries = new HashMap<>(zipFile.size() * 4 / 3 + 1);
+        Enumeration<? extends ZipEntry> it = zipFile.entries();
+        while (it.hasMoreElements()) {
+            ZipEntry entry = it.nextElement();
+            if (!entry.isDirectory()) {
+                entries.put(entry.getName(), entry);
+            }
+        }
+        return new JarResourceIndex(jar, zipFile, entries);
+    }
+
+    /**
+     * @return the indexed jar file
+     */
+    Path getJar() {
+        return jar;
+    }
+
+    /**
+     * Whether the jar contains the resource
+     */
+    boolean contains(@NotNull String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * Opens the resource with the given name.
+     *
+     * @param name the resource name such as <tt>org/apache/camel/catalog/components/timer.json</tt>
+     * @return the resource, or <tt>null</tt> if the jar does not contain the resource or the index has been closed
+     */
+    @Nullable
+    InputStream getResourceAsStream(@NotNull String name) {
+        ZipEntry entry = entries.get(name);
+        if (entry == null || closed) {
+            return null;
+        }
+        try {
+            return zipFile.getInputStream(entry);
+        } catch (IOException | IllegalStateException e) {
+            // the zip file throws illegal state if it is closed by another thread
+            return null;
+        }
+    }
+
+    /**
+     * @return number of resources in the jar
+     */
+    int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        zipFile.close();
+    }
+}
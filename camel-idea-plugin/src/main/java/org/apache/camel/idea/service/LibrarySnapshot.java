@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Snapshot of the libraries each module depends on, which is used to find the libraries added or removed since
+ * the dependencies of the project were last scanned, so only the changed libraries have to be scanned again.
+ * <p/>
+ * A library is identified by its name, such as <tt>maven: org.apache.camel:camel-core:2.20.1</tt>, which includes
+ * the coordinates of the library.
+ */
+public final class LibrarySnapshot {
+
+    // the library names of each module by the module name, guarded by this
+    private final Map<String, Set<String>> moduleLibraries = new HashMap<>();
+
+    /**
+     * Updates the snapshot with the current libraries of the modules of the project.
+     *
+     * @param libraries the library names of each module by the module name, which replace the snapshot
+     * @return the difference between the previous snapshot and the current libraries
+     */
+    @NotNull
+    public synchronized Diff update(@NotNull Map<String, Set<String>> libraries) {
+        Set<String> changedModules = new LinkedHashSet<>();
+        for (Map.Entry<String, Set<String>> entry : libraries.entrySet()) {
+            if (!entry.getValue().equals(moduleLibraries.get(entry.getKey()))) {
+                changedModules.add(entry.getKey());
+            }
+        }
+        boolean removedModules = !libraries.keySet().containsAll(moduleLibraries.keySet());
+        if (changedModules.isEmpty() && !removedModules) {
+            return new Diff(Collections.emptySet(), Collections.emptySet(), Collections.emptySet());
+        }
+
+        // a library is only added or removed if no other module already had or still has it
+        Set<String> before = allLibraries(moduleLibraries);
+        Set<String> after = allLibraries(libraries);
+        Set<String> added = new LinkedHashSet<>(after);
+        added.removeAll(before);
+        Set<String> removed = new LinkedHashSet<>(before);
+        removed.removeAll(after);
+
+        moduleLibraries.clear();
+        libraries.forEach((module, names) -> moduleLibraries.put(module, new HashSet<>(names)));
+        return new Diff(changedModules, added, removed);
+    }
+
+    /**
+     * Forgets the snapshot, so all the libraries are scanned again by the next update.
+     */
+    public synchronized void clear() {
+        moduleLibraries.clear();
+    }
+
+    private static Set<String> allLibraries(Map<String, Set<String>> libraries) {
+        Set<String> answer = new HashSet<>();
+        libraries.values().forEach(answer::addAll);
+        return answer;
+    }
+
+    /**
+     * The difference between two snapshots.
+     */
+    public static final class Diff {
+
+        private final Set<String> changedModules;
+        private final Set<String> addedLibraries;
+        private final Set<String> removedLibraries;
+
+        Diff(Set<String> changedModules, Set<String> addedLibraries, Set<String> removedLibraries) {
+            this.changedModules = Collections.unmodifiableSet(changedModules);
+            this.addedLibraries = Collections.unmodifiableSet(addedLibraries);
+            this.removedLibraries = Collections.unmodifiableSet(removedLibraries);
+        }
+
+        /**
+         * @return the names of the modules which are new or whose libraries have changed
+         */
+        @NotNull
+        public Set<String> getChangedModules() {
+            return changedModules;
+        }
+
+        /**
+         * @return the libraries which no module depended on before
+         */
+        @NotNull
+        public Set<String> getAddedLibraries() {
+            return addedLibraries;
+        }
+
+        /**
+         * @return the libraries which no module depends on anymore
+         */
+        @NotNull
+        public Set<String> getRemovedLibraries() {
+            return removedLibraries;
+        }
+
+        /**
+         * Whether nothing has changed, in which case the project does not have to be scanned again
+         */
+        public boolean isEmpty() {
+            return changedModules.isEmpty() && addedLibraries.isEmpty() && removedLibraries.isEmpty();
+        }
+    }
+}
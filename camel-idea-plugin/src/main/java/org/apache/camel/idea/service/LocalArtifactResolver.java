@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resolves maven artifacts from the repositories and caches on the local disk only, such as the local maven repository,
+ * without ever accessing the network.
+ * <p/>
+ * The lookup is bounded by a time budget, so a slow disk or a huge cache cannot stall the caller, which should
+ * fall back to another artifact if the artifact could not be resolved in time.
+ */
+final class LocalArtifactResolver {
+
+    /**
+     * The default time budget for resolving an artifact.
+     */
+    static final long DEFAULT_TIME_BUDGET_MILLIS = 2000;
+
+    /**
+     * The layout of the artifacts in a local repository.
+     */
+    enum Layout {
+        /**
+         * <tt>group/path/artifact/version/artifact-version.jar</tt> as used by maven
+         */
+        MAVEN,
+        /**
+         * <tt>group.id/artifact/version/hash/artifact-version.jar</tt> as used by the gradle artifact cache
+         */
+        GRADLE,
+        /**
+         * <tt>group.id/artifact/jars/artifact-version.jar</tt> as used by the grape cache
+         */
+        GRAPE
+    }
+
+    private final List<Repository> repositories = new ArrayList<>();
+    private final long timeBudgetMillis;
+
+    LocalArtifactResolver(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * Creates a resolver for the local maven repository, and the gradle and grape caches of the user.
+     */
+    static LocalArtifactResolver withDefaultRepositories() {
+        LocalArtifactResolver answer = new LocalArtifactResolver(DEFAULT_TIME_BUDGET_MILLIS);
+        String home = System.getProperty("user.home");
+        String mavenRepository = System.getProperty("maven.repo.local");
+        answer.addRepository(mavenRepository != null ? Paths.get(mavenRepository) : Paths.get(home, ".m2", "repository"), Layout.MAVEN);
+        answer.addRepository(Paths.get(home, ".gradle", "caches", "modules-2", "files-2.1"), Layout.GRADLE);
+        String grapeRoot = System.getProperty("grape.root");
+        answer.addRepository(grapeRoot != null ? Paths.get(grapeRoot, "grapes") : Paths.get(home, ".groovy", "grapes"), Layout.GRAPE);
+        return answer;
+    }
+
+    /**
+     * Adds a local repository to resolve artifacts from, in order of preference.
+     */
+    void addRepository(@NotNull Path root, @NotNull Layout layout) {
+        repositories.add(new Repository(root, layout));
+    }
+
+    /**
+     * Resolves the jar of the artifact from the local repositories.
+     *
+     * @return the jar file, or <tt>null</tt> if the artifact was not found within the time budget
+     */
+    @Nullable
+    Path resolve(@NotNull String groupId, @NotNull String artifactId, @NotNull String version) {
+        long deadline = System.currentTimeMillis() + timeBudgetMillis;
+        String fileName = artifactId + "-" + version + ".jar";
+
+        for (Repository repository : repositories) {
+            if (System.currentTimeMillis() > deadline) {
+                return null;
+            }
+            Path jar = repository.resolve(groupId, artifactId, version, fileName, deadline);
+            if (jar != null) {
+                return jar;
+            }
+        }
+        return null;
+    }
+
+    private static final class Repository {
+        private final Path root;
+        private final Layout layout;
+
+        Repository(Path root, Layout layout) {
+            this.root = root;
+            this.layout = layout;
+        }
+
+        Path resolve(String groupId, String artifactId, String version, String fileName, long deadline) {
+            switch (layout) {
+            case MAVEN:
+                return existing(root.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version).resolve(fileName));
+            case GRAPE:
+                return existing(root.resolve(groupId).resolve(artifactId).resolve("jars").resolve(fileName));
+            case GRADLE:
+                Path dir = root.resolve(groupId).resolve(artifactId).resolve(version);
+                if (!Files.isDirectory(dir)) {
+                    return null;
+                }
+                // the jar is in a sub directory named by the hash of the jar
+                try (DirectoryStream<Path> hashes = Files.newDirectoryStream(dir)) {
+                    for (Path hash : hashes) {
+                        if (System.currentTimeMillis() > deadline) {
+                            return null;
+                        }
+                        Path jar = existing(hash.resolve(fileName));
+                        if (jar != null) {
+                            return jar;
+                        }
+                    }
+                } catch (IOException e) {
+                    // ignore
+                }
+                return null;
+            default:
+                return null;
+            }
+        }
+
+        private static Path existing(Path jar) {
+            return Files.isRegularFile(jar) && Files.isReadable(jar) ? jar : null;
+        }
+    }
+}
@@ -17,8 +17,7 @@
 package org.apache.camel.idea.service;
 
 import com.intellij.openapi.components.ServiceManager;
-import com.intellij.openapi.project.Project;
-import org.apache.camel.idea.util.StringUtils;
+import com.intellij.psi.PsiElement;
 
 public final class QueryUtils {
 
@@ -28,13 +27,10 @@ public final class QueryUtils {
     /**
      * Validate if the query contain a known camel component
      */
-    public static boolean isQueryContainingCamelComponent(Project project, String query) {
-        // is this a possible Camel endpoint uri which we know
+    public static boolean isQueryContainingCamelComponent(PsiElement element, String query) {
+        // is this a possible Camel endpoint uri which we know, eg starting with a known scheme and a colon
         if (query != null && !query.isEmpty()) {
-            String componentName = StringUtils.asComponentName(query);
-            if (componentName != null && ServiceManager.getService(project, CamelCatalogService.class).get().findComponentNames().contains(componentName)) {
-                return true;
-            }
+            return ServiceManager.getService(element.getProject(), CamelModuleCatalogService.class).getCatalogService(element).getSchemeTrie().matchScheme(query) != null;
         }
         return false;
     }
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Schedules the scans of the project dependencies, so a burst of events, such as the root and module events during
+ * a maven or gradle sync, is coalesced into a single scan.
+ * <p/>
+ * A scan is started when no other scan has been requested within the quiet period, and a scan which is still running
+ * when another scan is requested is cancelled, as its result is stale. The counters can be used for statistics such as
+ * how many events were collapsed.
+ */
+public final class ScanScheduler {
+
+    /**
+     * A scan started by the scheduler.
+     */
+    public interface Scan {
+
+        /**
+         * Cancels the scan if it is still running.
+         *
+         * @return <tt>true</tt> if the scan was cancelled, or <tt>false</tt> if it had already finished
+         */
+        boolean cancel();
+    }
+
+    private final long quietPeriodMillis;
+    private final ScheduledExecutorService executor;
+    private final Supplier<Scan> launcher;
+
+    // the pending and the running scan, guarded by this
+    private long generation;
+    private ScheduledFuture<?> pending;
+    private Scan running;
+    private boolean disposed;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+    private final AtomicLong scans = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+
+    /**
+     * @param quietPeriodMillis the time to wait for other requests before a scan is started
+     * @param executor          to wait for the quiet period, which must not be blocked by the scans
+     * @param launcher          to start a scan, such as a background task, which must not block
+     */
+    public ScanScheduler(long quietPeriodMillis, @NotNull ScheduledExecutorService executor, @NotNull Supplier<Scan> launcher) {
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.executor = executor;
+        this.launcher = launcher;
+    }
+
+    /**
+     * Requests a scan, which replaces the pending scan if not yet started, and cancels the running scan.
+     */
+    public synchronized void request() {
+        if (disposed) {
+            return;
+        }
+        requests.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            collapsed.incrementAndGet();
+        }
+        cancelRunning();
+
+        long scheduled = ++generation;
+        pending = executor.schedule(() -> start(scheduled), quietPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void start(long scheduled) {
+        // a newer request may have been made just when the quiet period of this one ended
+        if (disposed || scheduled != generation) {
+            return;
+        }
+        pending = null;
+        scans.incrementAndGet();
+        running = launcher.get();
+    }
+
+    private void cancelRunning() {
+        if (running != null && running.cancel()) {
+            cancelled.incrementAndGet();
+        }
+        running = null;
+    }
+
+    /**
+     * Whether a scan has been requested and is waiting for the quiet period to end.
+     */
+    public synchronized boolean isPending() {
+        return pending != null;
+    }
+
+    /**
+     * Gets the scan last started, which may have finished.
+     */
+    @Nullable
+    public synchronized Scan getRunning() {
+        return running;
+    }
+
+    /**
+     * Number of requested scans.
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Number of requested scans which were collapsed into a later scan, as they were requested within its quiet period.
+     */
+    public long getCollapsed() {
+        return collapsed.get();
+    }
+
+    /**
+     * Number of started scans.
+     */
+    public long getScans() {
+        return scans.get();
+    }
+
+    /**
+     * Number of started scans which were cancelled by a later request before they finished.
+     */
+    public long getCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Cancels the pending and the running scan, and ignores any later requests.
+     */
+    public synchronized void dispose() {
+        disposed = true;
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        cancelRunning();
+    }
+}
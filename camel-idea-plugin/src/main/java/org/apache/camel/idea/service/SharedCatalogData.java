@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The catalog data of a Camel version, which is shared by all the open projects using that version.
+ * <p/>
+ * The data only covers the components which are part of the catalog itself, as each project has its own
+ * overlay of third party components. The data is obtained from the {@link CamelCatalogStore} which keeps
+ * track of how many projects are using it.
+ */
+public final class SharedCatalogData {
+
+    // guarded by the store
+    int references;
+
+    private final String version;
+    private final ConcurrentMap<String, String> componentJSonSchemas = new ConcurrentHashMap<>();
+    private final ComponentModelCache componentModelCache = new ComponentModelCache();
+    private volatile Set<String> componentNames;
+    private volatile CatalogSnapshot snapshot;
+    private volatile boolean snapshotUnavailable;
+    private volatile boolean snapshotBuilding;
+
+    SharedCatalogData(@NotNull String version) {
+        this.version = version;
+    }
+
+    /**
+     * @return the catalog version
+     */
+    @NotNull
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the JSon schema of the component, which is loaded once and then shared.
+     *
+     * @param name   the component name
+     * @param loader to load the JSon schema from the catalog
+     * @return the JSon schema, or <tt>null</tt> if the component is unknown
+     */
+    @Nullable
+    public String getComponentJSonSchema(@NotNull String name, @NotNull Function<String, String> loader) {
+        String json = componentJSonSchemas.get(name);
+        if (json == null) {
+            json = loader.apply(name);
+            if (json != null) {
+                String existing = componentJSonSchemas.putIfAbsent(name, json);
+                json = existing != null ? existing : json;
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Gets the names of the components in the catalog.
+     *
+     * @param loader to load the names from the catalog, which should not include any third party components
+     */
+    @NotNull
+    public Set<String> getComponentNames(@NotNull Supplier<List<String>> loader) {
+        Set<String> answer = componentNames;
+        if (answer == null) {
+            answer = Collections.unmodifiableSet(new HashSet<>(loader.get()));
+            componentNames = answer;
+        }
+        return answer;
+    }
+
+    /**
+     * @return the cache of the component models
+     */
+    @NotNull
+    public ComponentModelCache getComponentModelCache() {
+        return componentModelCache;
+    }
+
+    /**
+     * @return the snapshot of the catalog, or <tt>null</tt> if not loaded
+     */
+    @Nullable
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    void setSnapshot(@Nullable CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Whether the snapshot could not be read or written, and the JSon schemas should be used instead
+     */
+    public boolean isSnapshotUnavailable() {
+        return snapshotUnavailable;
+    }
+
+    void setSnapshotUnavailable(boolean snapshotUnavailable) {
+        this.snapshotUnavailable = snapshotUnavailable;
+    }
+
+    /**
+     * Whether the snapshot is being built in the background, and the JSon schemas should be used until it is built
+     */
+    public boolean isSnapshotBuilding() {
+        return snapshotBuilding;
+    }
+
+    void setSnapshotBuilding(boolean snapshotBuilding) {
+        this.snapshotBuilding = snapshotBuilding;
+    }
+}
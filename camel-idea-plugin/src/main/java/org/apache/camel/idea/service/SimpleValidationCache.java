@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.SimpleValidationResult;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Cache of the {@link SimpleValidationResult}s of simple expressions and predicates, keyed by the camel-core classloader,
+ * the text and whether the text is used as a predicate, which is shared by the annotator and the inspection so an unchanged
+ * expression is not parsed with the camel-core classes again on every highlighting pass.
+ * <p/>
+ * The results hold both the short and the long error message. The cache should be cleared when the camel-core
+ * classloader is rebuilt.
+ */
+public final class SimpleValidationCache extends ValidationResultCache<SimpleValidationCache.Key, SimpleValidationResult> {
+
+    /**
+     * @param currentLoader the camel-core classloader in use, as the results of another classloader are not cached
+     */
+    public SimpleValidationCache(@NotNull Supplier<ClassLoader> currentLoader) {
+        this(DEFAULT_MAX_SIZE, currentLoader);
+    }
+
+    public SimpleValidationCache(int maxSize, @NotNull Supplier<ClassLoader> currentLoader) {
+        super(maxSize, key -> key.loader == currentLoader.get());
+    }
+
+    /**
+     * Gets the validation result of the simple expression or predicate from the cache, or validates it with the catalog.
+     *
+     * @param catalog   the catalog to validate with
+     * @param loader    the classloader that can load classes from camel-core
+     * @param text      the simple expression or predicate
+     * @param predicate whether the text is used as a predicate
+     * @return the validation result, which must not be changed
+     */
+    @NotNull
+    public SimpleValidationResult validate(@NotNull CamelCatalog catalog, @NotNull ClassLoader loader, @NotNull String text, boolean predicate) {
+        // parsing with the camel-core classes may take a while
+        return get(new Key(loader, text, predicate),
+            () -> predicate ? catalog.validateSimplePredicate(loader, text) : catalog.validateSimpleExpression(loader, text));
+    }
+
+    static final class Key {
+        private final ClassLoader loader;
+        private final String text;
+        private final boolean predicate;
+
+        Key(ClassLoader loader, String text, boolean predicate) {
+            this.loader = loader;
+            this.text = text;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            // the classloader is compared by identity as a new classloader is created for another camel-core library
+            return loader == that.loader && predicate == that.predicate && text.equals(that.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(loader), text, predicate);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import com.intellij.openapi.diagnostic.Logger;
+import org.apache.camel.catalog.CatalogHelper;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Scans the jars of third party libraries for Camel components.
+ * <p/>
+ * The jars are scanned in parallel by a shared bounded pool, as a project may have hundreds of libraries, and the scanner
+ * does not change the catalog, so the components found can be added to the catalog at once.
+ * The entries of the jars are read directly from the jar files, without creating a classloader, and the jars which
+ * have already been scanned are not scanned again if a {@link ThirdPartyScanCache} is used.
+ */
+public final class ThirdPartyComponentScanner {
+
+    private static final Logger LOG = Logger.getInstance(ThirdPartyComponentScanner.class);
+
+    private static final String COMPONENT_PROPERTIES = "META-INF/services/org/apache/camel/component.properties";
+    private static final String COMPONENT_DIRECTORY = "META-INF/services/org/apache/camel/component/";
+
+    /**
+     * How often the scan checks whether it has been cancelled while waiting for the jars to be scanned.
+     */
+    private static final long CHECK_CANCELED_MILLIS = 100;
+
+    private final boolean legacyScan;
+    private final ExecutorService executor;
+    private final ThirdPartyScanCache cache;
+
+    /**
+     * @param legacyScan whether to scan the jars without a component.properties file for the component files
+     * @param executor   the pool which scans the jars, which is shared by the scans and bounds the number of jars scanned
+     *                   at the same time, or <tt>null</tt> to scan the jars one at a time in the calling thread
+     * @param cache      the cache of the scanned jars, or <tt>null</tt> to always scan the jars
+     */
+    ThirdPartyComponentScanner(boolean legacyScan, @Nullable ExecutorService executor, @Nullable ThirdPartyScanCache cache) {
+        this.legacyScan = legacyScan;
+        this.executor = executor;
+        this.cache = cache;
+    }
+
+    /**
+     * Creates a scanner which scans the jars one at a time in the calling thread, and always scans the jars.
+     */
+    public ThirdPartyComponentScanner(boolean legacyScan) {
+        this(legacyScan, null, null);
+    }
+
+    /**
+     * Scans the jars for Camel components.
+     *
+     * @param jars          the jars to scan
+     * @param known         whether a component scheme is already known, in which case the component is skipped
+     * @param checkCanceled called while waiting for the jars to be scanned, which can throw an exception to cancel the scan
+     * @return the components found in each jar, in the order of the jars
+     */
+    @NotNull
+    public List<List<Component>> scan(@NotNull List<Path> jars, @NotNull Predicate<String> known, @NotNull Runnable checkCanceled) {
+        if (executor == null || jars.size() <= 1) {
+            List<List<Component>> answer = new ArrayList<>();
+            for (Path jar : jars) {
+                checkCanceled.run();
+                answer.add(scan(jar, known));
+            }
+            return answer;
+        }
+
+        List<Future<List<Component>>> futures = jars.stream()
+            .map(jar -> executor.submit(() -> scan(jar, known)))
+            .collect(Collectors.toList());
+        try {
+            List<List<Component>> answer = new ArrayList<>();
+            for (Future<List<Component>> future : futures) {
+                answer.add(await(future, checkCanceled));
+            }
+            return answer;
+        } finally {
+            // stops the scan of the remaining jars if cancelled, as the pool is shared it is not shut down
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static List<Component> await(Future<List<Component>> future, Runnable checkCanceled) {
+        while (true) {
+            checkCanceled.run();
+            try {
+                return future.get(CHECK_CANCELED_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // check again whether cancelled
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Collections.emptyList();
+            } catch (ExecutionException e) {
+                LOG.warn("Error scanning for custom Camel components", e.getCause());
+                return Collections.emptyList();
+            }
+        }
+    }
+
+    /**
+     * Scans a jar for Camel components.
+     * <p/>
+     * Only the needed entries of the jar are read, which are found by the central directory of the jar,
+     * so the jar is neither loaded by a classloader nor read in full.
+     *
+     * @param jar   the jar
+     * @param known whether a component scheme is already known, in which case the component is skipped
+     * @return the components found which are not known
+     */
+    @NotNull
+    List<Component> scan(@NotNull Path jar, @NotNull Predicate<String> known) {
+        if (cache == null) {
+            return scan(jar, known, null);
+        }
+
+        ThirdPartyScanCache.Fingerprint fingerprint;
+        try {
+            fingerprint = ThirdPartyScanCache.Fingerprint.of(jar);
+        } catch (IOException e) {
+            LOG.warn("Error scanning for custom Camel components in " + jar, e);
+            return Collections.emptyList();
+        }
+        List<Component> answer = cache.get(fingerprint, legacyScan);
+        if (answer == null) {
+            // the known components are cached as well, as they may no longer be known the next time the jar is scanned
+            answer = scan(jar, scheme -> false, fingerprint);
+        }
+        return answer.stream().filter(component -> !known.test(component.getScheme())).collect(Collectors.toList());
+    }
+
+    private List<Component> scan(Path jar, Predicate<String> known, @Nullable ThirdPartyScanCache.Fingerprint fingerprint) {
+        List<Component> answer = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            // is there any custom Camel components in this library?
+            for (String scheme : findComponentNames(zip)) {
+                if (!known.test(scheme)) {
+                    // find the class name
+                    Properties properties = loadProperties(zip, COMPONENT_DIRECTORY + scheme);
+                    String javaType = properties != null ? properties.getProperty("class") : null;
+                    String json = javaType != null ? loadText(zip, getComponentJSonSchemaPath(javaType, scheme)) : null;
+                    answer.add(new Component(scheme, javaType, json));
+                }
+            }
+        } catch (IOException e) {
+            // not cached so the jar is scanned again the next time
+            LOG.warn("Error scanning for custom Camel components in " + jar, e);
+            return answer;
+        }
+        if (fingerprint != null) {
+            cache.put(fingerprint, legacyScan, answer);
+        }
+        return answer;
+    }
+
+    private List<String> findComponentNames(ZipFile zip) throws IOException {
+        // load the component files using the recommended way by a component.properties file
+        Properties properties = loadProperties(zip, COMPONENT_PROPERTIES);
+        if (properties != null) {
+            String components = properties.getProperty("components");
+            if (components == null) {
+                return Collections.emptyList();
+            }
+            return Arrays.stream(components.split("\\s")).filter(name -> !name.isEmpty()).collect(Collectors.toList());
+        }
+        if (!legacyScan) {
+            return Collections.emptyList();
+        }
+
+        // okay then try to find the component files using a fallback using legacy scanning of the entries of the jar
+        List<String> answer = new ArrayList<>();
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String name = entry.getName().trim();
+            if (name.startsWith(COMPONENT_DIRECTORY) && !entry.isDirectory() && !name.endsWith(".class")) {
+                answer.add(name.substring(COMPONENT_DIRECTORY.length()));
+            }
+        }
+        return answer;
+    }
+
+    @Nullable
+    private static String getComponentJSonSchemaPath(String javaType, String scheme) {
+        int pos = javaType.lastIndexOf('.');
+        if (pos <= 0) {
+            return null;
+        }
+        return javaType.substring(0, pos).replace('.', '/') + "/" + scheme + ".json";
+    }
+
+    @Nullable
+    private static Properties loadProperties(ZipFile zip, String name) throws IOException {
+        ZipEntry entry = zip.getEntry(name);
+        if (entry == null || entry.isDirectory()) {
+            return null;
+        }
+        try (InputStream is = zip.getInputStream(entry)) {
+            Properties answer = new Properties();
+            answer.load(is);
+            return answer;
+        }
+    }
+
+    @Nullable
+    private static String loadText(ZipFile zip, @Nullable String name) throws IOException {
+        ZipEntry entry = name != null ? zip.getEntry(name) : null;
+        if (entry == null || entry.isDirectory()) {
+            return null;
+        }
+        try (InputStream is = zip.getInputStream(entry)) {
+            return CatalogHelper.loadText(is);
+        }
+    }
+
+    /**
+     * A Camel component found in a jar.
+     */
+    public static final class Component {
+
+        private final String scheme;
+        private final String javaType;
+        private final String json;
+
+        Component(@NotNull String scheme, @Nullable String javaType, @Nullable String json) {
+            this.scheme = scheme;
+            this.javaType = javaType;
+            this.json = json;
+        }
+
+        @NotNull
+        public String getScheme() {
+            return scheme;
+        }
+
+        /**
+         * @return the component class name, or <tt>null</tt> if the jar has no component file for the scheme
+         */
+        @Nullable
+        public String getJavaType() {
+            return javaType;
+        }
+
+        /**
+         * @return the component JSon schema, or <tt>null</tt> if the jar has no JSon schema for the component
+         */
+        @Nullable
+        public String getJson() {
+            return json;
+        }
+    }
+}
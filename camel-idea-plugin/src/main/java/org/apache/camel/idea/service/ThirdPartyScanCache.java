@@ -0,0 +1,293 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import com.intellij.openapi.diagnostic.Logger;
+import org.apache.camel.idea.service.ThirdPartyComponentScanner.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Persistent cache of the Camel components found in third party jars, so the jars do not have to be scanned again
+ * when the project is opened.
+ * <p/>
+ * The components of a jar are cached by the path, size and modification time of the jar, so a jar which has changed
+ * is scanned again. A jar without Camel components is cached as well, which is most of the jars of a project.
+ * The JSon schemas of the components are stored once by their hash.
+ */
+final class ThirdPartyScanCache {
+
+    private static final Logger LOG = Logger.getInstance(ThirdPartyScanCache.class);
+
+    private static final int MAGIC = 0xCA3E15CA;
+    private static final int FORMAT_VERSION = 1;
+    private static final int NULL = -1;
+
+    private final Path file;
+    // the cached scans by the jar path, guarded by this
+    private Map<String, Entry> entries;
+    private boolean dirty;
+
+    ThirdPartyScanCache(@NotNull Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Gets the cached components of the jar.
+     *
+     * @param jar        the fingerprint of the jar
+     * @param legacyScan whether the jar is scanned with the legacy scan
+     * @return the components, or <tt>null</tt> if the jar is not cached or has changed since it was cached
+     */
+    @Nullable
+    synchronized List<Component> get(@NotNull Fingerprint jar, boolean legacyScan) {
+        Entry entry = getEntries().get(jar.path);
+        if (entry == null || !entry.fingerprint.equals(jar) || entry.legacyScan != legacyScan) {
+            return null;
+        }
+        return entry.components;
+    }
+
+    /**
+     * Caches the components of the jar.
+     *
+     * @param jar        the fingerprint of the jar, which must be taken before the jar is scanned
+     * @param legacyScan whether the jar was scanned with the legacy scan
+     * @param components the components found in the jar, including the components which are already known
+     */
+    synchronized void put(@NotNull Fingerprint jar, boolean legacyScan, @NotNull List<Component> components) {
+        getEntries().put(jar.path, new Entry(jar, legacyScan, Collections.unmodifiableList(new ArrayList<>(components))));
+        dirty = true;
+    }
+
+    /**
+     * @return the number of cached jars
+     */
+    synchronized int size() {
+        return getEntries().size();
+    }
+
+    /**
+     * Saves the cache if it has changed, and removes the jars which no longer exist.
+     */
+    synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        entries.values().removeIf(entry -> !Files.isRegularFile(entry.fingerprint.getFile()));
+        try {
+            write();
+            dirty = false;
+        } catch (IOException e) {
+            LOG.warn("Cannot save third party component scan cache " + file, e);
+        }
+    }
+
+    private Map<String, Entry> getEntries() {
+        if (entries == null) {
+            entries = new HashMap<>();
+            if (Files.isRegularFile(file)) {
+                try {
+                    read();
+                } catch (IOException | RuntimeException e) {
+                    // the jars are scanned again
+                    LOG.info("Cannot read third party component scan cache " + file + " due " + e.getMessage());
+                    entries = new HashMap<>();
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void read() throws IOException {
+        // the file is read at once, so the lengths in the file can be checked against the bytes left
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a valid scan cache " + file);
+            }
+            Map<String, String> schemas = new HashMap<>();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                schemas.put(readString(in), readString(in));
+            }
+            count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = readString(in);
+                if (path == null) {
+                    throw new IOException("Missing jar path in scan cache " + file);
+                }
+                Fingerprint fingerprint = new Fingerprint(path, in.readLong(), in.readLong());
+                boolean legacyScan = in.readBoolean();
+                List<Component> components = new ArrayList<>();
+                int size = in.readInt();
+                for (int j = 0; j < size; j++) {
+                    String scheme = readString(in);
+                    String javaType = readString(in);
+                    String hash = readString(in);
+                    components.add(new Component(scheme, javaType, hash != null ? schemas.get(hash) : null));
+                }
+                entries.put(fingerprint.path, new Entry(fingerprint, legacyScan, Collections.unmodifiableList(components)));
+            }
+        }
+    }
+
+    private void write() throws IOException {
+        // the JSon schemas once by their hash, and then the jars with the hash of the JSon schemas of their components
+        Map<String, String> schemas = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            for (Component component : entry.components) {
+                if (component.getJson() != null) {
+                    schemas.put(CatalogSnapshot.sha1(component.getJson()), component.getJson());
+                }
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(schemas.size());
+        for (Map.Entry<String, String> schema : schemas.entrySet()) {
+            writeString(data, schema.getKey());
+            writeString(data, schema.getValue());
+        }
+        data.writeInt(entries.size());
+        for (Entry entry : entries.values()) {
+            writeString(data, entry.fingerprint.path);
+            data.writeLong(entry.fingerprint.size);
+            data.writeLong(entry.fingerprint.lastModified);
+            data.writeBoolean(entry.legacyScan);
+            data.writeInt(entry.components.size());
+            for (Component component : entry.components) {
+                writeString(data, component.getScheme());
+                writeString(data, component.getJavaType());
+                writeString(data, component.getJson() != null ? CatalogSnapshot.sha1(component.getJson()) : null);
+            }
+        }
+        data.flush();
+
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, out.toByteArray());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    @Nullable
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL) {
+            return null;
+        }
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The path, size and modification time of a jar, which identifies the content of the jar.
+     */
+    static final class Fingerprint {
+
+        private final String path;
+        private final long size;
+        private final long lastModified;
+
+        private Fingerprint(String path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Takes the fingerprint of the jar.
+         *
+         * @throws IOException is thrown if the size or modification time of the jar could not be read
+         */
+        @NotNull
+        static Fingerprint of(@NotNull Path jar) throws IOException {
+            Path path = jar.toAbsolutePath();
+            return new Fingerprint(path.toString(), Files.size(path), Files.getLastModifiedTime(path).toMillis());
+        }
+
+        Path getFile() {
+            return Paths.get(path);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Fingerprint that = (Fingerprint) o;
+            return size == that.size && lastModified == that.lastModified && path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, lastModified);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Fingerprint fingerprint;
+        private final boolean legacyScan;
+        private final List<Component> components;
+
+        private Entry(Fingerprint fingerprint, boolean legacyScan, List<Component> components) {
+            this.fingerprint = fingerprint;
+            this.legacyScan = legacyScan;
+            this.components = components;
+        }
+    }
+}
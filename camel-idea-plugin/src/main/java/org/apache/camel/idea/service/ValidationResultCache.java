@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Base class of the caches of validation results, which are bounded and evict the least recently used results,
+ * and count the hits and misses for statistics such as the hit rate. The subclasses define the key of the results.
+ * <p/>
+ * A key refers to the catalog or classloader the result was validated with, so a result is only cached while its
+ * key is current, as a result cached after the cache was cleared for a new catalog would keep the old one reachable.
+ *
+ * @param <K> the type of the key
+ * @param <V> the type of the validation result
+ */
+public abstract class ValidationResultCache<K, V> {
+
+    /**
+     * The default maximum number of cached results.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Map<K, V> results;
+    private final Predicate<K> current;
+
+    /**
+     * @param maxSize the maximum number of cached results
+     * @param current whether the catalog or classloader of a key is still in use
+     */
+    protected ValidationResultCache(int maxSize, @NotNull Predicate<K> current) {
+        this.results = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.current = current;
+    }
+
+    /**
+     * Gets the validation result from the cache, or validates and caches it if the key is still current.
+     *
+     * @param key       the key of the result
+     * @param validator to validate on a cache miss, which is called outside the lock as it may take a while
+     * @return the validation result, which must not be changed
+     */
+    @NotNull
+    protected V get(@NotNull K key, @NotNull Supplier<V> validator) {
+        V result;
+        synchronized (results) {
+            result = results.get(key);
+        }
+        if (result != null) {
+            hits.incrementAndGet();
+            return result;
+        }
+
+        misses.incrementAndGet();
+        result = validator.get();
+        synchronized (results) {
+            if (current.test(key)) {
+                results.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes all the cached results, such as when the catalog is switched or the camel-core classloader is rebuilt.
+     */
+    public void clear() {
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    /**
+     * @return number of cached results
+     */
+    public int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    /**
+     * @return number of validations which was served from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of validations which was not served from the cache
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the ratio of the validations which was served from the cache, or <tt>0</tt> if nothing has been validated
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+}
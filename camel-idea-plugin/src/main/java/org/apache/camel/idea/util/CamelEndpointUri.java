@@ -0,0 +1,496 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A Camel endpoint uri parsed into its scheme, path segments and query parameters, with the offsets of each part
+ * in the source text the uri was parsed from, such as the text of a java string literal or xml attribute.
+ * <p/>
+ * The source may be xml escaped with <tt>&amp;amp;</tt> and may be split over several lines or java string concatenations,
+ * which are not part of the parsed uri but are included in the offsets. Property placeholders <tt>{{ }}</tt>, simple
+ * expressions <tt>${ }</tt> and string format tokens such as <tt>%s</tt> are kept as a whole, so any <tt>?</tt>,
+ * <tt>&amp;</tt> or <tt>=</tt> inside them do not split the uri.
+ */
+public final class CamelEndpointUri {
+
+    private static final String XML_AMP = "&amp;";
+
+    private final String source;
+    private final String text;
+    // the offset in the source of each char in the text, or null if the text is the source
+    private final int[] offsets;
+    private Part scheme;
+    private Part path;
+    private final List<Part> pathSegments = new ArrayList<>(4);
+    private boolean query;
+    private final List<Parameter> parameters = new ArrayList<>(4);
+    private boolean trailingSeparator;
+
+    private CamelEndpointUri(String source, String text, int[] offsets) {
+        this.source = source;
+        this.text = text;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Parses the endpoint uri.
+     *
+     * @param source the source text of the uri, such as <tt>timer:foo?delay=1000&amp;amp;period=5000</tt>
+     * @return the parsed uri, which has no scheme if the text has no colon
+     */
+    @NotNull
+    public static CamelEndpointUri parse(@NotNull String source) {
+        CamelEndpointUri answer = unescape(source);
+        answer.tokenize();
+        return answer;
+    }
+
+    /**
+     * Removes the xml escaping, line breaks and java string concatenations from the source, and remembers where
+     * each remaining char is in the source.
+     */
+    private static CamelEndpointUri unescape(String source) {
+        int length = source.length();
+        int start = 0;
+        int end = length;
+        while (start < end && Character.isWhitespace(source.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(source.charAt(end - 1))) {
+            end--;
+        }
+
+        StringBuilder sb = null;
+        int[] offsets = null;
+        int n = 0;
+        int i = start;
+        while (i < end) {
+            char ch = source.charAt(i);
+            int skip = 0;
+            char out = ch;
+            if (ch == '&' && source.startsWith(XML_AMP, i)) {
+                skip = XML_AMP.length();
+            } else if (ch == '"' || ch == '\n' || ch == '\r') {
+                skip = noiseLength(source, i, end);
+                out = skip > 0 ? 0 : ch;
+            }
+
+            if (skip == 0 && sb == null) {
+                // nothing to remove so far
+                i++;
+                continue;
+            }
+            if (sb == null) {
+                sb = new StringBuilder(end - start);
+                offsets = new int[end - start + 1];
+                for (int j = start; j < i; j++) {
+                    sb.append(source.charAt(j));
+                    offsets[n++] = j;
+                }
+            }
+            if (out != 0) {
+                sb.append(out);
+                offsets[n++] = i;
+            }
+            i += Math.max(skip, 1);
+        }
+
+        if (sb == null) {
+            if (start == 0 && end == length) {
+                return new CamelEndpointUri(source, source, null);
+            }
+            offsets = new int[end - start + 1];
+            for (int j = start; j < end; j++) {
+                offsets[n++] = j;
+            }
+            sb = new StringBuilder(source.substring(start, end));
+        }
+        offsets[n] = end;
+        return new CamelEndpointUri(source, sb.toString(), offsets);
+    }
+
+    /**
+     * Gets the length of a line break with the indentation of the next line, or a quote which may be the end of a java string
+     * which is concatenated with the next string such as <tt>" +&#92;n  "</tt>.
+     */
+    private static int noiseLength(String source, int index, int end) {
+        int i = index;
+        if (source.charAt(i) == '"') {
+            i++;
+            i = skipWhitespace(source, i, end);
+            if (i < end && source.charAt(i) == '+') {
+                i = skipWhitespace(source, i + 1, end);
+                if (i < end && source.charAt(i) == '"') {
+                    i++;
+                }
+            } else if (i < end) {
+                // a quote inside the text, which is not a concatenation, is kept
+                return 0;
+            }
+            return i - index;
+        }
+        return skipWhitespace(source, i, end) - index;
+    }
+
+    private static int skipWhitespace(String source, int index, int end) {
+        int i = index;
+        while (i < end && Character.isWhitespace(source.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private void tokenize() {
+        int length = text.length();
+        int i = 0;
+
+        // the scheme is up to the first colon
+        int colon = -1;
+        while (i < length) {
+            char ch = text.charAt(i);
+            if (ch == ':') {
+                colon = i;
+                break;
+            } else if (ch == '?' || ch == '{' || ch == '$' || ch == '%') {
+                break;
+            }
+            i++;
+        }
+        int pathStart = 0;
+        if (colon > 0) {
+            scheme = newPart(0, colon, false);
+            pathStart = colon + 1;
+        }
+
+        // then the path up to the question mark
+        i = pathStart;
+        int segmentStart = pathStart;
+        boolean pathPlaceholder = false;
+        boolean segmentPlaceholder = false;
+        while (i < length && text.charAt(i) != '?') {
+            int skip = placeholderLength(i);
+            if (skip > 0) {
+                pathPlaceholder = true;
+                segmentPlaceholder = true;
+                i += skip;
+                continue;
+            }
+            char ch = text.charAt(i);
+            if (ch == ':' || ch == '/') {
+                addPathSegment(segmentStart, i, segmentPlaceholder);
+                segmentStart = i + 1;
+                segmentPlaceholder = false;
+            }
+            i++;
+        }
+        addPathSegment(segmentStart, i, segmentPlaceholder);
+        if (i > pathStart) {
+            path = newPart(pathStart, i, pathPlaceholder);
+        }
+        if (i >= length) {
+            return;
+        }
+
+        // and the query parameters separated by ampersands
+        query = true;
+        trailingSeparator = text.charAt(length - 1) == '?' || text.charAt(length - 1) == '&';
+        i++;
+        int paramStart = i;
+        int equals = -1;
+        boolean namePlaceholder = false;
+        boolean valuePlaceholder = false;
+        while (i <= length) {
+            if (i == length || text.charAt(i) == '&') {
+                addParameter(paramStart, equals, i, namePlaceholder, valuePlaceholder);
+                paramStart = i + 1;
+                equals = -1;
+                namePlaceholder = false;
+                valuePlaceholder = false;
+                i++;
+                continue;
+            }
+            int skip = placeholderLength(i);
+            if (skip > 0) {
+                if (equals < 0) {
+                    namePlaceholder = true;
+                } else {
+                    valuePlaceholder = true;
+                }
+                i += skip;
+                continue;
+            }
+            if (equals < 0 && text.charAt(i) == '=') {
+                equals = i;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Gets the length of the property placeholder, simple expression or string format token at the index.
+     */
+    private int placeholderLength(int index) {
+        char ch = text.charAt(index);
+        int next = index + 1 < text.length() ? text.charAt(index + 1) : 0;
+        if (ch == '{' && next == '{') {
+            int end = text.indexOf("}}", index + 2);
+            return end < 0 ? text.length() - index : end + 2 - index;
+        } else if (ch == '$' && (next == '{' || text.startsWith("simple{", index + 1))) {
+            // simple expressions may have nested braces
+            int i = text.indexOf('{', index) + 1;
+            int depth = 1;
+            while (i < text.length() && depth > 0) {
+                char c = text.charAt(i);
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth--;
+                }
+                i++;
+            }
+            return i - index;
+        } else if (ch == '%' && (next == 's' || next == 'd' || next == 'b')) {
+            return 2;
+        }
+        return 0;
+    }
+
+    private void addPathSegment(int start, int end, boolean placeholder) {
+        if (end > start) {
+            pathSegments.add(newPart(start, end, placeholder));
+        }
+    }
+
+    private void addParameter(int start, int equals, int end, boolean namePlaceholder, boolean valuePlaceholder) {
+        if (end <= start) {
+            return;
+        }
+        Part name = newPart(start, equals < 0 ? end : equals, namePlaceholder);
+        Part value = equals < 0 ? null : newPart(equals + 1, end, valuePlaceholder);
+        parameters.add(new Parameter(parameters.isEmpty() ? '?' : '&', name, value));
+    }
+
+    private Part newPart(int start, int end, boolean placeholder) {
+        return new Part(text.substring(start, end), toSourceOffset(start), end > start ? toSourceOffset(end - 1) + 1 : toSourceOffset(start), placeholder);
+    }
+
+    private int toSourceOffset(int index) {
+        return offsets != null ? offsets[index] : index;
+    }
+
+    /**
+     * @return the source text the uri was parsed from
+     */
+    @NotNull
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the uri without any xml escaping, line breaks or java string concatenations, such as to validate with the camel catalog.
+     */
+    @NotNull
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return the scheme, or <tt>null</tt> if the uri has no scheme
+     */
+    @Nullable
+    public Part getScheme() {
+        return scheme;
+    }
+
+    /**
+     * @return the path after the scheme up to the query parameters, or <tt>null</tt> if the uri has no path
+     */
+    @Nullable
+    public Part getPath() {
+        return path;
+    }
+
+    /**
+     * @return the segments of the path, separated by colons or slashes
+     */
+    @NotNull
+    public List<Part> getPathSegments() {
+        return Collections.unmodifiableList(pathSegments);
+    }
+
+    /**
+     * Whether the uri has a question mark which starts the query parameters
+     */
+    public boolean hasQuery() {
+        return query;
+    }
+
+    /**
+     * Whether the uri ends with a question mark or ampersand, such as while a new parameter is being typed
+     */
+    public boolean hasTrailingSeparator() {
+        return trailingSeparator;
+    }
+
+    /**
+     * @return the query parameters in the order they appear in the uri
+     */
+    @NotNull
+    public List<Parameter> getParameters() {
+        return Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * @return the query parameters with the given name, as a parameter may be repeated
+     */
+    @NotNull
+    public List<Parameter> getParameters(@NotNull String name) {
+        List<Parameter> answer = new ArrayList<>(1);
+        for (Parameter parameter : parameters) {
+            if (parameter.getName().getText().equals(name)) {
+                answer.add(parameter);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Gets the query parameter at the offset in the source, such as the caret position.
+     *
+     * @return the parameter, or <tt>null</tt> if the offset is not within a parameter
+     */
+    @Nullable
+    public Parameter getParameterAt(int offset) {
+        for (Parameter parameter : parameters) {
+            if (offset >= parameter.getName().getStart() && offset <= parameter.getEnd()) {
+                return parameter;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    /**
+     * A part of the uri, with the offsets of the part in the source.
+     */
+    public static final class Part {
+
+        private final String text;
+        private final int start;
+        private final int end;
+        private final boolean placeholder;
+
+        Part(String text, int start, int end, boolean placeholder) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.placeholder = placeholder;
+        }
+
+        /**
+         * @return the text of the part, without any xml escaping or line breaks
+         */
+        @NotNull
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return the offset in the source where the part starts
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * @return the offset in the source after the end of the part
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        /**
+         * Whether the part has a property placeholder, simple expression or string format token, which cannot be validated
+         */
+        public boolean hasPlaceholder() {
+            return placeholder;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * A query parameter of the uri.
+     */
+    public static final class Parameter {
+
+        private final char separator;
+        private final Part name;
+        private final Part value;
+
+        Parameter(char separator, Part name, Part value) {
+            this.separator = separator;
+            this.name = name;
+            this.value = value;
+        }
+
+        /**
+         * @return the separator before the parameter, which is <tt>?</tt> for the first parameter and <tt>&amp;</tt> for the others
+         */
+        public char getSeparator() {
+            return separator;
+        }
+
+        @NotNull
+        public Part getName() {
+            return name;
+        }
+
+        /**
+         * @return the value, or <tt>null</tt> if the parameter has no equals sign
+         */
+        @Nullable
+        public Part getValue() {
+            return value;
+        }
+
+        /**
+         * @return the offset in the source after the end of the parameter
+         */
+        public int getEnd() {
+            return value != null ? value.getEnd() : name.getEnd();
+        }
+
+        @Override
+        public String toString() {
+            return value != null ? name + "=" + value : name.toString();
+        }
+    }
+}
@@ -34,6 +34,7 @@ import com.intellij.psi.impl.source.tree.LeafPsiElement;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.psi.xml.XmlTag;
+import org.jetbrains.annotations.NotNull;
 
 
 
@@ -461,16 +462,24 @@ public final class CamelIdeaUtils {
         // only accept xml tags from namespaces we support
         XmlTag xml = PsiTreeUtil.getParentOfType(element, XmlTag.class);
         if (xml != null) {
-            String ns = xml.getNamespace();
-            // accept empty namespace which can be from testing
-            boolean accepted = StringUtils.isEmpty(ns) || Arrays.stream(ACCEPTED_NAMESPACES).anyMatch(ns::contains);
-            LOG.trace("XmlTag " + xml.getName() + " with namespace: " + ns + " is accepted namespace: " + accepted);
-            return !accepted; // skip is the opposite
+            return !isFromAcceptedNamespace(xml); // skip is the opposite
         }
 
         return false;
     }
 
+    /**
+     * Whether the xml tag is from any of the namespaces where Camel routes and endpoints can be defined,
+     * such as Camel Spring or Blueprint.
+     */
+    public static boolean isFromAcceptedNamespace(@NotNull XmlTag xml) {
+        String ns = xml.getNamespace();
+        // accept empty namespace which can be from testing
+        boolean accepted = StringUtils.isEmpty(ns) || Arrays.stream(ACCEPTED_NAMESPACES).anyMatch(ns::contains);
+        LOG.trace("XmlTag " + xml.getName() + " with namespace: " + ns + " is accepted namespace: " + accepted);
+        return accepted;
+    }
+
     /**
      * Whether the element can be accepted for the annator or inspection.
      * <p/>
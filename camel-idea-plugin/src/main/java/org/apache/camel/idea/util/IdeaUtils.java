@@ -202,6 +202,27 @@ public final class IdeaUtils implements Disposable {
         return false;
     }
 
+    /**
+     * Gets the path of the jar of a given library, which must be read in a read action when not on the event dispatch thread.
+     *
+     * @param library the library
+     * @return the path, or <tt>null</tt> if the library is not a single jar
+     */
+    public @Nullable String getJarPathForLibrary(@NotNull Library library) {
+        VirtualFile[] files = library.getFiles(OrderRootType.CLASSES);
+        if (files.length == 1) {
+            VirtualFile vf = files[0];
+            if (vf.getName().toLowerCase().endsWith(".jar")) {
+                String path = vf.getPath();
+                if (path.endsWith("!/")) {
+                    path = path.substring(0, path.length() - 2);
+                }
+                return path;
+            }
+        }
+        return null;
+    }
+
     /**
      * Creates a URLClassLoader for a given library or libraries
      *
@@ -211,19 +232,9 @@ public final class IdeaUtils implements Disposable {
     public @Nullable URLClassLoader newURLClassLoaderForLibrary(Library... libraries) throws MalformedURLException {
         List<URL> urls = new ArrayList<>();
         for (Library library : libraries) {
-            if (library != null) {
-                VirtualFile[] files = library.getFiles(OrderRootType.CLASSES);
-                if (files.length == 1) {
-                    VirtualFile vf = files[0];
-                    if (vf.getName().toLowerCase().endsWith(".jar")) {
-                        String path = vf.getPath();
-                        if (path.endsWith("!/")) {
-                            path = path.substring(0, path.length() - 2);
-                        }
-                        URL url = new URL("file:" + path);
-                        urls.add(url);
-                    }
-                }
+            String path = library != null ? getJarPathForLibrary(library) : null;
+            if (path != null) {
+                urls.add(new URL("file:" + path));
             }
         }
         if (urls.isEmpty()) {
@@ -614,42 +625,44 @@ public final class IdeaUtils implements Disposable {
      *  <ul>
      *    <li>timer:trigger?repeatCount=0&de&lt;cursor&gt; will return {"&de", null}</li>
      *    <li>timer:trigger?repeatCount=0&de&lt;cursor&gt;lay=10 will return {"&de",null}</li>
-     *    <li>timer:trigger?repeatCount=0&delay=10&lt;cursor&gt; will return {"delay","10"}</li>
-     *    <li>timer:trigger?repeatCount=0&delay=&lt;cursor&gt; will return {"delay",""}</li>
-     *    <li>jms:qu&lt;cursor&gt; will return {":qu", ""}</li>
+     *    <li>timer:trigger?repeatCount=0&delay=10&lt;cursor&gt; will return {"&delay","10"}</li>
+     *    <li>timer:trigger?repeatCount=0&delay=&lt;cursor&gt; will return {"&delay",""}</li>
+     *    <li>timer:trigger?repeatCount=0&&lt;cursor&gt; will return {"&", null}</li>
+     *    <li>timer:trigger?foo.ba&lt;cursor&gt; will return {".ba", null}</li>
+     *    <li>jms:qu&lt;cursor&gt; will return {":qu", null}</li>
      *  </ul>
+     * The text before the cursor is parsed as a {@link CamelEndpointUri}, so any separator chars inside property placeholders
+     * or simple expressions in the option values are not mistaken for the start of an option.
      * @return a list with the query parameter and the value if present. The query parameter is returned with separator char
      */
     public String[] getQueryParameterAtCursorPosition(PsiElement element) {
         String positionText = extractTextFromElement(element);
-        positionText = positionText.replaceAll("&amp;", "&");
 
         int hackIndex = getCaretPositionInsidePsiElement(positionText);
-        positionText = positionText.substring(0, hackIndex);
-        //we need to know the start position of the unknown options
-        int startIdx = Math.max(positionText.lastIndexOf('.'), positionText.lastIndexOf('='));
-        startIdx = Math.max(startIdx, positionText.lastIndexOf('&'));
-        startIdx = Math.max(startIdx, positionText.lastIndexOf('?'));
-        startIdx = Math.max(startIdx, positionText.lastIndexOf(':'));
-
-        startIdx = startIdx < 0 ? 0 : startIdx;
-
-        //Copy the option with any separator chars
-        String parameter;
-        String value = null;
-        if (!positionText.isEmpty() && positionText.charAt(startIdx) == '=') {
-            value = positionText.substring(startIdx + 1, hackIndex);
-            int valueStartIdx = positionText.lastIndexOf('&', startIdx);
-            valueStartIdx = Math.max(valueStartIdx, positionText.lastIndexOf('?'));
-            valueStartIdx = Math.max(valueStartIdx, positionText.lastIndexOf(':'));
-            valueStartIdx = valueStartIdx < 0 ? 0 : valueStartIdx;
-            parameter = positionText.substring(valueStartIdx, startIdx);
-        } else {
-            //Copy the option with any separator chars
-            parameter = positionText.substring(startIdx, hackIndex);
+        CamelEndpointUri uri = CamelEndpointUri.parse(hackIndex < 0 ? positionText : positionText.substring(0, hackIndex));
+
+        if (uri.hasQuery()) {
+            List<CamelEndpointUri.Parameter> parameters = uri.getParameters();
+            if (uri.hasTrailingSeparator() || parameters.isEmpty()) {
+                // a new option is being added
+                String text = uri.getText();
+                return new String[]{text.substring(text.length() - 1), null};
+            }
+            CamelEndpointUri.Parameter parameter = parameters.get(parameters.size() - 1);
+            String name = parameter.getName().getText();
+            if (parameter.getValue() == null && name.lastIndexOf('.') >= 0) {
+                // the option name is being typed after a dot, such as a prefixed option, so only the text after the dot is the option
+                return new String[]{name.substring(name.lastIndexOf('.')), null};
+            }
+            String value = parameter.getValue() != null ? parameter.getValue().getText() : null;
+            return new String[]{parameter.getSeparator() + name, value};
         }
 
-        return new String[]{parameter, value};
+        // no query parameters yet, so we are in the context path
+        String text = uri.getText();
+        int startIdx = Math.max(text.lastIndexOf('.'), text.lastIndexOf(':'));
+        startIdx = startIdx < 0 ? 0 : startIdx;
+        return new String[]{text.substring(startIdx), null};
     }
 
     public boolean isCaretAtEndOfLine(PsiElement element) {
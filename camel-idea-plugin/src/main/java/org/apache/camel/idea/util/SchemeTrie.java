@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A character trie over the known Camel component schemes (including alternative schemes), which allows to
+ * detect if a text starts with a known scheme and to list the schemes starting with a given prefix, in time
+ * proportional to the length of the prefix.
+ * <p/>
+ * The trie is not thread safe while being built, and should be published to other threads after all the
+ * schemes has been added.
+ */
+public final class SchemeTrie {
+
+    private final Node root = new Node();
+    private int size;
+
+    /**
+     * Adds the scheme if not already present.
+     *
+     * @param scheme        the scheme, such as <tt>https4</tt>
+     * @param componentName the name of the component which the scheme belongs to, such as <tt>http4</tt>
+     */
+    public void add(@NotNull String scheme, @NotNull String componentName) {
+        if (scheme.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < scheme.length(); i++) {
+            node = node.getOrAddChild(scheme.charAt(i));
+        }
+        if (node.componentName == null) {
+            node.componentName = componentName;
+            size++;
+        }
+    }
+
+    /**
+     * Gets the name of the component for the given scheme
+     *
+     * @return the component name, or <tt>null</tt> if the scheme is unknown
+     */
+    @Nullable
+    public String getComponentName(@Nullable CharSequence scheme) {
+        Node node = find(scheme);
+        return node != null ? node.componentName : null;
+    }
+
+    /**
+     * Whether there is any known scheme which starts with the given prefix
+     */
+    public boolean isPrefix(@Nullable CharSequence prefix) {
+        return find(prefix) != null;
+    }
+
+    /**
+     * Gets the known schemes which starts with the given prefix, sorted A..Z
+     */
+    @NotNull
+    public List<String> findByPrefix(@Nullable CharSequence prefix) {
+        List<String> answer = new ArrayList<>();
+        Node node = find(prefix);
+        if (node != null) {
+            collect(node, new StringBuilder(prefix), answer);
+        }
+        return answer;
+    }
+
+    /**
+     * Matches the text as a Camel endpoint uri which starts with a known scheme followed by a colon, such as
+     * <tt>timer:foo?period=5000</tt>
+     *
+     * @return the name of the component, or <tt>null</tt> if the text does not start with a known scheme
+     */
+    @Nullable
+    public String matchScheme(@Nullable CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == ':') {
+                return i > 0 ? node.componentName : null;
+            }
+            node = node.getChild(ch);
+            if (node == null) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return number of schemes in the trie
+     */
+    public int size() {
+        return size;
+    }
+
+    private Node find(CharSequence prefix) {
+        if (prefix == null) {
+            return null;
+        }
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.getChild(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private static void collect(Node node, StringBuilder path, List<String> answer) {
+        if (node.componentName != null) {
+            answer.add(path.toString());
+        }
+        for (int i = 0; i < node.count; i++) {
+            path.append(node.keys[i]);
+            collect(node.children[i], path, answer);
+            path.setLength(path.length() - 1);
+        }
+    }
+
+    /**
+     * Node with its children kept sorted by their character, as schemes only use a small alphabet.
+     */
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int count;
+        private String componentName;
+
+        Node getChild(char ch) {
+            int index = Arrays.binarySearch(keys, 0, count, ch);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrAddChild(char ch) {
+            int index = Arrays.binarySearch(keys, 0, count, ch);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            if (count == keys.length) {
+                int capacity = Math.max(2, count * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, index, keys, index + 1, count - index);
+            System.arraycopy(children, index, children, index + 1, count - index);
+            Node child = new Node();
+            keys[index] = ch;
+            children[index] = child;
+            count++;
+            return child;
+        }
+    }
+}
@@ -101,6 +101,7 @@ public abstract class CamelLightCodeInsightFixtureTestCaseIT extends LightCodeIn
         service.setScanThirdPartyLegacyComponents(true);
         service.setCustomIconFilePath("");
         service.setDownloadCatalog(true);
+        service.setOfflineCatalog(false);
         service.setHighlightCustomOptions(true);
 
         List<String> expectedIgnoredProperties = Arrays.asList("java.", "Logger.", "logger", "appender.", "rootLogger.",
@@ -77,6 +77,21 @@ public class CamelEndpointAnnotatorTestIT extends CamelLightCodeInsightFixtureTe
         myFixture.checkHighlighting(false, false, true, true);
     }
 
+    public void testAnnotatorRepeatedUnknownOptionValidation() {
+        myFixture.configureByText("AnnotatorTestData.java", getJavaRepeatedUnknownOptionTestData());
+        myFixture.checkHighlighting(false, false, true, true);
+    }
+
+    public void testAnnotatorOptionNameInPathValidation() {
+        myFixture.configureByText("AnnotatorTestData.java", getJavaOptionNameInPathTestData());
+        myFixture.checkHighlighting(false, false, true, true);
+    }
+
+    public void testAnnotatorOptionValueInPathValidation() {
+        myFixture.configureByText("AnnotatorTestData.java", getJavaOptionValueInPathTestData());
+        myFixture.checkHighlighting(false, false, true, true);
+    }
+
     public void testAnnotatorUnknownOptionWithConsumerAnnotationValidation() {
         assertTrue("Ignored until we fix the issue with running the test with SDK", true);
         //myFixture.configureByText("AnnotatorTestData.java", getJavaUnknownOptionsConsumerAnnotationTestData());
@@ -243,6 +258,36 @@ public class CamelEndpointAnnotatorTestIT extends CamelLightCodeInsightFixtureTe
             + "    }";
     }
 
+    private String getJavaRepeatedUnknownOptionTestData() {
+        return "import org.apache.camel.builder.RouteBuilder;\n"
+            + "public class MyRouteBuilder extends RouteBuilder {\n"
+            + "        public void configure() throws Exception {\n"
+            + "            from(\"timer:trigger?<error descr=\"Unknown option\">foo</error>=1&delay=10&<error descr=\"Unknown option\">foo</error>=2\")\n"
+            + "                .to(\"file:outbox\");\n"
+            + "        }\n"
+            + "    }";
+    }
+
+    private String getJavaOptionNameInPathTestData() {
+        return "import org.apache.camel.builder.RouteBuilder;\n"
+            + "public class MyRouteBuilder extends RouteBuilder {\n"
+            + "        public void configure() throws Exception {\n"
+            + "            from(\"timer:delay?delay=<error descr=\"Invalid integer value: ImNotANumber\">ImNotANumber</error>\")\n"
+            + "                .to(\"file:outbox\");\n"
+            + "        }\n"
+            + "    }";
+    }
+
+    private String getJavaOptionValueInPathTestData() {
+        return "import org.apache.camel.builder.RouteBuilder;\n"
+            + "public class MyRouteBuilder extends RouteBuilder {\n"
+            + "        public void configure() throws Exception {\n"
+            + "            from(\"timer:trigger?delay=<error descr=\"Invalid integer value: trigger\">trigger</error>\")\n"
+            + "                .to(\"file:outbox\");\n"
+            + "        }\n"
+            + "    }";
+    }
+
     private String getJavaUnknownOptionsConsumerAnnotationTestData() {
         return "import org.apache.camel.builder.RouteBuilder;\n"
             + "public class MyRouteBuilder extends RouteBuilder {\n"
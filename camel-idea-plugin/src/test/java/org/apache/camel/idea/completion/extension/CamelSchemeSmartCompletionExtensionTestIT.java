@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.completion.extension;
+
+import java.util.List;
+import com.intellij.codeInsight.completion.CompletionType;
+import org.apache.camel.idea.CamelLightCodeInsightFixtureTestCaseIT;
+import org.hamcrest.Matchers;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Testing smart completion of the component scheme of an endpoint uri
+ */
+public class CamelSchemeSmartCompletionExtensionTestIT extends CamelLightCodeInsightFixtureTestCaseIT {
+
+    private String getJavaSchemePrefixTestData(String uri) {
+        return "import org.apache.camel.builder.RouteBuilder;\n"
+            + "public class MyRouteBuilder extends RouteBuilder {\n"
+            + "        public void configure() throws Exception {\n"
+            + "            from(\"" + uri + "\")\n"
+            + "                .to(\"file:outbox?delete=true&fileExist=Append\");\n"
+            + "        }\n"
+            + "    }";
+    }
+
+    public void testSchemeCompletion() {
+        myFixture.configureByText("JavaSchemeCompletionTestData.java", getJavaSchemePrefixTestData("ti<caret>"));
+        myFixture.complete(CompletionType.BASIC, 1);
+        List<String> strings = myFixture.getLookupElementStrings();
+        assertThat(strings, Matchers.containsInAnyOrder("timer:", "tika:"));
+    }
+
+    public void testUnknownSchemeHasNoCompletion() {
+        myFixture.configureByText("JavaSchemeCompletionTestData.java", getJavaSchemePrefixTestData("xyz<caret>"));
+        myFixture.complete(CompletionType.BASIC, 1);
+        List<String> strings = myFixture.getLookupElementStrings();
+        assertThat(strings, Matchers.not(Matchers.hasItem("timer:")));
+    }
+
+}
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.DefaultCamelCatalog;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ComponentModelTest {
+
+    private final CamelCatalog catalog = new DefaultCamelCatalog(true);
+
+    @Test
+    public void testOptionLookup() {
+        ComponentModel model = ModelHelper.generateComponentModel(catalog.componentJSonSchema("file"), true);
+
+        EndpointOptionModel delay = model.getEndpointOption("delay");
+        assertEquals("delay", delay.getName());
+        assertNull(model.getEndpointOption("unknown"));
+        assertEquals("resolvePropertyPlaceholders", model.getComponentOption("resolvePropertyPlaceholders").getName());
+
+        EndpointOptionModel scheduler = model.getMultiValueEndpointOption("scheduler.");
+        assertEquals("schedulerProperties", scheduler.getName());
+        assertSame(scheduler, model.getEndpointOption("schedulerProperties"));
+        assertNull(model.getMultiValueEndpointOption("delay"));
+    }
+
+    @Test
+    public void testOptionViews() {
+        ComponentModel model = ModelHelper.generateComponentModel(catalog.componentJSonSchema("jms"), true);
+
+        assertEquals(model.getEndpointOptions().size(), model.getEndpointPathOptions().size() + model.getEndpointParameterOptions().size());
+        assertTrue(model.getEndpointPathOptions().stream().allMatch(o -> o.getKind() == OptionKind.PATH));
+        assertTrue(model.getEndpointParameterOptions().stream().allMatch(o -> o.getKind() == OptionKind.PARAMETER));
+
+        assertEquals(1, model.getEndpointPathEnumOptions().size());
+        assertEquals("destinationType", model.getEndpointPathEnumOptions().get(0).getName());
+    }
+
+    @Test
+    public void testParameterOptionsSorted() {
+        ComponentModel model = ModelHelper.generateComponentModel(catalog.componentJSonSchema("aws-s3"), true);
+
+        List<EndpointOptionModel> expected = model.getEndpointOptions().stream()
+            .filter(o -> o.getKind() == OptionKind.PARAMETER)
+            .collect(Collectors.toCollection(ArrayList::new));
+        expected.sort((o1, o2) -> o1.getName().compareToIgnoreCase(o2.getName()));
+        assertEquals(expected, model.getEndpointParameterOptions());
+    }
+
+    @Test
+    public void testOptionFlags() {
+        ComponentModel model = ModelHelper.generateComponentModel(catalog.componentJSonSchema("file"), true);
+
+        EndpointOptionModel directoryName = model.getEndpointOption("directoryName");
+        assertTrue(directoryName.isRequired());
+        assertFalse(directoryName.isMultiValue());
+        assertTrue(directoryName.isForConsumer());
+        assertTrue(directoryName.isForProducer());
+
+        EndpointOptionModel delete = model.getEndpointOption("delete");
+        assertFalse(delete.isRequired());
+        assertTrue(delete.isForConsumer());
+        assertFalse(delete.isForProducer());
+
+        EndpointOptionModel fileExist = model.getEndpointOption("fileExist");
+        assertFalse(fileExist.isForConsumer());
+        assertTrue(fileExist.isForProducer());
+
+        assertTrue(model.getEndpointOption("schedulerProperties").isMultiValue());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testOptionsAreReadOnly() {
+        ComponentModel model = ModelHelper.generateComponentModel(catalog.componentJSonSchema("timer"), true);
+        model.getEndpointOptions().clear();
+    }
+}
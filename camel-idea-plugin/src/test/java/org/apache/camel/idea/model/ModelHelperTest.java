@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.model;
+
+import java.util.List;
+import java.util.Map;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.DefaultCamelCatalog;
+import org.apache.camel.catalog.JSonSchemaHelper;
+import org.junit.Test;
+import static org.apache.camel.idea.util.StringUtils.getSafeValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ModelHelperTest {
+
+    private final CamelCatalog catalog = new DefaultCamelCatalog(true);
+
+    @Test
+    public void testComponent() {
+        String json = catalog.componentJSonSchema("http4");
+        List<Map<String, String>> rows = JSonSchemaHelper.parseJsonSchema("component", json, false);
+
+        ComponentModel model = ModelHelper.generateComponentModel(json, false);
+        assertEquals("http4", model.getScheme());
+        assertEquals(getSafeValue("alternativeSchemes", rows), model.getAlternativeSchemes());
+        assertEquals(getSafeValue("description", rows), model.getDescription());
+        assertEquals(getSafeValue("javaType", rows), model.getJavaType());
+        assertEquals("", model.getAlternativeSyntax());
+        assertTrue(model.getComponentOptions().isEmpty());
+        assertTrue(model.getEndpointOptions().isEmpty());
+    }
+
+    @Test
+    public void testEndpointOptionsAsCatalog() {
+        String json = catalog.componentJSonSchema("kafka");
+        List<Map<String, String>> rows = JSonSchemaHelper.parseJsonSchema("properties", json, true);
+
+        ComponentModel model = ModelHelper.generateComponentModel(json, true);
+        assertEquals(rows.size(), model.getEndpointOptions().size());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, String> row = rows.get(i);
+            EndpointOptionModel option = model.getEndpointOptions().get(i);
+            assertEquals(getSafeValue("name", row), option.getName());
+            assertEquals(OptionKind.fromValue(getSafeValue("kind", row)), option.getKind());
+            assertEquals("true".equals(getSafeValue("required", row)), option.isRequired());
+            assertEquals("true".equals(getSafeValue("deprecated", row)), option.isDeprecated());
+            assertEquals("true".equals(getSafeValue("secret", row)), option.isSecret());
+            assertEquals("true".equals(getSafeValue("multiValue", row)), option.isMultiValue());
+            assertEquals(getSafeValue("enum", row), option.getEnums());
+            assertEquals(getSafeValue("defaultValue", row), option.getDefaultValue());
+            assertEquals(getSafeValue("description", row), option.getDescription());
+        }
+        assertEquals(JSonSchemaHelper.parseJsonSchema("componentProperties", json, true).size(), model.getComponentOptions().size());
+    }
+
+    @Test
+    public void testValues() {
+        String json = "{ \"component\": { \"scheme\": \"foo\", \"description\": \"Say \\\"hi\\\"\\u0021\", \"deprecated\": false },"
+            + " \"other\": { \"list\": [ 1, { \"a\": null } ] },"
+            + " \"properties\": { \"bar\": { \"kind\": \"parameter\", \"enum\": [ \"a\", \"b\" ], \"defaultValue\": 1000, \"nested\": { \"x\": [] } } } }";
+
+        ComponentModel model = ModelHelper.generateComponentModel(json, true);
+        assertEquals("foo", model.getScheme());
+        assertEquals("Say \"hi\"!", model.getDescription());
+        assertEquals("false", model.getDeprecated());
+        assertEquals(1, model.getEndpointOptions().size());
+
+        EndpointOptionModel bar = model.getEndpointOption("bar");
+        assertEquals(OptionKind.PARAMETER, bar.getKind());
+        assertEquals("a,b", bar.getEnums());
+        assertEquals("1000", bar.getDefaultValue());
+        assertEquals("", bar.getPrefix());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalid() {
+        ModelHelper.generateComponentModel("{ \"component\": { \"scheme\": \"foo\" ", true);
+    }
+}
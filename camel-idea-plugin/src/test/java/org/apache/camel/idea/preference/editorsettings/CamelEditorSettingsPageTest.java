@@ -89,6 +89,12 @@ public class CamelEditorSettingsPageTest extends CamelLightCodeInsightFixtureTes
         assertTrue(checkBox.isSelected());
     }
 
+    public void testShouldContainOfflineCatalogCheckBox() {
+        JBCheckBox checkBox = editorSettingsPage.getOfflineCatalogCheckBox();
+        assertEquals("Only load camel-catalog from the local Maven repository and caches (offline mode)", checkBox.getText());
+        assertFalse(checkBox.isSelected());
+    }
+
     public void testShouldContainScanThirdPartyComponentsCatalogCheckBox() {
         JBCheckBox checkBox = editorSettingsPage.getScanThirdPartyComponentsCatalogCheckBox();
         assertEquals("Scan classpath for third party Camel components using modern component packaging", checkBox.getText());
@@ -220,6 +226,13 @@ public class CamelEditorSettingsPageTest extends CamelLightCodeInsightFixtureTes
         assertTrue(checkBox.isSelected());
     }
 
+    public void testShouldResetOfflineCatalogCheckBox() {
+        JBCheckBox checkBox = editorSettingsPage.getOfflineCatalogCheckBox();
+        checkBox.setSelected(true);
+        editorSettingsPage.reset();
+        assertFalse(checkBox.isSelected());
+    }
+
     public void testShouldResetScanThirdPartyComponentsCatalogCheckBox() {
         JBCheckBox checkBox = editorSettingsPage.getScanThirdPartyComponentsCatalogCheckBox();
         checkBox.setSelected(false);
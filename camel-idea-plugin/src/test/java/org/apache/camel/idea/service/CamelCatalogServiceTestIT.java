@@ -49,4 +49,38 @@ public class CamelCatalogServiceTestIT extends CamelLightCodeInsightFixtureTestC
         assertEquals(true, ServiceManager.getService(myModule.getProject(), CamelCatalogService.class).isInstantiated());
     }
 
+    public void testKnownComponents() {
+        CamelCatalogService service = ServiceManager.getService(myModule.getProject(), CamelCatalogService.class);
+        try {
+            assertTrue(service.isKnownComponent("timer"));
+            assertFalse(service.isKnownComponent("foo"));
+            assertFalse(service.isKnownComponent(null));
+
+            String json = service.get().componentJSonSchema("timer").replace("\"scheme\": \"timer\"", "\"scheme\": \"foo\"");
+            service.addComponent("foo", "com.foo.FooComponent", json);
+            assertTrue(service.isKnownComponent("foo"));
+            assertEquals(service.get().findComponentNames().size(), service.getComponentNames().size());
+        } finally {
+            service.clearLoadedVersion();
+        }
+        assertFalse(service.isKnownComponent("foo"));
+    }
+
+    public void testStateIsNotChangedByAddComponent() {
+        CamelCatalogService service = ServiceManager.getService(myModule.getProject(), CamelCatalogService.class);
+        try {
+            CatalogState state = service.getState();
+            String json = state.getCatalog().componentJSonSchema("timer").replace("\"scheme\": \"timer\"", "\"scheme\": \"foo\"");
+            service.addComponent("foo", "com.foo.FooComponent", json);
+
+            // readers of the previous state keep seeing the same catalog
+            assertFalse(state.isKnownComponent("foo"));
+            assertFalse(state.getCatalog().findComponentNames().contains("foo"));
+            assertNotSame(state, service.getState());
+            assertTrue(service.getState().isKnownComponent("foo"));
+        } finally {
+            service.clearLoadedVersion();
+        }
+    }
+
 }
\ No newline at end of file
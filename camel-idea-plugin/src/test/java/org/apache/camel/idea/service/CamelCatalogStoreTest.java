@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class CamelCatalogStoreTest {
+
+    @Test
+    public void sharedPerVersion() {
+        CamelCatalogStore store = new CamelCatalogStore();
+
+        SharedCatalogData first = store.acquire("2.20.1");
+        assertSame(first, store.acquire("2.20.1"));
+        assertNotSame(first, store.acquire("2.19.0"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void releasedWhenNoLongerInUse() {
+        CamelCatalogStore store = new CamelCatalogStore();
+
+        SharedCatalogData first = store.acquire("2.20.1");
+        store.acquire("2.20.1");
+        store.release(first);
+        assertEquals(1, store.size());
+        assertSame(first, store.acquire("2.20.1"));
+
+        store.release(first);
+        store.release(first);
+        assertEquals(0, store.size());
+        assertNotSame(first, store.acquire("2.20.1"));
+    }
+
+    @Test
+    public void sharedJSonSchemas() {
+        SharedCatalogData data = new SharedCatalogData("2.20.1");
+
+        assertEquals("{}", data.getComponentJSonSchema("timer", name -> "{}"));
+        assertEquals("{}", data.getComponentJSonSchema("timer", name -> null));
+        assertEquals(null, data.getComponentJSonSchema("unknown", name -> null));
+    }
+}
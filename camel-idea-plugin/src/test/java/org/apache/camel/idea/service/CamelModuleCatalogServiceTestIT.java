@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.Collections;
+import com.intellij.openapi.components.ServiceManager;
+import org.apache.camel.idea.CamelLightCodeInsightFixtureTestCaseIT;
+
+/**
+ * Test the modules use the catalog of the project unless they depend on another version of camel-core
+ */
+public class CamelModuleCatalogServiceTestIT extends CamelLightCodeInsightFixtureTestCaseIT {
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            getModuleCatalogService().clearModuleVersions();
+            ServiceManager.getService(CamelPreferenceService.class).setDownloadCatalog(true);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testProjectCatalogWithoutModuleVersion() {
+        assertNull(getModuleCatalogService().getModuleVersion(myModule));
+        assertSame(getProjectCatalogService(), getModuleCatalogService().getCatalogService(myModule));
+    }
+
+    public void testProjectCatalogForSameVersion() {
+        String version = getProjectCatalogService().get().getCatalogVersion();
+        getModuleCatalogService().setModuleVersion(myModule, version, Collections.emptyMap());
+
+        assertEquals(version, getModuleCatalogService().getModuleVersion(myModule));
+        assertSame(getProjectCatalogService(), getModuleCatalogService().getCatalogService(myModule));
+        assertTrue(getModuleCatalogService().getLoadedVersions().isEmpty());
+    }
+
+    public void testProjectCatalogWhenDownloadNotAllowed() {
+        ServiceManager.getService(CamelPreferenceService.class).setDownloadCatalog(false);
+        getModuleCatalogService().setModuleVersion(myModule, "2.19.0", Collections.emptyMap());
+
+        assertSame(getProjectCatalogService(), getModuleCatalogService().getCatalogService(myModule));
+        assertTrue(getModuleCatalogService().getLoadedVersions().isEmpty());
+    }
+
+    private CamelModuleCatalogService getModuleCatalogService() {
+        return ServiceManager.getService(myModule.getProject(), CamelModuleCatalogService.class);
+    }
+
+    private CamelCatalogService getProjectCatalogService() {
+        return ServiceManager.getService(myModule.getProject(), CamelCatalogService.class);
+    }
+}
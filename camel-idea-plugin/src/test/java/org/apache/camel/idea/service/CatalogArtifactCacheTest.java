@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CatalogArtifactCacheTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPutAndGet() throws IOException {
+        CatalogArtifactCache cache = new CatalogArtifactCache(folder.newFolder("cache").toPath());
+        assertNull(cache.get("org.apache.camel", "camel-catalog", "2.19.0"));
+
+        Path jar = cache.put("org.apache.camel", "camel-catalog", "2.19.0", createJar(folder.newFile("source.jar").toPath(), "{}"));
+        assertEquals(jar, cache.get("org.apache.camel", "camel-catalog", "2.19.0"));
+        assertTrue(Files.exists(jar.resolveSibling(jar.getFileName() + ".sha1")));
+        assertNull(cache.get("org.apache.camel", "camel-catalog", "2.18.0"));
+    }
+
+    @Test
+    public void testCorruptedJarIsDeleted() throws IOException {
+        CatalogArtifactCache cache = new CatalogArtifactCache(folder.newFolder("cache").toPath());
+        Path jar = cache.put("org.apache.camel", "camel-catalog", "2.19.0", createJar(folder.newFile("source.jar").toPath(), "{}"));
+
+        Files.write(jar, new byte[]{1, 2, 3, 4});
+        assertNull(cache.get("org.apache.camel", "camel-catalog", "2.19.0"));
+        assertFalse(Files.exists(jar));
+        assertTrue(cache.getJars().isEmpty());
+    }
+
+    @Test
+    public void testEvictOld() throws IOException {
+        CatalogArtifactCache cache = new CatalogArtifactCache(folder.newFolder("cache").toPath(), CatalogArtifactCache.DEFAULT_MAX_SIZE, 10 * DAY);
+        Path old = cache.put("org.apache.camel", "camel-catalog", "2.18.0", createJar(folder.newFile("old.jar").toPath(), "{}"));
+        Files.setLastModifiedTime(old, FileTime.fromMillis(System.currentTimeMillis() - 20 * DAY));
+
+        Path jar = cache.put("org.apache.camel", "camel-catalog", "2.19.0", createJar(folder.newFile("new.jar").toPath(), "{}"));
+        assertFalse(Files.exists(old));
+        assertTrue(Files.exists(jar));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws IOException {
+        Path source = createJar(folder.newFile("source.jar").toPath(), "{}");
+        long size = Files.size(source);
+        CatalogArtifactCache cache = new CatalogArtifactCache(folder.newFolder("cache").toPath(), 2 * size, CatalogArtifactCache.DEFAULT_MAX_AGE);
+
+        long now = System.currentTimeMillis();
+        Path first = cache.put("org.apache.camel", "camel-catalog", "2.17.0", source);
+        Files.setLastModifiedTime(first, FileTime.fromMillis(now - 2 * DAY));
+        Path second = cache.put("org.apache.camel", "camel-catalog", "2.18.0", source);
+        Files.setLastModifiedTime(second, FileTime.fromMillis(now - 3 * DAY));
+        // using the first jar makes the second the least recently used
+        assertNotNull(cache.get("org.apache.camel", "camel-catalog", "2.17.0"));
+
+        Path third = cache.put("org.apache.camel", "camel-catalog", "2.19.0", source);
+        assertTrue(Files.exists(first));
+        assertFalse(Files.exists(second));
+        assertTrue(Files.exists(third));
+    }
+
+    @Test
+    public void testLoadCachedVersion() throws IOException {
+        CatalogArtifactCache cache = new CatalogArtifactCache(folder.newFolder("cache").toPath());
+        cache.put("org.apache.camel", "camel-catalog", "2.19.0", createJar(folder.newFile("source.jar").toPath(), "{}"));
+
+        // no local repositories and not offline, so maven would be used if the version was not cached
+        LocalArtifactResolver resolver = new LocalArtifactResolver(LocalArtifactResolver.DEFAULT_TIME_BUDGET_MILLIS);
+        CamelMavenVersionManager maven = new CamelMavenVersionManager(resolver, cache);
+        maven.addMavenRepository("unreachable", "http://localhost:1/maven2");
+        long start = System.currentTimeMillis();
+        assertTrue(maven.loadVersion("2.19.0"));
+        assertTrue(System.currentTimeMillis() - start < LocalArtifactResolver.DEFAULT_TIME_BUDGET_MILLIS);
+        assertEquals("2.19.0", maven.getLoadedVersion());
+        try (InputStream is = maven.getResourceAsStream("org/apache/camel/catalog/components/timer.json")) {
+            assertNotNull(is);
+        }
+        maven.close();
+    }
+
+    @Test
+    public void testDeleteGrabbedArtifact() throws IOException {
+        Path module = folder.newFolder("grapes", "org.apache.camel", "camel-catalog").toPath();
+        Path jar = createJar(Files.createDirectories(module.resolve("jars")).resolve("camel-catalog-2.19.0.jar"), "{}");
+        Path ivy = Files.createFile(module.resolve("ivy-2.19.0.xml"));
+        Path other = Files.createFile(module.resolve("ivy-2.18.0.xml"));
+
+        CamelMavenVersionManager.deleteGrabbedArtifact(jar, "camel-catalog", "2.19.0");
+        assertFalse(Files.exists(jar));
+        assertFalse(Files.exists(ivy));
+        assertTrue(Files.exists(other));
+
+        // a jar which is not in the grape cache is kept
+        Path source = createJar(folder.newFile("camel-catalog-2.19.0.jar").toPath(), "{}");
+        CamelMavenVersionManager.deleteGrabbedArtifact(source, "camel-catalog", "2.19.0");
+        assertTrue(Files.exists(source));
+    }
+
+    private static Path createJar(Path jar, String json) throws IOException {
+        try (OutputStream os = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(os)) {
+            out.putNextEntry(new ZipEntry("org/apache/camel/catalog/components/timer.json"));
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.DefaultCamelCatalog;
+import org.apache.camel.idea.model.ComponentModel;
+import org.apache.camel.idea.model.ComponentOptionModel;
+import org.apache.camel.idea.model.EndpointOptionModel;
+import org.apache.camel.idea.model.ModelHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CatalogSnapshotTest {
+
+    private final CamelCatalog catalog = new DefaultCamelCatalog(true);
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("camel-catalog-snapshot");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (Path file : Files.newDirectoryStream(dir)) {
+            Files.delete(file);
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Map<String, ComponentModel> models = new LinkedHashMap<>();
+        for (String name : catalog.findComponentNames()) {
+            models.put(name, ModelHelper.generateComponentModel(catalog.componentJSonSchema(name), true));
+        }
+
+        Path file = dir.resolve(CatalogSnapshot.getFileName(catalog.getCatalogVersion(), Collections.emptyMap()));
+        CatalogSnapshot.write(file, models);
+        CatalogSnapshot snapshot = CatalogSnapshot.read(file);
+
+        assertEquals(models.keySet(), snapshot.getComponentNames());
+        for (ComponentModel expected : models.values()) {
+            assertComponent(expected, snapshot.getComponentModel(expected.getScheme(), true));
+            assertEquals(expected.getAlternativeSchemes(), snapshot.getAlternativeSchemes(expected.getScheme()));
+        }
+        assertNull(snapshot.getComponentModel("unknown", true));
+
+        ComponentModel timer = snapshot.getComponentModel("timer", false);
+        assertEquals("timer", timer.getScheme());
+        assertTrue(timer.getEndpointOptions().isEmpty());
+        // the strings are shared between the decoded models
+        assertSame(timer.getGroupId(), snapshot.getComponentModel("file", false).getGroupId());
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadInvalid() throws IOException {
+        Path file = dir.resolve("catalog-invalid.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        CatalogSnapshot.read(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadInvalidStringCount() throws IOException {
+        Path file = writeTimerSnapshot();
+
+        // the number of strings does not fit in the file
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(8, Integer.MAX_VALUE);
+        Files.write(file, bytes);
+
+        CatalogSnapshot.read(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadInvalidComponentCount() throws IOException {
+        Path file = writeTimerSnapshot();
+
+        // the number of components, which follows the string offsets, does not fit in the file
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putInt(12 + 4 * buffer.getInt(8), Integer.MAX_VALUE);
+        Files.write(file, bytes);
+
+        CatalogSnapshot.read(file);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadInvalidStringLength() throws IOException {
+        Path file = writeTimerSnapshot();
+
+        // the length of the last string, which is only decoded with the model, is negative
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putInt(buffer.getInt(12 + 4 * (buffer.getInt(8) - 1)), -1);
+        Files.write(file, bytes);
+
+        CatalogSnapshot.read(file).getComponentModel("timer", false);
+    }
+
+    @Test
+    public void testFileName() {
+        Map<String, String> thirdParty = new LinkedHashMap<>();
+        assertEquals("catalog-2.20.1.bin", CatalogSnapshot.getFileName("2.20.1", thirdParty));
+
+        thirdParty.put("foo", "1");
+        thirdParty.put("bar", "2");
+        String name = CatalogSnapshot.getFileName("2.20.1", thirdParty);
+        assertTrue(name.startsWith("catalog-2.20.1-"));
+
+        Map<String, String> reordered = new LinkedHashMap<>();
+        reordered.put("bar", "2");
+        reordered.put("foo", "1");
+        assertEquals(name, CatalogSnapshot.getFileName("2.20.1", reordered));
+
+        reordered.put("foo", "3");
+        assertNotEquals(name, CatalogSnapshot.getFileName("2.20.1", reordered));
+    }
+
+    private static void assertComponent(ComponentModel expected, ComponentModel actual) {
+        assertEquals(expected.getScheme(), actual.getScheme());
+        assertEquals(expected.getSyntax(), actual.getSyntax());
+        assertEquals(expected.getAlternativeSchemes(), actual.getAlternativeSchemes());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getDeprecated(), actual.getDeprecated());
+        assertEquals(expected.getJavaType(), actual.getJavaType());
+        assertEquals(expected.getVersion(), actual.getVersion());
+
+        assertEquals(expected.getComponentOptions().size(), actual.getComponentOptions().size());
+        for (int i = 0; i < expected.getComponentOptions().size(); i++) {
+            ComponentOptionModel e = expected.getComponentOptions().get(i);
+            ComponentOptionModel a = actual.getComponentOptions().get(i);
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getKind(), a.getKind());
+            assertEquals(e.isRequired(), a.isRequired());
+            assertEquals(e.isSecret(), a.isSecret());
+            assertEquals(e.getJavaType(), a.getJavaType());
+            assertEquals(e.getDescription(), a.getDescription());
+        }
+
+        assertEquals(expected.getEndpointOptions().size(), actual.getEndpointOptions().size());
+        for (int i = 0; i < expected.getEndpointOptions().size(); i++) {
+            EndpointOptionModel e = expected.getEndpointOptions().get(i);
+            EndpointOptionModel a = actual.getEndpointOptions().get(i);
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getKind(), a.getKind());
+            assertEquals(e.getLabel(), a.getLabel());
+            assertEquals(e.isRequired(), a.isRequired());
+            assertEquals(e.isDeprecated(), a.isDeprecated());
+            assertEquals(e.isMultiValue(), a.isMultiValue());
+            assertEquals(e.isForConsumer(), a.isForConsumer());
+            assertEquals(e.getEnums(), a.getEnums());
+            assertEquals(e.getPrefix(), a.getPrefix());
+            assertEquals(e.getDefaultValue(), a.getDefaultValue());
+            assertEquals(e.getDescription(), a.getDescription());
+        }
+    }
+
+    private Path writeTimerSnapshot() throws IOException {
+        Map<String, ComponentModel> models = Collections.singletonMap("timer",
+            ModelHelper.generateComponentModel(catalog.componentJSonSchema("timer"), false));
+        Path file = dir.resolve("catalog-corrupt.bin");
+        CatalogSnapshot.write(file, models);
+        return file;
+    }
+}
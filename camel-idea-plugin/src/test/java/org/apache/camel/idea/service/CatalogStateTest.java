@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.apache.camel.catalog.DefaultCamelCatalog;
+import org.apache.camel.idea.model.ComponentModel;
+import org.apache.camel.idea.service.CatalogState.ThirdPartyComponent;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CatalogStateTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final CamelCatalogStore store = new CamelCatalogStore();
+    private Path snapshotDirectory;
+
+    @Before
+    public void setUp() throws IOException {
+        snapshotDirectory = folder.newFolder("catalog").toPath();
+    }
+
+    @Test
+    public void testDefaultState() {
+        CatalogState state = CatalogState.create(null, store::acquire, Collections.emptyMap(), snapshotDirectory, Runnable::run);
+
+        assertEquals(new DefaultCamelCatalog().getCatalogVersion(), state.getVersion());
+        assertTrue(state.isKnownComponent("timer"));
+        assertFalse(state.isKnownComponent("foo"));
+        assertSame(state.getComponentNames(), state.getComponentNames());
+        assertEquals("timer", state.getSchemeTrie().matchScheme("timer:foo"));
+        assertEquals("timer", state.getComponentModel("timer", false).getScheme());
+    }
+
+    @Test
+    public void testThirdPartyComponentIsAddedToNewState() {
+        CatalogState state = CatalogState.create(null, store::acquire, Collections.emptyMap(), snapshotDirectory, Runnable::run);
+        String json = state.getCatalog().componentJSonSchema("timer")
+            .replace("\"scheme\": \"timer\"", "\"scheme\": \"foo\", \"alternativeSchemes\": \"foo,foos\"");
+
+        Map<String, ThirdPartyComponent> thirdParty = Collections.singletonMap("foo", new ThirdPartyComponent("com.foo.FooComponent", json));
+        CatalogState other = CatalogState.create(null, store::acquire, thirdParty, snapshotDirectory, Runnable::run);
+
+        assertTrue(other.isKnownComponent("foo"));
+        assertEquals("foo", other.getSchemeTrie().matchScheme("foo:bar"));
+        assertEquals("foo", other.getSchemeTrie().matchScheme("foos:bar"));
+        ComponentModel model = other.getComponentModel("foo", false);
+        assertNotNull(model);
+        assertEquals("foo", model.getScheme());
+
+        // the state which was published before is not changed
+        assertNotSame(state.getCatalog(), other.getCatalog());
+        assertFalse(state.isKnownComponent("foo"));
+        assertFalse(state.getCatalog().findComponentNames().contains("foo"));
+
+        // but the catalog data of the version is shared
+        assertSame(state.getComponentModelCache(), other.getComponentModelCache());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testSaveSnapshot() {
+        CatalogState state = CatalogState.create(null, store::acquire, Collections.emptyMap(), snapshotDirectory, Runnable::run);
+        String json = state.getCatalog().componentJSonSchema("timer").replace("\"scheme\": \"timer\"", "\"scheme\": \"foo\"");
+        Map<String, ThirdPartyComponent> thirdParty = Collections.singletonMap("foo", new ThirdPartyComponent("com.foo.FooComponent", json));
+
+        CatalogState.create(null, store::acquire, thirdParty, snapshotDirectory, Runnable::run).saveSnapshot();
+
+        // a new state with the same third party components uses the saved snapshot
+        CatalogState other = CatalogState.create(null, store::acquire, thirdParty, snapshotDirectory, Runnable::run);
+        assertEquals("foo", other.getComponentModel("foo", true).getScheme());
+        assertEquals(1, snapshotDirectory.toFile().list().length);
+    }
+
+    @Test
+    public void testCorruptSnapshotIsDeleted() throws IOException {
+        // the snapshot is built when the first model is loaded
+        CatalogState state = CatalogState.create(null, store::acquire, Collections.emptyMap(), snapshotDirectory, Runnable::run);
+        assertNotNull(state.getComponentModel("timer", false));
+        CatalogSnapshot snapshot = state.getSnapshot();
+        assertNotNull(snapshot);
+
+        // cut off the component records, which are only decoded when a model is loaded
+        byte[] bytes = Files.readAllBytes(snapshot.getFile());
+        Files.write(snapshot.getFile(), Arrays.copyOf(bytes, getRecordsStart(bytes) + 8));
+
+        CamelCatalogStore other = new CamelCatalogStore();
+        state = CatalogState.create(null, other::acquire, Collections.emptyMap(), snapshotDirectory, Runnable::run);
+        assertEquals("file", state.getComponentModel("file", true).getScheme());
+        assertNull(state.getSnapshot());
+        assertFalse(Files.exists(snapshot.getFile()));
+    }
+
+    @Test
+    public void testVersionManagerIsClosedWhenLastStateIsReleased() throws IOException {
+        Path root = folder.newFolder("m2").toPath();
+        Path jar = root.resolve("org/apache/camel/camel-catalog/2.19.0/camel-catalog-2.19.0.jar");
+        Files.createDirectories(jar.getParent());
+        try (OutputStream os = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(os)) {
+            out.putNextEntry(new ZipEntry("org/apache/camel/catalog/components/timer.json"));
+            out.write("{}".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        LocalArtifactResolver resolver = new LocalArtifactResolver(LocalArtifactResolver.DEFAULT_TIME_BUDGET_MILLIS);
+        resolver.addRepository(root, LocalArtifactResolver.Layout.MAVEN);
+        CamelMavenVersionManager maven = new CamelMavenVersionManager(resolver, null);
+        maven.setOffline(true);
+        assertTrue(maven.loadVersion("2.19.0"));
+
+        // such as when a third party component is added to the catalog of the version
+        CatalogState state = CatalogState.create(maven, store::acquire, Collections.emptyMap(), snapshotDirectory, Runnable::run);
+        CatalogState other = CatalogState.create(maven, store::acquire, Collections.emptyMap(), snapshotDirectory, Runnable::run);
+        state.release();
+        try (InputStream is = maven.getResourceAsStream("org/apache/camel/catalog/components/timer.json")) {
+            assertNotNull(is);
+        }
+
+        other.release();
+        assertNull(maven.getResourceAsStream("org/apache/camel/catalog/components/timer.json"));
+    }
+
+    private static int getRecordsStart(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(8);
+        int strings = buffer.getInt();
+        buffer.position(buffer.position() + 4 * strings);
+        int count = buffer.getInt();
+        int answer = bytes.length;
+        for (int i = 0; i < count; i++) {
+            buffer.getInt();
+            answer = Math.min(answer, buffer.getInt());
+        }
+        return answer;
+    }
+}
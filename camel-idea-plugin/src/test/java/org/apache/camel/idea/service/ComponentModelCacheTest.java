@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.DefaultCamelCatalog;
+import org.apache.camel.idea.model.ComponentModel;
+import org.apache.camel.idea.model.ModelHelper;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ComponentModelCacheTest {
+
+    private final CamelCatalog catalog = new DefaultCamelCatalog(true);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void cacheHitAndMiss() {
+        ComponentModelCache cache = new ComponentModelCache();
+
+        ComponentModel timer = get(cache, "2.20.1", "timer", true);
+        assertEquals("timer", timer.getScheme());
+        assertFalse(timer.getEndpointOptions().isEmpty());
+        assertEquals(1, loads.get());
+
+        // the model is not loaded again
+        assertSame(timer, get(cache, "2.20.1", "timer", true));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void keyedByVersionAndOptions() {
+        ComponentModelCache cache = new ComponentModelCache();
+
+        ComponentModel withOptions = get(cache, "2.20.1", "timer", true);
+        ComponentModel withoutOptions = get(cache, "2.20.1", "timer", false);
+        assertNotSame(withOptions, withoutOptions);
+        assertTrue(withoutOptions.getEndpointOptions().isEmpty());
+
+        ComponentModel otherVersion = get(cache, "2.19.0", "timer", true);
+        assertNotSame(withOptions, otherVersion);
+        assertEquals(3, cache.size());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void unknownComponentIsNotCached() {
+        ComponentModelCache cache = new ComponentModelCache();
+
+        assertNull(get(cache, "2.20.1", "unknown", true));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void clear() {
+        ComponentModelCache cache = new ComponentModelCache();
+        get(cache, "2.20.1", "timer", true);
+        get(cache, "2.20.1", "timer", false);
+        get(cache, "2.20.1", "file", true);
+        assertEquals(3, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    private ComponentModel get(ComponentModelCache cache, String version, String scheme, boolean includeOptions) {
+        return cache.get(version, scheme, includeOptions, () -> {
+            loads.incrementAndGet();
+            String json = catalog.componentJSonSchema(scheme);
+            return json != null ? ModelHelper.generateComponentModel(json, includeOptions) : null;
+        });
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.apache.camel.catalog.EndpointValidationResult;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EndpointValidationCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CatalogState state;
+
+    @Before
+    public void setUp() throws IOException {
+        Path snapshotDirectory = folder.newFolder("catalog").toPath();
+        state = CatalogState.create(null, SharedCatalogData::new, Collections.emptyMap(), snapshotDirectory, Runnable::run);
+    }
+
+    @Test
+    public void testNormalize() {
+        assertEquals("timer:foo?delay=1&period=2", EndpointValidationCache.normalize("timer:foo?delay=1&amp;period=2", false));
+        assertEquals("timer:foo?delay=1", EndpointValidationCache.normalize("timer:foo?delay=1&", false));
+        assertEquals("timer:foo", EndpointValidationCache.normalize("timer:foo?", false));
+        assertEquals("file:{{%s}}?delay={{%d}}", EndpointValidationCache.normalize("file:%s?delay=%d", true));
+        assertEquals("file:%s", EndpointValidationCache.normalize("file:%s", false));
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        EndpointValidationCache cache = new EndpointValidationCache(() -> state);
+
+        EndpointValidationResult result = cache.validate(state, "timer:foo?delay=abc", false, false);
+        assertFalse(result.isSuccess());
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getHitRate(), 0);
+
+        assertSame(result, cache.validate(state, "timer:foo?delay=abc", false, false));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 0);
+    }
+
+    @Test
+    public void testKeyedByStateAndEndpointUsage() {
+        EndpointValidationCache cache = new EndpointValidationCache(() -> state);
+
+        EndpointValidationResult result = cache.validate(state, "timer:foo?delay=1000", false, false);
+        assertTrue(result.isSuccess());
+        assertNotSame(result, cache.validate(state, "timer:foo?delay=1000", false, true));
+        assertNotSame(result, cache.validate(state, "timer:foo?delay=1000", true, false));
+
+        CatalogState other = CatalogState.create(null, SharedCatalogData::new, Collections.emptyMap(), folder.getRoot().toPath(), Runnable::run);
+        assertNotSame(result, cache.validate(other, "timer:foo?delay=1000", false, false));
+        // the result of the other state is not cached as that state is not in use
+        assertEquals(3, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testResultOfReplacedStateIsNotCached() {
+        CatalogState[] current = {state};
+        EndpointValidationCache cache = new EndpointValidationCache(() -> current[0]);
+        cache.validate(state, "timer:foo?delay=1000", false, false);
+        assertEquals(1, cache.size());
+
+        // such as a highlighting pass which still uses the state replaced by switching the catalog
+        current[0] = CatalogState.create(null, SharedCatalogData::new, Collections.emptyMap(), folder.getRoot().toPath(), Runnable::run);
+        cache.clear();
+        cache.validate(state, "timer:foo?delay=1000", false, false);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        EndpointValidationCache cache = new EndpointValidationCache(2, () -> state);
+
+        EndpointValidationResult first = cache.validate(state, "timer:first", false, false);
+        cache.validate(state, "timer:second", false, false);
+        // using the first result makes the second the least recently used
+        assertSame(first, cache.validate(state, "timer:first", false, false));
+        cache.validate(state, "timer:third", false, false);
+
+        assertEquals(2, cache.size());
+        assertSame(first, cache.validate(state, "timer:first", false, false));
+        long misses = cache.getMisses();
+        cache.validate(state, "timer:second", false, false);
+        assertEquals(misses + 1, cache.getMisses());
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.apache.camel.catalog.CatalogHelper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JarResourceIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadResources() throws IOException {
+        Path jar = folder.getRoot().toPath().resolve("camel-catalog-2.19.0.jar");
+        try (OutputStream os = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(os)) {
+            out.putNextEntry(new ZipEntry("org/apache/camel/catalog/components/"));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("org/apache/camel/catalog/components/timer.json"));
+            out.write("{ \"timer\": true }".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("org/apache/camel/catalog/components.properties"));
+            out.write("timer".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+
+        try (JarResourceIndex index = JarResourceIndex.open(jar)) {
+            assertEquals(jar, index.getJar());
+            // directories are not indexed
+            assertEquals(2, index.size());
+            assertFalse(index.contains("org/apache/camel/catalog/components/"));
+            assertTrue(index.contains("org/apache/camel/catalog/components/timer.json"));
+
+            try (InputStream is = index.getResourceAsStream("org/apache/camel/catalog/components/timer.json")) {
+                assertEquals("{ \"timer\": true }", CatalogHelper.loadText(is).trim());
+            }
+            assertNull(index.getResourceAsStream("org/apache/camel/catalog/components/file.json"));
+        }
+    }
+
+    @Test
+    public void testClosed() throws IOException {
+        Path jar = folder.getRoot().toPath().resolve("camel-catalog-2.19.0.jar");
+        try (OutputStream os = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(os)) {
+            out.putNextEntry(new ZipEntry("org/apache/camel/catalog/components/timer.json"));
+            out.write("{ \"timer\": true }".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+
+        JarResourceIndex index = JarResourceIndex.open(jar);
+        index.close();
+        // a reader which still has the index does not fail
+        assertNull(index.getResourceAsStream("org/apache/camel/catalog/components/timer.json"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidJar() throws IOException {
+        Path jar = folder.newFile("invalid.jar").toPath();
+        Files.write(jar, "not a jar".getBytes(StandardCharsets.UTF_8));
+        JarResourceIndex.open(jar);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LibrarySnapshotTest {
+
+    private static final String CORE = "maven: org.apache.camel:camel-core:2.20.1";
+    private static final String SPRING = "maven: org.apache.camel:camel-spring:2.20.1";
+    private static final String BEVERAGE = "maven: org.example:beverage-component:1.0";
+
+    @Test
+    public void testFirstUpdateAddsAll() {
+        LibrarySnapshot snapshot = new LibrarySnapshot();
+        LibrarySnapshot.Diff diff = snapshot.update(modules("a", set(CORE, SPRING), "b", set(CORE)));
+
+        assertEquals(set("a", "b"), diff.getChangedModules());
+        assertEquals(set(CORE, SPRING), diff.getAddedLibraries());
+        assertTrue(diff.getRemovedLibraries().isEmpty());
+    }
+
+    @Test
+    public void testUnchanged() {
+        LibrarySnapshot snapshot = new LibrarySnapshot();
+        snapshot.update(modules("a", set(CORE, SPRING), "b", set(CORE)));
+
+        assertTrue(snapshot.update(modules("a", set(SPRING, CORE), "b", set(CORE))).isEmpty());
+    }
+
+    @Test
+    public void testAddedAndRemoved() {
+        LibrarySnapshot snapshot = new LibrarySnapshot();
+        snapshot.update(modules("a", set(CORE, SPRING), "b", set(CORE)));
+
+        LibrarySnapshot.Diff diff = snapshot.update(modules("a", set(CORE), "b", set(CORE, BEVERAGE)));
+        assertFalse(diff.isEmpty());
+        assertEquals(set("a", "b"), diff.getChangedModules());
+        assertEquals(set(BEVERAGE), diff.getAddedLibraries());
+        assertEquals(set(SPRING), diff.getRemovedLibraries());
+    }
+
+    @Test
+    public void testLibraryStillUsedByAnotherModule() {
+        LibrarySnapshot snapshot = new LibrarySnapshot();
+        snapshot.update(modules("a", set(CORE, SPRING), "b", set(SPRING)));
+
+        LibrarySnapshot.Diff diff = snapshot.update(modules("a", set(CORE), "b", set(SPRING)));
+        assertEquals(set("a"), diff.getChangedModules());
+        assertTrue(diff.getAddedLibraries().isEmpty());
+        assertTrue(diff.getRemovedLibraries().isEmpty());
+    }
+
+    @Test
+    public void testRemovedModule() {
+        LibrarySnapshot snapshot = new LibrarySnapshot();
+        snapshot.update(modules("a", set(CORE), "b", set(CORE, BEVERAGE)));
+
+        LibrarySnapshot.Diff diff = snapshot.update(modules("a", set(CORE)));
+        assertTrue(diff.getChangedModules().isEmpty());
+        assertEquals(set(BEVERAGE), diff.getRemovedLibraries());
+        assertFalse(diff.isEmpty());
+    }
+
+    @Test
+    public void testClear() {
+        LibrarySnapshot snapshot = new LibrarySnapshot();
+        snapshot.update(modules("a", set(CORE)));
+        snapshot.clear();
+
+        assertEquals(set(CORE), snapshot.update(modules("a", set(CORE))).getAddedLibraries());
+    }
+
+    private static Set<String> set(String... names) {
+        return new HashSet<>(Arrays.asList(names));
+    }
+
+    private static Map<String, Set<String>> modules(String module, Set<String> libraries) {
+        return Collections.singletonMap(module, libraries);
+    }
+
+    private static Map<String, Set<String>> modules(String first, Set<String> firstLibraries, String second, Set<String> secondLibraries) {
+        Map<String, Set<String>> answer = new LinkedHashMap<>();
+        answer.put(first, firstLibraries);
+        answer.put(second, secondLibraries);
+        return answer;
+    }
+}
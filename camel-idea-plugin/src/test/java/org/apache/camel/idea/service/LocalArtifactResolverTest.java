@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LocalArtifactResolverTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testResolveMavenLayout() throws IOException {
+        Path root = folder.newFolder("m2").toPath();
+        Path jar = createJar(root.resolve("org/apache/camel/camel-catalog/2.19.0/camel-catalog-2.19.0.jar"));
+
+        LocalArtifactResolver resolver = new LocalArtifactResolver(LocalArtifactResolver.DEFAULT_TIME_BUDGET_MILLIS);
+        resolver.addRepository(root, LocalArtifactResolver.Layout.MAVEN);
+        assertEquals(jar, resolver.resolve("org.apache.camel", "camel-catalog", "2.19.0"));
+        assertNull(resolver.resolve("org.apache.camel", "camel-catalog", "2.18.0"));
+    }
+
+    @Test
+    public void testResolveGradleAndGrapeLayout() throws IOException {
+        Path gradle = folder.newFolder("gradle").toPath();
+        Path gradleJar = createJar(gradle.resolve("org.apache.camel/camel-catalog/2.19.0/0123abcd/camel-catalog-2.19.0.jar"));
+        Path grape = folder.newFolder("grape").toPath();
+        Path grapeJar = createJar(grape.resolve("org.apache.camel/camel-catalog/jars/camel-catalog-2.18.0.jar"));
+
+        LocalArtifactResolver resolver = new LocalArtifactResolver(LocalArtifactResolver.DEFAULT_TIME_BUDGET_MILLIS);
+        resolver.addRepository(gradle, LocalArtifactResolver.Layout.GRADLE);
+        resolver.addRepository(grape, LocalArtifactResolver.Layout.GRAPE);
+        assertEquals(gradleJar, resolver.resolve("org.apache.camel", "camel-catalog", "2.19.0"));
+        assertEquals(grapeJar, resolver.resolve("org.apache.camel", "camel-catalog", "2.18.0"));
+    }
+
+    @Test
+    public void testResolveInOrderOfPreference() throws IOException {
+        Path first = folder.newFolder("first").toPath();
+        Path second = folder.newFolder("second").toPath();
+        createJar(second.resolve("org/apache/camel/camel-catalog/2.19.0/camel-catalog-2.19.0.jar"));
+        Path jar = createJar(first.resolve("org/apache/camel/camel-catalog/2.19.0/camel-catalog-2.19.0.jar"));
+
+        LocalArtifactResolver resolver = new LocalArtifactResolver(LocalArtifactResolver.DEFAULT_TIME_BUDGET_MILLIS);
+        resolver.addRepository(first, LocalArtifactResolver.Layout.MAVEN);
+        resolver.addRepository(second, LocalArtifactResolver.Layout.MAVEN);
+        assertEquals(jar, resolver.resolve("org.apache.camel", "camel-catalog", "2.19.0"));
+    }
+
+    @Test
+    public void testOfflineLoadFromLocalRepository() throws IOException {
+        Path root = folder.newFolder("m2").toPath();
+        createJar(root.resolve("org/apache/camel/camel-catalog/2.19.0/camel-catalog-2.19.0.jar"));
+        LocalArtifactResolver resolver = new LocalArtifactResolver(LocalArtifactResolver.DEFAULT_TIME_BUDGET_MILLIS);
+        resolver.addRepository(root, LocalArtifactResolver.Layout.MAVEN);
+
+        CamelMavenVersionManager maven = new CamelMavenVersionManager(resolver, null);
+        maven.setOffline(true);
+        assertTrue(maven.loadVersion("2.19.0"));
+        assertEquals("2.19.0", maven.getLoadedVersion());
+        try (InputStream is = maven.getResourceAsStream("org/apache/camel/catalog/components/timer.json")) {
+            assertNotNull(is);
+        }
+    }
+
+    @Test
+    public void testOfflineFailFast() throws IOException {
+        LocalArtifactResolver resolver = new LocalArtifactResolver(LocalArtifactResolver.DEFAULT_TIME_BUDGET_MILLIS);
+        resolver.addRepository(folder.newFolder("m2").toPath(), LocalArtifactResolver.Layout.MAVEN);
+
+        CamelMavenVersionManager maven = new CamelMavenVersionManager(resolver, null);
+        maven.setOffline(true);
+        long start = System.currentTimeMillis();
+        assertFalse(maven.loadVersion("2.19.0"));
+        assertTrue(System.currentTimeMillis() - start < LocalArtifactResolver.DEFAULT_TIME_BUDGET_MILLIS);
+        assertNull(maven.getLoadedVersion());
+    }
+
+    private static Path createJar(Path jar) throws IOException {
+        Files.createDirectories(jar.getParent());
+        try (OutputStream os = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(os)) {
+            out.putNextEntry(new ZipEntry("org/apache/camel/catalog/components/timer.json"));
+            out.write("{}".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ScanSchedulerTest {
+
+    private static final long QUIET_PERIOD_MILLIS = 100;
+
+    private ScheduledExecutorService executor;
+    private final List<TestScan> started = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch latch;
+
+    @Before
+    public void setUp() {
+        executor = new ScheduledThreadPoolExecutor(1);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private ScanScheduler newScheduler() {
+        return new ScanScheduler(QUIET_PERIOD_MILLIS, executor, () -> {
+            TestScan scan = new TestScan();
+            started.add(scan);
+            latch.countDown();
+            return scan;
+        });
+    }
+
+    @Test
+    public void testBurstIsCollapsedIntoOneScan() throws InterruptedException {
+        ScanScheduler scheduler = newScheduler();
+        latch = new CountDownLatch(1);
+        for (int i = 0; i < 5; i++) {
+            scheduler.request();
+        }
+        assertTrue(scheduler.isPending());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        // wait another quiet period to make sure no other scan is started
+        Thread.sleep(QUIET_PERIOD_MILLIS * 2);
+
+        assertEquals(1, started.size());
+        assertFalse(scheduler.isPending());
+        assertEquals(5, scheduler.getRequests());
+        assertEquals(4, scheduler.getCollapsed());
+        assertEquals(1, scheduler.getScans());
+        assertEquals(0, scheduler.getCancelled());
+    }
+
+    @Test
+    public void testRequestCancelsRunningScan() throws InterruptedException {
+        ScanScheduler scheduler = newScheduler();
+        latch = new CountDownLatch(1);
+        scheduler.request();
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        latch = new CountDownLatch(1);
+        scheduler.request();
+        assertTrue(started.get(0).cancelled);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        assertEquals(2, started.size());
+        assertFalse(started.get(1).cancelled);
+        assertEquals(0, scheduler.getCollapsed());
+        assertEquals(2, scheduler.getScans());
+        assertEquals(1, scheduler.getCancelled());
+    }
+
+    @Test
+    public void testFinishedScanIsNotCancelled() throws InterruptedException {
+        ScanScheduler scheduler = newScheduler();
+        latch = new CountDownLatch(1);
+        scheduler.request();
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        started.get(0).finished = true;
+
+        latch = new CountDownLatch(1);
+        scheduler.request();
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        assertFalse(started.get(0).cancelled);
+        assertEquals(2, scheduler.getScans());
+        assertEquals(0, scheduler.getCancelled());
+    }
+
+    @Test
+    public void testDispose() throws InterruptedException {
+        ScanScheduler scheduler = newScheduler();
+        latch = new CountDownLatch(1);
+        scheduler.request();
+        scheduler.dispose();
+        scheduler.request();
+
+        assertFalse(latch.await(QUIET_PERIOD_MILLIS * 3, TimeUnit.MILLISECONDS));
+        assertTrue(started.isEmpty());
+        assertFalse(scheduler.isPending());
+        assertEquals(1, scheduler.getRequests());
+    }
+
+    private static final class TestScan implements ScanScheduler.Scan {
+        private volatile boolean finished;
+        private volatile boolean cancelled;
+
+        @Override
+        public boolean cancel() {
+            if (finished) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import org.apache.camel.catalog.CamelCatalog;
+import org.apache.camel.catalog.DefaultCamelCatalog;
+import org.apache.camel.catalog.SimpleValidationResult;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class SimpleValidationCacheTest {
+
+    private final CamelCatalog catalog = new DefaultCamelCatalog();
+    private final ClassLoader loader = new URLClassLoader(new URL[0]);
+
+    @Test
+    public void testCachedResult() {
+        SimpleValidationCache cache = new SimpleValidationCache(() -> loader);
+        SimpleValidationResult result = cache.validate(catalog, loader, "${body}", false);
+        assertSame(result, cache.validate(catalog, loader, "${body}", false));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 0.001);
+    }
+
+    @Test
+    public void testKeyedByPredicateAndClassLoader() {
+        SimpleValidationCache cache = new SimpleValidationCache(() -> loader);
+        SimpleValidationResult expression = cache.validate(catalog, loader, "${body}", false);
+        assertNotSame(expression, cache.validate(catalog, loader, "${body}", true));
+
+        // another camel-core library has another classloader
+        ClassLoader other = new URLClassLoader(new URL[0]);
+        assertNotSame(expression, cache.validate(catalog, other, "${body}", false));
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testResultOfReplacedClassLoaderIsNotCached() {
+        ClassLoader[] current = {loader};
+        SimpleValidationCache cache = new SimpleValidationCache(() -> current[0]);
+        cache.validate(catalog, loader, "${body}", false);
+        assertEquals(1, cache.size());
+
+        // such as a highlighting pass which still uses the classloader of the previous camel-core library
+        current[0] = new URLClassLoader(new URL[0]);
+        cache.clear();
+        cache.validate(catalog, loader, "${body}", false);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testClear() {
+        SimpleValidationCache cache = new SimpleValidationCache(() -> loader);
+        SimpleValidationResult result = cache.validate(catalog, loader, "${body}", false);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNotSame(result, cache.validate(catalog, loader, "${body}", false));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        SimpleValidationCache cache = new SimpleValidationCache(2, () -> loader);
+        SimpleValidationResult first = cache.validate(catalog, loader, "${body}", false);
+        cache.validate(catalog, loader, "${header.foo}", false);
+        // use the first so the second is the least recently used
+        cache.validate(catalog, loader, "${body}", false);
+        cache.validate(catalog, loader, "${in.body}", false);
+
+        assertEquals(2, cache.size());
+        assertSame(first, cache.validate(catalog, loader, "${body}", false));
+        assertEquals(2, cache.getHits());
+    }
+}
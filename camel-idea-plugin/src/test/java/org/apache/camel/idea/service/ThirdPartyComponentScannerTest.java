@@ -0,0 +1,223 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.apache.camel.idea.service.ThirdPartyComponentScanner.Component;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ThirdPartyComponentScannerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testScanComponentProperties() throws IOException {
+        Path jar = createComponentJar("foo.jar", true, "foo", "bar");
+
+        List<Component> components = new ThirdPartyComponentScanner(false).scan(jar, scheme -> false);
+        assertEquals(2, components.size());
+        assertEquals("foo", components.get(0).getScheme());
+        assertEquals("com.foo.FooComponent", components.get(0).getJavaType());
+        assertEquals("{\"component\": \"foo\"}", components.get(0).getJson().trim());
+        assertEquals("bar", components.get(1).getScheme());
+    }
+
+    @Test
+    public void testScanSkipsKnownComponents() throws IOException {
+        Path jar = createComponentJar("foo.jar", true, "foo", "timer");
+
+        List<Component> components = new ThirdPartyComponentScanner(false).scan(jar, "timer"::equals);
+        assertEquals(1, components.size());
+        assertEquals("foo", components.get(0).getScheme());
+    }
+
+    @Test
+    public void testScanMissingJSonSchema() throws IOException {
+        Path jar = folder.getRoot().toPath().resolve("foo.jar");
+        try (OutputStream os = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(os)) {
+            write(out, "META-INF/services/org/apache/camel/component.properties", "components=foo");
+            write(out, "META-INF/services/org/apache/camel/component/foo", "class=com.foo.FooComponent");
+        }
+
+        List<Component> components = new ThirdPartyComponentScanner(false).scan(jar, scheme -> false);
+        assertEquals(1, components.size());
+        assertEquals("com.foo.FooComponent", components.get(0).getJavaType());
+        assertNull(components.get(0).getJson());
+    }
+
+    @Test
+    public void testLegacyScan() throws IOException {
+        Path jar = createComponentJar("foo.jar", false, "foo");
+
+        assertTrue(new ThirdPartyComponentScanner(false).scan(jar, scheme -> false).isEmpty());
+        List<Component> components = new ThirdPartyComponentScanner(true).scan(jar, scheme -> false);
+        assertEquals(1, components.size());
+        assertEquals("foo", components.get(0).getScheme());
+    }
+
+    @Test
+    public void testScanNotJar() throws IOException {
+        Path jar = folder.newFile("foo.jar").toPath();
+        Files.write(jar, "not a jar".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(new ThirdPartyComponentScanner(true).scan(jar, scheme -> false).isEmpty());
+    }
+
+    @Test
+    public void testScanInParallelKeepsOrderOfJars() throws IOException {
+        List<Path> jars = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            // every other jar is not a Camel component
+            jars.add(i % 2 == 0 ? createComponentJar("foo" + i + ".jar", true, "foo" + i) : createJar("other" + i + ".jar"));
+        }
+
+        AtomicInteger checks = new AtomicInteger();
+        List<List<Component>> components = new ThirdPartyComponentScanner(false, executor, null).scan(jars, scheme -> false, checks::incrementAndGet);
+        assertEquals(20, components.size());
+        for (int i = 0; i < 20; i++) {
+            if (i % 2 == 0) {
+                assertEquals(1, components.get(i).size());
+                assertEquals("foo" + i, components.get(i).get(0).getScheme());
+            } else {
+                assertTrue(components.get(i).isEmpty());
+            }
+        }
+        assertTrue(checks.get() >= 20);
+    }
+
+    @Test
+    public void testScansShareThePool() throws IOException {
+        List<Path> jars = Arrays.asList(createComponentJar("foo.jar", true, "foo"), createComponentJar("bar.jar", true, "bar"));
+        ThirdPartyComponentScanner scanner = new ThirdPartyComponentScanner(false, executor, null);
+        try {
+            scanner.scan(jars, scheme -> false, () -> {
+                throw new IllegalStateException("cancelled");
+            });
+            fail("Should have been cancelled");
+        } catch (IllegalStateException e) {
+            assertEquals("cancelled", e.getMessage());
+        }
+
+        // the pool is not shut down by a cancelled scan, so the next scan can use it
+        assertFalse(executor.isShutdown());
+        List<List<Component>> components = scanner.scan(jars, scheme -> false, () -> { });
+        assertEquals("foo", components.get(0).get(0).getScheme());
+        assertEquals("bar", components.get(1).get(0).getScheme());
+    }
+
+    @Test
+    public void testScanCancelled() throws IOException {
+        List<Path> jars = Arrays.asList(createComponentJar("foo.jar", true, "foo"), createComponentJar("bar.jar", true, "bar"));
+        try {
+            new ThirdPartyComponentScanner(false, executor, null).scan(jars, scheme -> false, () -> {
+                throw new IllegalStateException("cancelled");
+            });
+            fail("Should have been cancelled");
+        } catch (IllegalStateException e) {
+            assertEquals("cancelled", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testScanWithCache() throws IOException {
+        Path jar = createComponentJar("foo.jar", true, "foo", "timer");
+        FileTime lastModified = Files.getLastModifiedTime(jar);
+        ThirdPartyScanCache cache = new ThirdPartyScanCache(folder.getRoot().toPath().resolve("scan.bin"));
+
+        List<Component> components = new ThirdPartyComponentScanner(false, null, cache).scan(jar, "timer"::equals);
+        assertEquals(1, components.size());
+        assertEquals(1, cache.size());
+
+        // the jar is not read again as long as its size and modification time are unchanged
+        byte[] bytes = Files.readAllBytes(jar);
+        Arrays.fill(bytes, (byte) 0);
+        Files.write(jar, bytes);
+        Files.setLastModifiedTime(jar, lastModified);
+        components = new ThirdPartyComponentScanner(false, null, cache).scan(jar, scheme -> false);
+        assertEquals(2, components.size());
+        assertEquals("foo", components.get(0).getScheme());
+        assertEquals("timer", components.get(1).getScheme());
+
+        // but is scanned again when changed
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(lastModified.toMillis() + 1000));
+        assertTrue(new ThirdPartyComponentScanner(false, null, cache).scan(jar, scheme -> false).isEmpty());
+    }
+
+    @Test
+    public void testScanNoJars() {
+        assertTrue(new ThirdPartyComponentScanner(false).scan(Collections.emptyList(), scheme -> false, () -> { }).isEmpty());
+    }
+
+    private Path createComponentJar(String name, boolean componentProperties, String... schemes) throws IOException {
+        Path jar = folder.getRoot().toPath().resolve(name);
+        try (OutputStream os = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(os)) {
+            if (componentProperties) {
+                write(out, "META-INF/services/org/apache/camel/component.properties", "components=" + String.join(" ", schemes));
+            }
+            for (String scheme : schemes) {
+                String type = Character.toUpperCase(scheme.charAt(0)) + scheme.substring(1);
+                write(out, "META-INF/services/org/apache/camel/component/" + scheme, "class=com." + scheme + "." + type + "Component");
+                write(out, "com/" + scheme + "/" + scheme + ".json", "{\"component\": \"" + scheme + "\"}");
+            }
+        }
+        return jar;
+    }
+
+    private Path createJar(String name) throws IOException {
+        Path jar = folder.getRoot().toPath().resolve(name);
+        try (OutputStream os = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(os)) {
+            write(out, "com/other/Other.class", "");
+        }
+        return jar;
+    }
+
+    private static void write(JarOutputStream out, String name, String content) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.camel.idea.service.ThirdPartyComponentScanner.Component;
+import org.apache.camel.idea.service.ThirdPartyScanCache.Fingerprint;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ThirdPartyScanCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("scan/project.bin");
+        Path foo = createFile("foo.jar", "foo");
+        Path bar = createFile("bar.jar", "bar");
+
+        ThirdPartyScanCache cache = new ThirdPartyScanCache(file);
+        cache.put(Fingerprint.of(foo), false, Arrays.asList(new Component("foo", "com.foo.FooComponent", "{\"foo\": 1}"),
+            new Component("baz", null, null), new Component("qux", "com.foo.QuxComponent", "{\"foo\": 1}")));
+        cache.put(Fingerprint.of(bar), false, Collections.emptyList());
+        cache.save();
+        assertTrue(Files.isRegularFile(file));
+
+        cache = new ThirdPartyScanCache(file);
+        List<Component> components = cache.get(Fingerprint.of(foo), false);
+        assertNotNull(components);
+        assertEquals(3, components.size());
+        assertEquals("foo", components.get(0).getScheme());
+        assertEquals("com.foo.FooComponent", components.get(0).getJavaType());
+        assertEquals("{\"foo\": 1}", components.get(0).getJson());
+        assertNull(components.get(1).getJavaType());
+        assertNull(components.get(1).getJson());
+        assertEquals("{\"foo\": 1}", components.get(2).getJson());
+
+        // a jar without Camel components
+        components = cache.get(Fingerprint.of(bar), false);
+        assertNotNull(components);
+        assertTrue(components.isEmpty());
+    }
+
+    @Test
+    public void testChangedJar() throws IOException {
+        Path foo = createFile("foo.jar", "foo");
+        ThirdPartyScanCache cache = new ThirdPartyScanCache(folder.getRoot().toPath().resolve("project.bin"));
+        cache.put(Fingerprint.of(foo), false, Collections.emptyList());
+        assertNotNull(cache.get(Fingerprint.of(foo), false));
+
+        // scanned with another legacy scan setting
+        assertNull(cache.get(Fingerprint.of(foo), true));
+
+        Files.setLastModifiedTime(foo, FileTime.fromMillis(Files.getLastModifiedTime(foo).toMillis() + 1000));
+        assertNull(cache.get(Fingerprint.of(foo), false));
+
+        Files.write(foo, "foo bar".getBytes(StandardCharsets.UTF_8));
+        assertNull(cache.get(Fingerprint.of(foo), false));
+    }
+
+    @Test
+    public void testSaveRemovesDeletedJars() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("project.bin");
+        Path foo = createFile("foo.jar", "foo");
+        Path bar = createFile("bar.jar", "bar");
+
+        ThirdPartyScanCache cache = new ThirdPartyScanCache(file);
+        cache.put(Fingerprint.of(foo), false, Collections.emptyList());
+        cache.put(Fingerprint.of(bar), false, Collections.emptyList());
+        Files.delete(bar);
+        cache.save();
+
+        cache = new ThirdPartyScanCache(file);
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(Fingerprint.of(foo), false));
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException {
+        Path file = createFile("project.bin", "not a scan cache");
+        Path foo = createFile("foo.jar", "foo");
+
+        ThirdPartyScanCache cache = new ThirdPartyScanCache(file);
+        assertNull(cache.get(Fingerprint.of(foo), false));
+        assertEquals(0, cache.size());
+
+        // and is replaced when saved
+        cache.put(Fingerprint.of(foo), false, Collections.emptyList());
+        cache.save();
+        assertNotNull(new ThirdPartyScanCache(file).get(Fingerprint.of(foo), false));
+    }
+
+    @Test
+    public void testCorruptStringLength() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("project.bin");
+        Path foo = createFile("foo.jar", "foo");
+        Path bar = createFile("bar.jar", "bar");
+        ThirdPartyScanCache cache = new ThirdPartyScanCache(file);
+        cache.put(Fingerprint.of(foo), false, Collections.emptyList());
+        cache.put(Fingerprint.of(bar), false, Collections.singletonList(new Component("bar", "com.foo.BarComponent", null)));
+        cache.save();
+        byte[] bytes = Files.readAllBytes(file);
+
+        // the length of the java type of the bar component
+        int offset = new String(bytes, StandardCharsets.ISO_8859_1).indexOf("com.foo.BarComponent") - 4;
+        for (int length : new int[]{-2, Integer.MAX_VALUE}) {
+            ByteBuffer.wrap(bytes).putInt(offset, length);
+            Files.write(file, bytes);
+
+            cache = new ThirdPartyScanCache(file);
+            assertEquals(0, cache.size());
+            assertNull(cache.get(Fingerprint.of(foo), false));
+        }
+    }
+
+    private Path createFile(String name, String content) throws IOException {
+        Path file = folder.getRoot().toPath().resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.util;
+
+import java.util.List;
+import org.apache.camel.idea.util.CamelEndpointUri.Parameter;
+import org.apache.camel.idea.util.CamelEndpointUri.Part;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CamelEndpointUriTest {
+
+    @Test
+    public void testParse() {
+        String source = "jms:queue:foo?concurrentConsumers=2&disableReplyTo=true";
+        CamelEndpointUri uri = CamelEndpointUri.parse(source);
+
+        assertSame(source, uri.getText());
+        assertPart("jms", 0, uri.getScheme());
+        assertPart("queue:foo", 4, uri.getPath());
+        assertEquals(2, uri.getPathSegments().size());
+        assertPart("queue", 4, uri.getPathSegments().get(0));
+        assertPart("foo", 10, uri.getPathSegments().get(1));
+        assertTrue(uri.hasQuery());
+        assertFalse(uri.hasTrailingSeparator());
+
+        List<Parameter> parameters = uri.getParameters();
+        assertEquals(2, parameters.size());
+        assertEquals('?', parameters.get(0).getSeparator());
+        assertPart("concurrentConsumers", 14, parameters.get(0).getName());
+        assertPart("2", 34, parameters.get(0).getValue());
+        assertEquals('&', parameters.get(1).getSeparator());
+        assertPart("disableReplyTo", 36, parameters.get(1).getName());
+        assertPart("true", 51, parameters.get(1).getValue());
+    }
+
+    @Test
+    public void testNoSchemeOrQuery() {
+        CamelEndpointUri uri = CamelEndpointUri.parse("foo");
+        assertNull(uri.getScheme());
+        assertPart("foo", 0, uri.getPath());
+        assertFalse(uri.hasQuery());
+        assertTrue(uri.getParameters().isEmpty());
+
+        uri = CamelEndpointUri.parse("timer:foo?");
+        assertPart("timer", 0, uri.getScheme());
+        assertTrue(uri.hasQuery());
+        assertTrue(uri.hasTrailingSeparator());
+        assertTrue(uri.getParameters().isEmpty());
+    }
+
+    @Test
+    public void testOptionNameInPathAndRepeated() {
+        // the offsets are exact even when the option name also appears in the path or is repeated
+        CamelEndpointUri uri = CamelEndpointUri.parse("timer:delay?delay=foo&foo=bar&foo=baz&");
+        assertPart("delay", 12, uri.getParameters().get(0).getName());
+        assertPart("foo", 18, uri.getParameters().get(0).getValue());
+
+        List<Parameter> foos = uri.getParameters("foo");
+        assertEquals(2, foos.size());
+        assertPart("foo", 22, foos.get(0).getName());
+        assertPart("foo", 30, foos.get(1).getName());
+        assertTrue(uri.hasTrailingSeparator());
+    }
+
+    @Test
+    public void testEmptyValueAndNoValue() {
+        CamelEndpointUri uri = CamelEndpointUri.parse("timer:foo?delay=&fixedRate");
+        assertPart("", 16, uri.getParameters().get(0).getValue());
+        assertPart("fixedRate", 17, uri.getParameters().get(1).getName());
+        assertNull(uri.getParameters().get(1).getValue());
+    }
+
+    @Test
+    public void testXmlEscaped() {
+        String source = "timer:foo?delay=1&amp;period=2";
+        CamelEndpointUri uri = CamelEndpointUri.parse(source);
+        assertEquals("timer:foo?delay=1&period=2", uri.getText());
+        assertPart("period", 22, uri.getParameters().get(1).getName());
+        assertPart("2", 29, uri.getParameters().get(1).getValue());
+        assertEquals("period", source.substring(22, 28));
+    }
+
+    @Test
+    public void testMultiline() {
+        String source = "timer:trigger?repeatCount=10\n         &amp;fixedRate=false\n         &amp;pexriod=10";
+        CamelEndpointUri uri = CamelEndpointUri.parse(source);
+        assertEquals("timer:trigger?repeatCount=10&fixedRate=false&pexriod=10", uri.getText());
+        Part name = uri.getParameters("pexriod").get(0).getName();
+        assertEquals("pexriod", source.substring(name.getStart(), name.getEnd()));
+    }
+
+    @Test
+    public void testJavaConcatenation() {
+        String source = "timer:trigger?repeatCount=10\"+\n                 \"&fixedRate=falxse\"+\n"
+            + "                 \"&daemon=false&\" \n                + \"pexriod=10\"";
+        CamelEndpointUri uri = CamelEndpointUri.parse(source);
+        assertEquals("timer:trigger?repeatCount=10&fixedRate=falxse&daemon=false&pexriod=10", uri.getText());
+        Part value = uri.getParameters("fixedRate").get(0).getValue();
+        assertEquals("falxse", source.substring(value.getStart(), value.getEnd()));
+        Part name = uri.getParameters("pexriod").get(0).getName();
+        assertEquals("pexriod", source.substring(name.getStart(), name.getEnd()));
+    }
+
+    @Test
+    public void testPlaceholders() {
+        CamelEndpointUri uri = CamelEndpointUri.parse("file:{{dir?a=b}}/in?fileName=${date:now:yyyy}-${header.foo}.txt&delay={{myDelay}}&include=%s");
+        assertEquals(2, uri.getPathSegments().size());
+        assertPart("{{dir?a=b}}", 5, uri.getPathSegments().get(0));
+        assertTrue(uri.getPathSegments().get(0).hasPlaceholder());
+        assertFalse(uri.getPathSegments().get(1).hasPlaceholder());
+        assertTrue(uri.getPath().hasPlaceholder());
+
+        List<Parameter> parameters = uri.getParameters();
+        assertEquals(3, parameters.size());
+        assertEquals("${date:now:yyyy}-${header.foo}.txt", parameters.get(0).getValue().getText());
+        assertTrue(parameters.get(0).getValue().hasPlaceholder());
+        assertFalse(parameters.get(0).getName().hasPlaceholder());
+        assertEquals("{{myDelay}}", parameters.get(1).getValue().getText());
+        assertTrue(parameters.get(1).getValue().hasPlaceholder());
+        assertEquals("%s", parameters.get(2).getValue().getText());
+        assertTrue(parameters.get(2).getValue().hasPlaceholder());
+    }
+
+    @Test
+    public void testSimpleWithNestedBraces() {
+        CamelEndpointUri uri = CamelEndpointUri.parse("file:out?fileName=${bean:foo?method=bar(${body})}&x=1");
+        assertEquals(2, uri.getParameters().size());
+        assertEquals("${bean:foo?method=bar(${body})}", uri.getParameters().get(0).getValue().getText());
+        assertEquals("x", uri.getParameters().get(1).getName().getText());
+    }
+
+    @Test
+    public void testParameterAt() {
+        CamelEndpointUri uri = CamelEndpointUri.parse("timer:foo?delay=10&period=20");
+        assertNull(uri.getParameterAt(5));
+        assertEquals("delay", uri.getParameterAt(10).getName().getText());
+        assertEquals("delay", uri.getParameterAt(18).getName().getText());
+        assertEquals("period", uri.getParameterAt(22).getName().getText());
+        assertEquals("period", uri.getParameterAt(28).getName().getText());
+    }
+
+    private static void assertPart(String text, int start, Part part) {
+        assertEquals(text, part.getText());
+        assertEquals(start, part.getStart());
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.util;
+
+import com.intellij.codeInsight.completion.CompletionUtil;
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.psi.PsiLiteralExpression;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.LightCodeInsightFixtureTestCase;
+
+/**
+ * Testing the query parameter at the cursor position, as used by the smart completion of the endpoint options
+ */
+public class IdeaUtilsQueryParameterAtCursorPositionTestIT extends LightCodeInsightFixtureTestCase {
+
+    private String[] getQueryParameterAtCursorPosition(String uri) {
+        String code = "import org.apache.camel.builder.RouteBuilder;\n"
+            + "public class MyRouteBuilder extends RouteBuilder {\n"
+            + "        public void configure() throws Exception {\n"
+            + "            from(\"" + uri.replace("<caret>", CompletionUtil.DUMMY_IDENTIFIER_TRIMMED) + "\")\n"
+            + "                .to(\"log:out\");\n"
+            + "        }\n"
+            + "    }";
+        myFixture.configureByText("QueryParameterTestData.java", code);
+        PsiLiteralExpression literal = PsiTreeUtil.findChildrenOfType(myFixture.getFile(), PsiLiteralExpression.class).iterator().next();
+        return ServiceManager.getService(IdeaUtils.class).getQueryParameterAtCursorPosition(literal);
+    }
+
+    public void testOption() {
+        assertOrderedEquals(getQueryParameterAtCursorPosition("timer:trigger?repeatCount=0&de<caret>"), "&de", null);
+        assertOrderedEquals(getQueryParameterAtCursorPosition("timer:trigger?de<caret>"), "?de", null);
+        assertOrderedEquals(getQueryParameterAtCursorPosition("timer:trigger?repeatCount=0&<caret>"), "&", null);
+    }
+
+    public void testOptionValue() {
+        assertOrderedEquals(getQueryParameterAtCursorPosition("timer:trigger?repeatCount=0&delay=10<caret>"), "&delay", "10");
+        assertOrderedEquals(getQueryParameterAtCursorPosition("timer:trigger?repeatCount=0&delay=<caret>"), "&delay", "");
+    }
+
+    public void testOptionAfterDot() {
+        assertOrderedEquals(getQueryParameterAtCursorPosition("timer:trigger?foo.ba<caret>"), ".ba", null);
+        assertOrderedEquals(getQueryParameterAtCursorPosition("file:inbox?delay=10&consumer.ba<caret>"), ".ba", null);
+    }
+
+    public void testContextPath() {
+        assertOrderedEquals(getQueryParameterAtCursorPosition("jms:qu<caret>"), ":qu", null);
+    }
+
+}
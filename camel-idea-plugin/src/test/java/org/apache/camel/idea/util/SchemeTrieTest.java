@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.idea.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SchemeTrieTest {
+
+    private SchemeTrie createTrie() {
+        SchemeTrie trie = new SchemeTrie();
+        trie.add("timer", "timer");
+        trie.add("http4", "http4");
+        trie.add("https4", "http4");
+        trie.add("http", "http");
+        trie.add("file", "file");
+        trie.add("ftp", "ftp");
+        return trie;
+    }
+
+    @Test
+    public void testComponentName() {
+        SchemeTrie trie = createTrie();
+        assertEquals(6, trie.size());
+        assertEquals("http4", trie.getComponentName("https4"));
+        assertEquals("http", trie.getComponentName("http"));
+        assertNull(trie.getComponentName("htt"));
+        assertNull(trie.getComponentName("jms"));
+        assertNull(trie.getComponentName(null));
+    }
+
+    @Test
+    public void testAddExisting() {
+        SchemeTrie trie = createTrie();
+        trie.add("https4", "https4");
+        assertEquals(6, trie.size());
+        assertEquals("http4", trie.getComponentName("https4"));
+    }
+
+    @Test
+    public void testPrefix() {
+        SchemeTrie trie = createTrie();
+        assertTrue(trie.isPrefix(""));
+        assertTrue(trie.isPrefix("ht"));
+        assertTrue(trie.isPrefix("timer"));
+        assertFalse(trie.isPrefix("timers"));
+        assertFalse(trie.isPrefix("x"));
+
+        assertEquals(Arrays.asList("http", "http4", "https4"), trie.findByPrefix("ht"));
+        assertEquals(Arrays.asList("file", "ftp"), trie.findByPrefix("f"));
+        assertEquals(Arrays.asList("file", "ftp", "http", "http4", "https4", "timer"), trie.findByPrefix(""));
+        assertEquals(Collections.emptyList(), trie.findByPrefix("jms"));
+    }
+
+    @Test
+    public void testMatchScheme() {
+        SchemeTrie trie = createTrie();
+        assertEquals("timer", trie.matchScheme("timer:foo?period=5000"));
+        assertEquals("http4", trie.matchScheme("https4://localhost"));
+        assertEquals("http", trie.matchScheme("http:"));
+        assertNull(trie.matchScheme("timer"));
+        assertNull(trie.matchScheme("htt:foo"));
+        assertNull(trie.matchScheme(":foo"));
+        assertNull(trie.matchScheme("jms:queue:foo"));
+        assertNull(trie.matchScheme(null));
+    }
+}